@@ -2,8 +2,10 @@ package com.example.Project_V1;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ProjectV1Application {
 
 	public static void main(String[] args) {
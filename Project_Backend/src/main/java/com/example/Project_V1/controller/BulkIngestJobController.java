@@ -0,0 +1,114 @@
+package com.example.Project_V1.controller;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkIngestResultPageDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.service.BulkFileImportService;
+import com.example.Project_V1.service.BulkIngestJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/transactions/jobs")
+public class BulkIngestJobController {
+
+    private final BulkIngestJobService bulkIngestJobService;
+    private final BulkFileImportService bulkFileImportService;
+
+    public BulkIngestJobController(BulkIngestJobService bulkIngestJobService,
+                                   BulkFileImportService bulkFileImportService) {
+        this.bulkIngestJobService = bulkIngestJobService;
+        this.bulkFileImportService = bulkFileImportService;
+    }
+
+    /**
+     * Submit a bulk ingest job; returns at once with the job id
+     * POST /api/transactions/jobs
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody BulkMessageProcessRequestDto requestDto) {
+        try {
+            BulkIngestJobDto job = bulkIngestJobService.submit(requestDto);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while submitting the job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Import a large message export file (JSON array or one object per line) as a job
+     * POST /api/transactions/jobs/import?userId={userId}  (multipart, part name "file")
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importFile(@RequestParam Long userId, @RequestParam("file") MultipartFile file) {
+        try {
+            BulkIngestJobDto job = bulkFileImportService.importFile(userId, file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while importing the file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Job status, counters and throughput
+     * GET /api/transactions/jobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(bulkIngestJobService.getJob(jobId));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Per-message results processed so far, in input order
+     * GET /api/transactions/jobs/{jobId}/results?page=0&size=100
+     */
+    @GetMapping("/{jobId}/results")
+    public ResponseEntity<?> getResults(@PathVariable String jobId,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "100") int size) {
+        if (page < 0 || size <= 0 || size > BulkIngestJobService.MAX_PAGE_SIZE) {
+            return error(HttpStatus.BAD_REQUEST,
+                    "Page must not be negative and size must be between 1 and " + BulkIngestJobService.MAX_PAGE_SIZE);
+        }
+        try {
+            BulkIngestResultPageDto results = bulkIngestJobService.getResults(jobId, page, size);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel a job; slices already processed stay committed
+     * DELETE /api/transactions/jobs/{jobId}
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(bulkIngestJobService.cancel(jobId));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
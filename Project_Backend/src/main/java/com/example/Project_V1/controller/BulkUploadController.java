@@ -0,0 +1,122 @@
+package com.example.Project_V1.controller;
+
+import com.example.Project_V1.dto.BulkUploadDto;
+import com.example.Project_V1.service.BulkUploadService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/transactions/uploads")
+public class BulkUploadController {
+
+    private final BulkUploadService bulkUploadService;
+
+    public BulkUploadController(BulkUploadService bulkUploadService) {
+        this.bulkUploadService = bulkUploadService;
+    }
+
+    /**
+     * Start a resumable upload of newline-delimited JSON messages; its job starts processing right away
+     * POST /api/transactions/uploads?userId={userId}
+     */
+    @PostMapping
+    public ResponseEntity<?> createUpload(@RequestParam Long userId) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(bulkUploadService.create(userId));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while creating the upload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append a chunk starting at offset (at or before the committed offset)
+     * PUT /api/transactions/uploads/{uploadId}?offset={offset}
+     */
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<?> appendChunk(@PathVariable String uploadId,
+                                         @RequestParam long offset,
+                                         InputStream body) {
+        if (offset < 0) {
+            return error(HttpStatus.BAD_REQUEST, "Chunk offset must not be negative");
+        }
+        try {
+            return ResponseEntity.ok(bulkUploadService.appendChunk(uploadId, offset, body));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            return conflict(uploadId, e.getMessage());
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "An error occurred while writing the chunk: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Committed offset and job id, e.g. to resume after a failed chunk
+     * GET /api/transactions/uploads/{uploadId}
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> getUpload(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(bulkUploadService.getUpload(uploadId));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * Mark the upload complete; length, when given, must equal the committed offset
+     * POST /api/transactions/uploads/{uploadId}/finalize?length={length}
+     */
+    @PostMapping("/{uploadId}/finalize")
+    public ResponseEntity<?> finalizeUpload(@PathVariable String uploadId,
+                                            @RequestParam(required = false) Long length) {
+        try {
+            return ResponseEntity.ok(bulkUploadService.finish(uploadId, length));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            return conflict(uploadId, e.getMessage());
+        }
+    }
+
+    /**
+     * Abort the upload and cancel its job
+     * DELETE /api/transactions/uploads/{uploadId}
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(bulkUploadService.abort(uploadId));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * 409 carrying the committed offset, so the client can resume without another round trip
+     */
+    private ResponseEntity<Map<String, Object>> conflict(String uploadId, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        try {
+            errorResponse.put("committedOffset", bulkUploadService.getUpload(uploadId).getCommittedOffset());
+        } catch (IllegalArgumentException e) {
+            // Removed in the meantime; the error alone says enough
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.Project_V1.controller;
 
+import com.example.Project_V1.dto.PatternCacheStatsDto;
 import com.example.Project_V1.dto.RegexLogDto;
 import com.example.Project_V1.dto.RegexRequestDto;
 import com.example.Project_V1.dto.RegexResponseDto;
 import com.example.Project_V1.dto.RegexSaveRequestDto;
 import com.example.Project_V1.dto.StatusUpdateRequestDto;
+import com.example.Project_V1.dto.TemplateCacheStatsDto;
+import com.example.Project_V1.regex.RegexTimeoutException;
 import com.example.Project_V1.service.RegexService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -47,6 +50,10 @@ public class RegexController {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.ALREADY_REPORTED).body(errorResponse);
+        } catch (RegexTimeoutException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
 
@@ -74,6 +81,21 @@ public class RegexController {
         return ResponseEntity.ok(patterns);
     }
 
+    @GetMapping("/cache-stats")
+    public ResponseEntity<PatternCacheStatsDto> getPatternCacheStats() {
+        return ResponseEntity.ok(regexService.getPatternCacheStats());
+    }
+
+    @GetMapping("/match-timeouts")
+    public ResponseEntity<Map<Long, Long>> getMatchTimeouts() {
+        return ResponseEntity.ok(regexService.getMatchTimeouts());
+    }
+
+    @GetMapping("/template-cache-stats")
+    public ResponseEntity<TemplateCacheStatsDto> getTemplateCacheStats() {
+        return ResponseEntity.ok(regexService.getTemplateCacheStats());
+    }
+
     @GetMapping("/getRegexPatternById")
     public ResponseEntity<?> getRegexPatternById(@RequestBody Long id) {
         try {
@@ -2,13 +2,23 @@ package com.example.Project_V1.controller;
 
 import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
 import com.example.Project_V1.dto.BulkMessageProcessResponseDto;
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.dto.MultiUserBulkMessageRequestDto;
 import com.example.Project_V1.dto.TransactionMessageRequestDto;
 import com.example.Project_V1.dto.TransactionResponseDto;
+import com.example.Project_V1.ingest.CompactBulkResponseEncoder;
+import com.example.Project_V1.ingest.IdempotencyStore;
+import com.example.Project_V1.service.BulkStreamIngestService;
+import com.example.Project_V1.service.IngestLogService;
 import com.example.Project_V1.service.TransactionService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,19 +29,39 @@ import java.util.Map;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final BulkStreamIngestService bulkStreamIngestService;
+    private final IdempotencyStore idempotencyStore;
+    private final IngestLogService ingestLogService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 BulkStreamIngestService bulkStreamIngestService,
+                                 IdempotencyStore idempotencyStore,
+                                 IngestLogService ingestLogService) {
         this.transactionService = transactionService;
+        this.bulkStreamIngestService = bulkStreamIngestService;
+        this.idempotencyStore = idempotencyStore;
+        this.ingestLogService = ingestLogService;
     }
 
     /**
      * Process a transaction message and extract details using approved regex patterns
-     * POST /api/transactions/process
+     * POST /api/transactions/process (optional Idempotency-Key header: retries replay the first response)
      */
     @PostMapping("/process")
-    public ResponseEntity<?> processTransactionMessage(@RequestBody TransactionMessageRequestDto requestDto) {
+    public ResponseEntity<?> processTransactionMessage(@RequestBody TransactionMessageRequestDto requestDto,
+                                                       @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            TransactionResponseDto response = transactionService.processMessage(requestDto);
+            TransactionResponseDto response;
+            if (idempotencyKey == null) {
+                response = transactionService.processMessage(requestDto);
+            } else {
+                if (idempotencyKey.isBlank() || idempotencyKey.length() > 255) {
+                    throw new IllegalArgumentException("Idempotency-Key must be 1 to 255 characters");
+                }
+                // Keys are per user; a retry gets the first response without matching or inserting again
+                response = idempotencyStore.execute(requestDto.getUserId() + ":" + idempotencyKey, requestDto,
+                        () -> transactionService.processMessage(requestDto));
+            }
             
             if (!response.isMatchFound()) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -40,6 +70,11 @@ public class TransactionController {
                 errorResponse.put("originalMessage", requestDto.getMessage());
                 return ResponseEntity.status(HttpStatus.OK).body(errorResponse);
             }
+
+            // Already stored: nothing was created, the body is the existing transaction
+            if (response.isDuplicate()) {
+                return ResponseEntity.ok(response);
+            }
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
@@ -57,12 +92,67 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Accept a message for processing in the background; answers once it is durably logged
+     * POST /api/transactions/process-async
+     */
+    @PostMapping("/process-async")
+    public ResponseEntity<?> processTransactionMessageAsync(@RequestBody TransactionMessageRequestDto requestDto) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ingestLogService.append(requestDto));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (IllegalStateException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "An error occurred while accepting the message: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Whether a message accepted by /process-async has been processed
+     * GET /api/transactions/process-async/{offset}
+     */
+    @GetMapping("/process-async/{offset}")
+    public ResponseEntity<?> getAsyncMessage(@PathVariable long offset) {
+        try {
+            return ResponseEntity.ok(ingestLogService.getEntry(offset));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (IllegalStateException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+
+    /**
+     * Ingest log progress: accepted vs processed offset, counters, last drain error
+     * GET /api/transactions/process-async
+     */
+    @GetMapping("/process-async")
+    public ResponseEntity<?> getAsyncStatus() {
+        return ResponseEntity.ok(ingestLogService.getStatus());
+    }
+
     /**
      * Process multiple transaction messages in bulk
      * POST /api/transactions/process-bulk
+     * ?compact=true answers with ids and error codes only; Accept: application/octet-stream gets the binary form
      */
     @PostMapping("/process-bulk")
-    public ResponseEntity<?> processBulkTransactionMessages(@RequestBody BulkMessageProcessRequestDto requestDto) {
+    public ResponseEntity<?> processBulkTransactionMessages(
+            @RequestBody BulkMessageProcessRequestDto requestDto,
+            @RequestParam(defaultValue = "false") boolean compact,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
             // Validate request
             if (requestDto.getUserId() == null) {
@@ -77,21 +167,40 @@ public class TransactionController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
             }
 
+            if (compact || acceptsBinary(accept)) {
+                return compactResponse(transactionService.processBulkMessagesCompact(requestDto), accept);
+            }
+
             BulkMessageProcessResponseDto response = transactionService.processBulkMessages(requestDto);
+            return bulkResponse(response);
             
-            // Return 207 Multi-Status if some messages succeeded and some failed
-            if (response.getSuccessfullyProcessed() > 0 && response.getFailed() > 0) {
-                return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(response);
+        } catch (Exception e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "An error occurred while processing bulk messages: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Process messages for many users in one call; each message carries its own userId
+     * POST /api/transactions/process-bulk-multi  (same compact options as /process-bulk)
+     */
+    @PostMapping("/process-bulk-multi")
+    public ResponseEntity<?> processMultiUserBulkMessages(
+            @RequestBody MultiUserBulkMessageRequestDto requestDto,
+            @RequestParam(defaultValue = "false") boolean compact,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            if (requestDto.getMessages() == null || requestDto.getMessages().isEmpty()) {
+                Map<String, String> errorResponse = new HashMap<>();
+                errorResponse.put("error", "At least one message is required for bulk processing");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
             }
-            
-            // Return 201 Created if all messages processed successfully
-            if (response.getFailed() == 0) {
-                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+            if (compact || acceptsBinary(accept)) {
+                return compactResponse(transactionService.processMultiUserBulkMessagesCompact(requestDto), accept);
             }
-            
-            // Return 400 Bad Request if all messages failed
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-            
+            return bulkResponse(transactionService.processMultiUserBulkMessages(requestDto));
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "An error occurred while processing bulk messages: " + e.getMessage());
@@ -99,6 +208,63 @@ public class TransactionController {
         }
     }
 
+    private ResponseEntity<BulkMessageProcessResponseDto> bulkResponse(BulkMessageProcessResponseDto response) {
+        return ResponseEntity.status(bulkStatus(response.getSuccessfullyProcessed(), response.getFailed())).body(response);
+    }
+
+    private ResponseEntity<?> compactResponse(CompactBulkResponseDto response, String accept) {
+        HttpStatus status = bulkStatus(response.getSuccessfullyProcessed(), response.getFailed());
+        if (acceptsBinary(accept)) {
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(CompactBulkResponseEncoder.encode(response));
+        }
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private HttpStatus bulkStatus(int successfullyProcessed, int failed) {
+        // Return 207 Multi-Status if some messages succeeded and some failed
+        if (successfullyProcessed > 0 && failed > 0) {
+            return HttpStatus.MULTI_STATUS;
+        }
+        
+        // Return 201 Created if all messages processed successfully
+        if (failed == 0) {
+            return HttpStatus.CREATED;
+        }
+        
+        // Return 400 Bad Request if all messages failed
+        return HttpStatus.BAD_REQUEST;
+    }
+
+    private boolean acceptsBinary(String accept) {
+        return accept != null && accept.contains(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    /**
+     * Stream newline-delimited JSON messages in and per-message results out (optionally gzip-compressed input)
+     * POST /api/transactions/process-stream?userId={userId}
+     */
+    @PostMapping(value = "/process-stream", consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<?> processMessageStream(
+            @RequestParam Long userId,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) {
+        try {
+            bulkStreamIngestService.validateUser(userId);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
+        boolean gzip = "gzip".equalsIgnoreCase(contentEncoding);
+        StreamingResponseBody responseBody = out -> bulkStreamIngestService.process(userId, body, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(responseBody);
+    }
+
     /**
      * Get all transactions for a user
      * GET /api/transactions/user/{userId}
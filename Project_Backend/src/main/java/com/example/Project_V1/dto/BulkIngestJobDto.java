@@ -0,0 +1,26 @@
+package com.example.Project_V1.dto;
+
+import com.example.Project_V1.enums.BulkIngestJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestJobDto {
+    private String jobId;
+    private Long userId;
+    private BulkIngestJobStatus status;
+    private Long totalMessages; // null while the size of the input is not known yet
+    private long processed;
+    private long succeeded;
+    private long failed;
+    private double messagesPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.example.Project_V1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one message of a bulk ingest: the saved transaction, or the error that stopped it
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResultDto {
+    private long index;
+    private boolean success;
+    private String message;
+    private String bankAddress;
+    private String error;
+    private TransactionResponseDto transaction;
+}
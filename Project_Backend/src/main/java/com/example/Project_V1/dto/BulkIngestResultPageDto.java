@@ -0,0 +1,18 @@
+package com.example.Project_V1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestResultPageDto {
+    private String jobId;
+    private int page;
+    private int size;
+    private long totalResults;
+    private List<BulkIngestResultDto> results;
+}
@@ -24,5 +24,6 @@ public class BulkMessageProcessResponseDto {
         private String bankAddress;
         private String error;
         private boolean matchFound;
+        private Long userId; // set for multi-user requests
     }
 }
@@ -0,0 +1,21 @@
+package com.example.Project_V1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUploadDto {
+    private String uploadId;
+    private Long userId;
+    private String jobId; // the bulk ingest job processing this upload
+    private long committedOffset; // resume the next chunk from here
+    private boolean finalized;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
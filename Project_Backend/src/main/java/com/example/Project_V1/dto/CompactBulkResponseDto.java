@@ -0,0 +1,22 @@
+package com.example.Project_V1.dto;
+
+import com.example.Project_V1.enums.BulkErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columnar bulk response: transaction ids of the stored messages in input order, and for every failed
+ * message its input index with an error code. Nothing from the request is echoed back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactBulkResponseDto {
+    private int totalMessages;
+    private int successfullyProcessed;
+    private int failed;
+    private long[] transactionIds;
+    private int[] failedIndexes;
+    private BulkErrorCode[] errorCodes; // parallel to failedIndexes
+}
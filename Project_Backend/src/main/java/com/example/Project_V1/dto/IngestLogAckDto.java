@@ -0,0 +1,13 @@
+package com.example.Project_V1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestLogAckDto {
+    private long offset; // position of the message in the ingest log
+    private boolean processed; // matched and stored (or rejected) by the log workers
+}
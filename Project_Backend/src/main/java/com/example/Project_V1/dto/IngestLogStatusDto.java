@@ -0,0 +1,19 @@
+package com.example.Project_V1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestLogStatusDto {
+    private boolean enabled;
+    private long endOffset; // where the next accepted message goes
+    private long processedOffset; // every message before this one has been processed
+    private int segmentCount;
+    private long storedMessages; // since startup
+    private long failedMessages; // since startup; no match, unknown user, duplicate, ...
+    private long deadLetteredMessages; // since startup; the part of failedMessages set aside in the dead-letter file
+    private String lastError; // last batch that could not be processed and is being retried, if any
+}
@@ -0,0 +1,23 @@
+package com.example.Project_V1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiUserBulkMessageRequestDto {
+    private List<UserMessage> messages;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserMessage {
+        private Long userId;
+        private String message;
+        private String bankAddress;
+    }
+}
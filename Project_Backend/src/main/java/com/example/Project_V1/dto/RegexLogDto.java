@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -23,4 +24,7 @@ public class RegexLogDto {
     private String transactionType;
     private String transactionCategory;
     private String merchantName;
+    private Integer complexityScore;
+    private List<String> complexityWarnings;
+    private Long worstCaseMatchMicros;
 }
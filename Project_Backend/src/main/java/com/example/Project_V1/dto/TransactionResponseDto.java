@@ -35,4 +35,5 @@ public class TransactionResponseDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean matchFound; // Indicates if extraction was successful
+    private boolean duplicate; // The message was already stored; this is the existing transaction
 }
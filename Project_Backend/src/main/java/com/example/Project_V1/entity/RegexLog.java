@@ -45,6 +45,15 @@ public class RegexLog {
     @Column(name = "merchantName")
     private String merchantName;
 
+    @Column(name = "complexity_score")
+    private Integer complexityScore;
+
+    @Column(name = "complexity_warnings", length = 2000)
+    private String complexityWarnings;
+
+    @Column(name = "worst_case_match_micros")
+    private Long worstCaseMatchMicros;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -144,4 +153,16 @@ public class RegexLog {
     public void setMerchantName(String merchantName) {
         this.merchantName = merchantName;
     }
+
+    public void setComplexityScore(Integer complexityScore) {
+        this.complexityScore = complexityScore;
+    }
+
+    public void setComplexityWarnings(String complexityWarnings) {
+        this.complexityWarnings = complexityWarnings;
+    }
+
+    public void setWorstCaseMatchMicros(Long worstCaseMatchMicros) {
+        this.worstCaseMatchMicros = worstCaseMatchMicros;
+    }
 }
@@ -9,13 +9,25 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", uniqueConstraints = @UniqueConstraint(
+        name = Transaction.DEDUP_CONSTRAINT, columnNames = {"user_id", "dedup_key"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
+    // Ids come from a pooled table generator (one round trip per ID_ALLOCATION_SIZE rows) instead of
+    // IDENTITY, so Hibernate can group inserts into JDBC batches
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_NAME = "transactions";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    // A message already stored for the user (same reference number, or same text without one) is not stored again
+    public static final String DEDUP_CONSTRAINT = "uk_transactions_user_dedup";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id")
+    @TableGenerator(name = "transaction_id", table = ID_GENERATOR_TABLE,
+            pkColumnName = "generator_name", valueColumnName = "next_val",
+            pkColumnValue = ID_GENERATOR_NAME, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -82,6 +94,9 @@ public class Transaction {
     @Column(name = "bank_address")
     private String bankAddress; // Bank address/identifier from SMS sender
 
+    @Column(name = "dedup_key", length = 66)
+    private String dedupKey; // See TransactionDedupKey; null only for an old row repeating an earlier one
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -90,6 +105,13 @@ public class Transaction {
 
     @PrePersist
     protected void onCreate() {
+        applyInsertDefaults();
+    }
+
+    /**
+     * Timestamps and defaults for a new row; also called directly by write paths that bypass JPA callbacks
+     */
+    public void applyInsertDefaults() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         if (currency == null) {
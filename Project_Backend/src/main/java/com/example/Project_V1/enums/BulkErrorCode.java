@@ -0,0 +1,17 @@
+package com.example.Project_V1.enums;
+
+/**
+ * Why a bulk message was not stored; reported instead of the error text in compact bulk responses.
+ * The binary encoding sends the ordinal, so new codes go at the end.
+ */
+public enum BulkErrorCode {
+    USER_ID_REQUIRED,
+    USER_NOT_FOUND,
+    BANK_ADDRESS_REQUIRED,
+    NO_APPROVED_PATTERNS,
+    NO_MATCH,
+    WRITE_FAILED,
+    PROCESSING_ERROR,
+    DUPLICATE, // already stored for the user, or repeated earlier in the same request
+    INVALID_DATA // rejected by the database for its values (too long, out of range); retrying cannot help
+}
@@ -0,0 +1,13 @@
+package com.example.Project_V1.enums;
+
+public enum BulkIngestJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.Project_V1.ingest;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Bounded worker pool shared by every bulk ingest request.
+ *
+ * The pool size (finance.ingest.bulk-parallelism) caps how many messages are processed at once
+ * across all requests, which also caps how many database connections bulk ingest can hold.
+ * A parallelism of 1 runs everything on the calling thread.
+ */
+@Component
+public class BulkIngestExecutor {
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    public BulkIngestExecutor(@Value("${finance.ingest.bulk-parallelism:4}") int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Bulk ingest parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        if (parallelism == 1) {
+            this.executor = null;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "bulk-ingest-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Apply the task to every item on the worker pool and return the results in input order.
+     * Tasks are expected to handle their own failures; an exception escaping a task is rethrown here.
+     */
+    public <T, R> List<R> mapInOrder(List<T> items, Function<T, R> task) {
+        List<R> results = new ArrayList<>(items.size());
+        if (executor == null || items.size() <= 1) {
+            for (T item : items) {
+                results.add(task.apply(item));
+            }
+            return results;
+        }
+
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(executor.submit(() -> task.apply(item)));
+        }
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bulk ingest was interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Bulk ingest task failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkIngestResultDto;
+import com.example.Project_V1.enums.BulkIngestJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live state of one asynchronous bulk ingest job. Counters are updated by the job thread and read by
+ * pollers; results are kept in a ResultSpool on disk.
+ */
+public class BulkIngestJob {
+
+    private final String id;
+    private final Long userId;
+    private final ResultSpool results;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile Long totalMessages;
+    private volatile BulkIngestJobStatus status = BulkIngestJobStatus.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startNanos;
+    private volatile long finishNanos;
+    private volatile String error;
+
+    public BulkIngestJob(String id, Long userId, Long totalMessages, ResultSpool results) {
+        this.id = id;
+        this.userId = userId;
+        this.totalMessages = totalMessages;
+        this.results = results;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BulkIngestJobStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setTotalMessages(Long totalMessages) {
+        this.totalMessages = totalMessages;
+    }
+
+    public synchronized boolean markRunning() {
+        if (status != BulkIngestJobStatus.QUEUED) {
+            return false;
+        }
+        status = BulkIngestJobStatus.RUNNING;
+        startedAt = LocalDateTime.now();
+        startNanos = System.nanoTime();
+        return true;
+    }
+
+    public synchronized void markFinished(BulkIngestJobStatus finalStatus, String error) {
+        if (status.isFinished()) {
+            return;
+        }
+        this.status = finalStatus;
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.finishNanos = System.nanoTime();
+    }
+
+    /**
+     * Ask the job to stop after its current slice; a job that has not started yet is cancelled at once,
+     * and when its turn comes it only releases its message source.
+     */
+    public synchronized void requestCancel() {
+        if (status.isFinished()) {
+            return;
+        }
+        cancelRequested = true;
+        if (status == BulkIngestJobStatus.QUEUED) {
+            markFinished(BulkIngestJobStatus.CANCELLED, null);
+        }
+    }
+
+    /**
+     * Append one processed slice; slice-local indexes are rebased onto the job's running position.
+     */
+    public void recordResults(List<BulkIngestResultDto> sliceResults) {
+        long base = processed.get();
+        for (BulkIngestResultDto result : sliceResults) {
+            result.setIndex(base + result.getIndex());
+            results.append(result);
+            if (result.isSuccess()) {
+                succeeded.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+        }
+        processed.addAndGet(sliceResults.size());
+    }
+
+    public List<BulkIngestResultDto> readResults(long from, int max) {
+        return results.read(from, max, BulkIngestResultDto.class);
+    }
+
+    public long getResultCount() {
+        return results.size();
+    }
+
+    public void discard() {
+        results.close();
+    }
+
+    public BulkIngestJobDto toDto() {
+        long done = processed.get();
+        double messagesPerSecond = 0;
+        if (startNanos != 0) {
+            long end = finishNanos != 0 ? finishNanos : System.nanoTime();
+            double seconds = (end - startNanos) / 1_000_000_000.0;
+            if (seconds > 0) {
+                messagesPerSecond = done / seconds;
+            }
+        }
+        return new BulkIngestJobDto(id, userId, status, totalMessages, done, succeeded.get(), failed.get(),
+                messagesPerSecond, submittedAt, startedAt, finishedAt, error);
+    }
+}
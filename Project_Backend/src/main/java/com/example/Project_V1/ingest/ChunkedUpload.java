@@ -0,0 +1,267 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkUploadDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One resumable upload, spooled to a file that grows as chunks arrive.
+ *
+ * Chunks are appended at the committed offset; bytes are committed as soon as they are on disk, so a
+ * chunk cut off half-way still keeps what arrived and the client resumes from the committed offset.
+ * A chunk that starts before the committed offset (a retry) only contributes the bytes past it.
+ *
+ * The stream from openStream() reads the committed bytes while the upload is still open, blocking when
+ * it catches up with the writer, and reaches end of input once the upload is finalized. Closing that
+ * stream deletes the file.
+ */
+public class ChunkedUpload {
+
+    private final String id;
+    private final Long userId;
+    private final Path file;
+    private final FileChannel writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile String jobId;
+    private long committedOffset;
+    private boolean finalized;
+    private boolean released;
+    private String abortReason;
+    private LocalDateTime updatedAt = createdAt;
+
+    public ChunkedUpload(String id, Long userId, Path file) throws IOException {
+        this.id = id;
+        this.userId = userId;
+        this.file = file;
+        this.writer = FileChannel.open(file, StandardOpenOption.WRITE);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public synchronized long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    public synchronized boolean isFinalized() {
+        return finalized;
+    }
+
+    public synchronized LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Append a chunk that starts at offset.
+     *
+     * @return the committed offset afterwards
+     * @throws IllegalStateException if the offset is past the committed offset, another chunk is being written,
+     *                               or the upload no longer accepts data
+     */
+    public long append(long offset, InputStream data) throws IOException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Chunk offset must not be negative");
+        }
+        if (!writeLock.tryLock()) {
+            throw new IllegalStateException("Another chunk is being written to upload " + id);
+        }
+        try {
+            long position = getCommittedOffset();
+            checkWritable();
+            if (offset > position) {
+                throw new IllegalStateException("Chunk offset " + offset + " is past the committed offset " + position);
+            }
+            if (!skipCommitted(data, position - offset)) {
+                return position;
+            }
+            byte[] chunk = new byte[64 * 1024];
+            int read;
+            while ((read = data.read(chunk)) != -1) {
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                while (buffer.hasRemaining()) {
+                    position += writer.write(buffer, position);
+                }
+                commit(position);
+            }
+            return position;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Mark the upload complete; readers see end of input after the last committed byte.
+     *
+     * @throws IllegalStateException if expectedLength does not match what was committed, or a chunk is still being written
+     */
+    public void finish(Long expectedLength) {
+        if (!writeLock.tryLock()) {
+            throw new IllegalStateException("A chunk is still being written to upload " + id);
+        }
+        try {
+            synchronized (this) {
+                checkWritable();
+                if (expectedLength != null && expectedLength != committedOffset) {
+                    throw new IllegalStateException("Upload has " + committedOffset + " bytes committed, expected " + expectedLength);
+                }
+                finalized = true;
+                updatedAt = LocalDateTime.now();
+                notifyAll();
+            }
+            closeWriter();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Stop the upload; a reader waiting for more data fails with the reason.
+     */
+    public void abort(String reason) {
+        synchronized (this) {
+            if (finalized || abortReason != null) {
+                return;
+            }
+            abortReason = reason;
+            notifyAll();
+        }
+        closeWriter();
+    }
+
+    public InputStream openStream() throws IOException {
+        return new UploadStream(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    public BulkUploadDto toDto() {
+        synchronized (this) {
+            return new BulkUploadDto(id, userId, jobId, committedOffset, finalized, abortReason, createdAt, updatedAt);
+        }
+    }
+
+    private synchronized void checkWritable() {
+        if (abortReason != null) {
+            throw new IllegalStateException("Upload " + id + " was aborted: " + abortReason);
+        }
+        if (finalized) {
+            throw new IllegalStateException("Upload " + id + " is already finalized");
+        }
+        if (released) {
+            throw new IllegalStateException("Upload " + id + " is no longer being processed");
+        }
+    }
+
+    private synchronized void commit(long position) {
+        committedOffset = position;
+        updatedAt = LocalDateTime.now();
+        notifyAll();
+    }
+
+    /**
+     * @return false if the stream ended before any new bytes
+     */
+    private static boolean skipCommitted(InputStream data, long count) throws IOException {
+        while (count > 0) {
+            long skipped = data.skip(count);
+            if (skipped <= 0) {
+                if (data.read() == -1) {
+                    return false;
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+        return true;
+    }
+
+    /**
+     * Wait until there is data past position.
+     *
+     * @return the number of committed bytes past position, or -1 at the end of a finalized upload
+     */
+    private synchronized long awaitData(long position) throws IOException {
+        while (committedOffset <= position && !finalized && abortReason == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for upload " + id);
+            }
+        }
+        if (abortReason != null) {
+            throw new IOException("Upload " + id + " was aborted: " + abortReason);
+        }
+        return committedOffset > position ? committedOffset - position : -1;
+    }
+
+    private void release() {
+        synchronized (this) {
+            released = true;
+        }
+        closeWriter();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left in the spool directory; nothing else refers to it
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // Nothing more will be written either way
+        }
+    }
+
+    private class UploadStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+
+        private UploadStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            long available = awaitData(position);
+            if (available == -1) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, available)), position);
+            position += read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            release();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary form of a CompactBulkResponseDto (application/octet-stream), big-endian and column by column:
+ *
+ * <pre>
+ * int    format version (1)
+ * int    totalMessages
+ * int    successfullyProcessed (S)
+ * int    failed (F)
+ * long[S] transaction ids, in input order
+ * int[F]  failed message indexes
+ * byte[F] error codes, as BulkErrorCode ordinals
+ * </pre>
+ */
+public final class CompactBulkResponseEncoder {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private CompactBulkResponseEncoder() {
+    }
+
+    public static byte[] encode(CompactBulkResponseDto response) {
+        long[] ids = response.getTransactionIds();
+        int[] failedIndexes = response.getFailedIndexes();
+        ByteBuffer buffer = ByteBuffer.allocate(16 + ids.length * Long.BYTES + failedIndexes.length * (Integer.BYTES + 1));
+        buffer.putInt(FORMAT_VERSION)
+                .putInt(response.getTotalMessages())
+                .putInt(ids.length)
+                .putInt(failedIndexes.length);
+        for (long id : ids) {
+            buffer.putLong(id);
+        }
+        for (int index : failedIndexes) {
+            buffer.putInt(index);
+        }
+        for (int i = 0; i < failedIndexes.length; i++) {
+            buffer.put((byte) response.getErrorCodes()[i].ordinal());
+        }
+        return buffer.array();
+    }
+}
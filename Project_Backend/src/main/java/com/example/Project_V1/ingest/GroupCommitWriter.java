@@ -0,0 +1,228 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group commit for single-message inserts: rows from concurrent requests are collected for up to
+ * finance.ingest.group-commit.max-delay-millis after the first one arrives, or until
+ * finance.ingest.group-commit.max-rows are waiting, and then written together through
+ * TransactionBatchWriter, i.e. as one JDBC batch and one commit (per commit-chunk-size rows).
+ * Each caller blocks until its own row is written and gets its own result, with the generated id.
+ *
+ * One collector thread forms the groups and hands each to a pool of finance.ingest.group-commit.writers
+ * threads, so the next group is collected while earlier ones are written. A row that fails is rolled
+ * back on its own, as in bulk writes; the rest of its group still commits.
+ *
+ * At most finance.ingest.group-commit.max-pending-rows rows are queued or being written; beyond that
+ * insert refuses the row, and callers write it directly. A caller waits at most
+ * finance.ingest.group-commit.max-wait-millis for its group.
+ *
+ * Off unless finance.ingest.group-commit.enabled is set; callers check isEnabled() and insert directly otherwise.
+ */
+@Component
+public class GroupCommitWriter {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final boolean enabled;
+    private final long maxDelayNanos;
+    private final int maxRows;
+    private final int writerCount;
+    private final long maxWaitMillis;
+    private final Semaphore pendingRows;
+    private final LinkedBlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread collector;
+    private ExecutorService writers;
+
+    public GroupCommitWriter(TransactionBatchWriter transactionBatchWriter,
+                             @Value("${finance.ingest.group-commit.enabled:false}") boolean enabled,
+                             @Value("${finance.ingest.group-commit.max-delay-millis:5}") long maxDelayMillis,
+                             @Value("${finance.ingest.group-commit.max-rows:100}") int maxRows,
+                             @Value("${finance.ingest.group-commit.writers:2}") int writerCount,
+                             @Value("${finance.ingest.group-commit.max-pending-rows:10000}") int maxPendingRows,
+                             @Value("${finance.ingest.group-commit.max-wait-millis:30000}") long maxWaitMillis) {
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Group commit delay must not be negative");
+        }
+        if (maxRows <= 0 || writerCount <= 0 || maxPendingRows <= 0 || maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("Group commit row limits, writer count and wait must be positive");
+        }
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.enabled = enabled;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.maxRows = maxRows;
+        this.writerCount = writerCount;
+        this.maxWaitMillis = maxWaitMillis;
+        this.pendingRows = new Semaphore(maxPendingRows);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerCount, runnable -> {
+            Thread thread = new Thread(runnable, "group-commit-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        collector = new Thread(this::collectLoop, "group-commit-collector");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    /**
+     * Queue the row for the next group and wait until that group is written.
+     *
+     * @return the row's write result; saved rows carry their generated id
+     * @throws IllegalStateException      if the writer is not running
+     * @throws RejectedExecutionException if max-pending-rows rows are already waiting; the row was not queued
+     * @throws QueryTimeoutException      if the group was not written within max-wait-millis; the row may still be
+     */
+    public TransactionBatchWriter.WriteResult insert(Transaction transaction) {
+        PendingInsert pending = new PendingInsert(transaction);
+        synchronized (this) {
+            if (!running) {
+                throw new IllegalStateException("Group commit writer is not running");
+            }
+            if (!pendingRows.tryAcquire()) {
+                throw new RejectedExecutionException("Group commit queue is full");
+            }
+            pending.result.whenComplete((result, failure) -> pendingRows.release());
+            queue.add(pending);
+        }
+        try {
+            return pending.result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Group commit did not finish within " + maxWaitMillis + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    private void collectLoop() {
+        List<PendingInsert> group = new ArrayList<>(maxRows);
+        while (true) {
+            try {
+                PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    // Rows are only queued while running, so an empty queue after shutdown stays empty
+                    if (!running && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < maxRows) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the collector on purpose; hand off what was collected and carry on
+                Thread.interrupted();
+            }
+            if (!group.isEmpty()) {
+                List<PendingInsert> collected = group;
+                try {
+                    writers.execute(() -> flush(collected));
+                } catch (RejectedExecutionException e) {
+                    // Writers already stopped by a shutdown that gave up waiting for us
+                    flush(collected);
+                }
+                group = new ArrayList<>(maxRows);
+            }
+        }
+    }
+
+    private void flush(List<PendingInsert> group) {
+        List<Transaction> transactions = new ArrayList<>(group.size());
+        for (PendingInsert pending : group) {
+            transactions.add(pending.transaction);
+        }
+        Throwable failure = null;
+        try {
+            List<TransactionBatchWriter.WriteResult> results = transactionBatchWriter.writeAll(transactions);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            // Whatever went wrong, no caller is left waiting; completed results are not affected
+            IllegalStateException incomplete = new IllegalStateException("Group commit write failed", failure);
+            for (PendingInsert pending : group) {
+                pending.result.completeExceptionally(failure instanceof RuntimeException e ? e : incomplete);
+            }
+        }
+    }
+
+    /**
+     * Stop taking rows; rows already queued are still written before the writers exit
+     */
+    @PreDestroy
+    public void shutdown() {
+        Thread thread;
+        ExecutorService writerPool;
+        synchronized (this) {
+            running = false;
+            thread = collector;
+            writerPool = writers;
+        }
+        try {
+            if (thread != null) {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            }
+            if (writerPool != null) {
+                writerPool.shutdown();
+                writerPool.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingInsert {
+        private final Transaction transaction;
+        private final CompletableFuture<TransactionBatchWriter.WriteResult> result = new CompletableFuture<>();
+
+        private PendingInsert(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+}
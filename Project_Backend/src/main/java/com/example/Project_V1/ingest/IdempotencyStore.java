@@ -0,0 +1,128 @@
+package com.example.Project_V1.ingest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Results of requests sent with an Idempotency-Key, so a client retry gets the original answer
+ * without the work being done again.
+ *
+ * A key is claimed by the first request that uses it; a duplicate arriving while that request is still
+ * running waits for it and gets the same result (or the same exception). Successful results are kept for
+ * finance.ingest.idempotency-ttl after the key was first used, for at most finance.ingest.idempotency-max-keys
+ * keys (oldest dropped first). A failed request releases its key, so a retry runs again.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxKeys;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyStore(@Value("${finance.ingest.idempotency-ttl:24h}") Duration ttl,
+                            @Value("${finance.ingest.idempotency-max-keys:10000}") int maxKeys) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Idempotency TTL must be positive");
+        }
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("Idempotency key count must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxKeys = maxKeys;
+        // Insertion order is also expiry order, since every entry lives for the same TTL
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyStore.this.maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Run work once per key: the first call runs it, later calls within the TTL return its result.
+     *
+     * @param request what the key was sent with; reusing a key for a different request is an error
+     * @throws IllegalArgumentException if the key was already used with a different request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object request, Supplier<T> work) {
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.nanoTime();
+            removeExpired(now);
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(request, now + ttlNanos);
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (!Objects.equals(entry.request, request)) {
+            throw new IllegalArgumentException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        if (owner) {
+            return (T) run(key, entry, work);
+        }
+        try {
+            return (T) entry.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Object run(String key, Entry entry, Supplier<?> work) {
+        try {
+            Object result = work.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void removeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().isExpired(now)) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final Object request;
+        private final long expiresAt; // System.nanoTime() deadline
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(Object request, long expiresAt) {
+            this.request = request;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * An entry still in flight never expires; its waiters need the result
+         */
+        private boolean isExpired(long now) {
+            return expiresAt - now <= 0 && result.isDone();
+        }
+    }
+}
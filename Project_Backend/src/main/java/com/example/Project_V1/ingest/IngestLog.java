@@ -0,0 +1,411 @@
+package com.example.Project_V1.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Local append-only log of accepted messages, read back in order by a single consumer.
+ *
+ * Entries are framed as [int length][int CRC32C][payload] and addressed by their logical byte offset,
+ * which keeps growing across segment files (segment-{base offset}.log, rotated at segmentBytes). append
+ * returns once the entry is fsynced; concurrent appenders share fsyncs, the first one waiting syncs
+ * everything written so far for all of them. Readers only see fsynced entries.
+ *
+ * The consumer records its progress with commit(offset); the checkpoint is written atomically, and
+ * segments that lie wholly before it are deleted. On open, a torn entry at the end of the last segment
+ * (a crash mid-append, never acknowledged) is cut off, and reading resumes at the checkpoint.
+ */
+public class IngestLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final Object checkpointLock = new Object();
+
+    // Guarded by this
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel active;
+    private long activeBase;
+    private long writtenOffset;
+    private long durableOffset;
+    private long checkpoint;
+    private boolean syncing;
+    private boolean closed;
+
+    private IngestLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Open the log in directory, creating it if needed, and recover its state from the files there.
+     */
+    public static IngestLog open(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Ingest log segment size must be larger than " + HEADER_BYTES + " bytes");
+        }
+        Files.createDirectories(directory);
+        IngestLog log = new IngestLog(directory, segmentBytes);
+        log.recover();
+        return log;
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+            }
+        }
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        checkpoint = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.UTF_8).strip())
+                : segments.isEmpty() ? 0 : segments.firstKey();
+
+        if (segments.isEmpty()) {
+            activeBase = checkpoint;
+            segments.put(activeBase, createSegment(activeBase));
+        } else {
+            activeBase = segments.lastKey();
+        }
+        active = FileChannel.open(segments.get(activeBase), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validBytes = validLength(active);
+        if (validBytes < active.size()) {
+            active.truncate(validBytes);
+            active.force(true);
+        }
+        writtenOffset = activeBase + validBytes;
+        durableOffset = writtenOffset;
+        checkpoint = Math.min(Math.max(checkpoint, segments.firstKey()), writtenOffset);
+        deleteConsumedSegments();
+    }
+
+    /**
+     * Length of the run of intact entries at the start of the segment
+     */
+    private long validLength(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            if (crc(payload.array()) != crc) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    /**
+     * Append one entry and wait until it is on disk.
+     *
+     * @return the entry's offset
+     */
+    public long append(byte[] payload) throws IOException {
+        if (payload.length > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Entry of " + payload.length + " bytes does not fit in a log segment");
+        }
+        long offset;
+        synchronized (this) {
+            checkOpen();
+            if (writtenOffset > activeBase && writtenOffset - activeBase + HEADER_BYTES + payload.length > segmentBytes) {
+                rotate();
+            }
+            ByteBuffer entry = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+            entry.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+            long position = writtenOffset - activeBase;
+            while (entry.hasRemaining()) {
+                position += active.write(entry, position);
+            }
+            offset = writtenOffset;
+            writtenOffset = activeBase + position;
+        }
+        awaitDurable(offset + HEADER_BYTES + payload.length);
+        return offset;
+    }
+
+    /**
+     * Start a new segment at the current end; the finished one is fsynced before it is closed.
+     */
+    private void rotate() throws IOException {
+        active.force(false);
+        active.close();
+        durableOffset = writtenOffset;
+        notifyAll();
+        activeBase = writtenOffset;
+        Path file = createSegment(activeBase);
+        segments.put(activeBase, file);
+        active = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path createSegment(long base) throws IOException {
+        Path file = Files.createFile(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX)));
+        syncDirectory();
+        return file;
+    }
+
+    /**
+     * Group fsync: one waiter syncs everything written so far, the others wait for it and are covered too
+     */
+    private void awaitDurable(long end) throws IOException {
+        while (true) {
+            FileChannel channel;
+            long target;
+            synchronized (this) {
+                while (durableOffset < end && syncing && !closed) {
+                    waitForChange(0);
+                }
+                if (durableOffset >= end) {
+                    return;
+                }
+                checkOpen();
+                syncing = true;
+                channel = active;
+                target = writtenOffset;
+            }
+            IOException failure = null;
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated meanwhile, and rotation syncs the segment before closing it
+            } catch (IOException e) {
+                failure = e;
+            }
+            synchronized (this) {
+                syncing = false;
+                if (failure == null && !closed) {
+                    durableOffset = Math.max(durableOffset, target);
+                }
+                notifyAll();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Up to maxEntries durable entries starting at offset, in order
+     */
+    public List<Entry> read(long offset, int maxEntries) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        while (entries.size() < maxEntries) {
+            Map.Entry<Long, Path> segment;
+            long limit;
+            synchronized (this) {
+                checkOpen();
+                if (offset >= durableOffset) {
+                    break;
+                }
+                segment = segments.floorEntry(offset);
+                if (segment == null) {
+                    throw new IllegalArgumentException("Offset " + offset + " is before the start of the log");
+                }
+                Long nextBase = segments.higherKey(offset);
+                limit = nextBase != null ? Math.min(nextBase, durableOffset) : durableOffset;
+            }
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (offset < limit && entries.size() < maxEntries) {
+                    header.clear();
+                    readFully(channel, header, offset - segment.getKey());
+                    header.flip();
+                    int length = header.getInt();
+                    int crc = header.getInt();
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    readFully(channel, payload, offset - segment.getKey() + HEADER_BYTES);
+                    if (crc(payload.array()) != crc) {
+                        throw new IOException("Ingest log entry at offset " + offset + " is corrupt");
+                    }
+                    long next = offset + HEADER_BYTES + length;
+                    entries.add(new Entry(offset, next, payload.array()));
+                    offset = next;
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Wait up to timeoutMillis for a durable entry at or after offset
+     *
+     * @return whether there is one
+     */
+    public synchronized boolean awaitEntries(long offset, long timeoutMillis) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (durableOffset <= offset && !closed) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            waitForChange(remaining);
+        }
+        return durableOffset > offset;
+    }
+
+    /**
+     * Record that every entry before offset is processed; they are not read again after a restart.
+     */
+    public void commit(long offset) throws IOException {
+        synchronized (checkpointLock) {
+            synchronized (this) {
+                checkOpen();
+                if (offset <= checkpoint) {
+                    return;
+                }
+                if (offset > writtenOffset) {
+                    throw new IllegalArgumentException("Offset " + offset + " is past the end of the log");
+                }
+            }
+            Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer content = ByteBuffer.wrap(Long.toString(offset).getBytes(StandardCharsets.UTF_8));
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            synchronized (this) {
+                checkpoint = offset;
+                deleteConsumedSegments();
+            }
+        }
+    }
+
+    public synchronized long getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * End of the last appended entry, i.e. the offset the next entry gets
+     */
+    public synchronized long getEndOffset() {
+        return writtenOffset;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        notifyAll();
+        active.close();
+    }
+
+    /**
+     * Drop segments that end at or before the checkpoint; the active segment is always kept
+     */
+    private void deleteConsumedSegments() throws IOException {
+        while (segments.size() > 1) {
+            Long secondBase = segments.higherKey(segments.firstKey());
+            if (secondBase > checkpoint) {
+                return;
+            }
+            Files.deleteIfExists(segments.pollFirstEntry().getValue());
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Ingest log is closed");
+        }
+    }
+
+    private void waitForChange(long timeoutMillis) throws IOException {
+        try {
+            wait(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting on the ingest log");
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the entries themselves are still fsynced
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of ingest log segment");
+            }
+            position += read;
+        }
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * One entry: its payload, where it starts, and where the next one starts
+     */
+    public static final class Entry {
+        private final long offset;
+        private final long nextOffset;
+        private final byte[] payload;
+
+        private Entry(long offset, long nextOffset, byte[] payload) {
+            this.offset = offset;
+            this.nextOffset = nextOffset;
+            this.payload = payload;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getNextOffset() {
+            return nextOffset;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Project_V1.ingest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC batching for bulk ingest: Hibernate groups inserts into batches of finance.ingest.jdbc-batch-size,
+ * and the MySQL driver is told to rewrite each batch into a single multi-row INSERT.
+ */
+@Configuration
+public class IngestPersistenceConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer ingestBatchingCustomizer(
+            @Value("${finance.ingest.jdbc-batch-size:100}") int jdbcBatchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", jdbcBatchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+    /**
+     * Without rewriteBatchedStatements Connector/J still sends a batch as one INSERT per row.
+     * A value already set on the URL or pool wins.
+     */
+    @Bean
+    public static BeanPostProcessor mysqlBatchRewritePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && dataSource.getJdbcUrl() != null
+                        && dataSource.getJdbcUrl().startsWith("jdbc:mysql:")
+                        && !dataSource.getJdbcUrl().contains("rewriteBatchedStatements")
+                        && !dataSource.getDataSourceProperties().containsKey("rewriteBatchedStatements")) {
+                    dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
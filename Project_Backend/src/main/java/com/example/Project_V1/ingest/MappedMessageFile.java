@@ -0,0 +1,190 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A spooled message export mapped into memory. Accepts either a JSON array of
+ * {"message": ..., "bankAddress": ...} objects (the phone export / sample-bulk-messages.json shape)
+ * or one object per line.
+ *
+ * Opening the file makes one sequential pass over the mapped bytes to find where each record starts
+ * and ends; nothing is parsed or copied on the heap. After that any range of records can be parsed
+ * independently, so callers can parse ranges on several threads at once.
+ *
+ * Closing deletes the file. The mapping itself is released once the buffer is garbage collected.
+ */
+public class MappedMessageFile implements Closeable {
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+    private final MappedByteBuffer buffer;
+    private int[] recordStarts = new int[1024];
+    private int[] recordEnds = new int[1024];
+    private int recordCount;
+
+    private MappedMessageFile(Path file, JsonMapper jsonMapper, MappedByteBuffer buffer) {
+        this.file = file;
+        this.jsonMapper = jsonMapper;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Map the file and index its records. The file is deleted if it cannot be indexed.
+     *
+     * @throws IllegalArgumentException if the file is larger than 2 GB or is not an array or sequence of JSON objects
+     */
+    public static MappedMessageFile open(Path file, JsonMapper jsonMapper) throws IOException {
+        MappedMessageFile mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Import files are limited to 2 GB");
+            }
+            mapped = new MappedMessageFile(file, jsonMapper, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IllegalArgumentException | IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        try {
+            mapped.indexRecords();
+            return mapped;
+        } catch (IllegalArgumentException e) {
+            mapped.close();
+            throw e;
+        }
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Parse records [from, to). Safe to call from several threads at once.
+     *
+     * @throws IllegalArgumentException if a record in the range is not valid JSON
+     */
+    public List<BulkMessageProcessRequestDto.MessageBankAddressPair> parse(int from, int to) {
+        if (from < 0 || to > recordCount || from > to) {
+            throw new IndexOutOfBoundsException("Record range [" + from + ", " + to + ") out of bounds for " + recordCount);
+        }
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages = new ArrayList<>(to - from);
+        byte[] record = new byte[256];
+        for (int i = from; i < to; i++) {
+            int length = recordEnds[i] - recordStarts[i];
+            if (record.length < length) {
+                record = new byte[Math.max(length, record.length * 2)];
+            }
+            buffer.get(recordStarts[i], record, 0, length);
+            try (NdjsonMessageReader reader = new NdjsonMessageReader(jsonMapper, record, 0, length)) {
+                messages.add(reader.next());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Record " + i + " is not valid JSON: " + e.getMessage(), e);
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Find the top-level objects by tracking nesting depth, skipping over string contents.
+     */
+    private void indexRecords() {
+        int limit = buffer.limit();
+        int position = skipWhitespace(startsWithByteOrderMark(limit) ? 3 : 0, limit);
+        boolean wrappedInArray = position < limit && buffer.get(position) == '[';
+        int recordDepth = wrappedInArray ? 1 : 0;
+        if (wrappedInArray) {
+            position++;
+        }
+
+        int depth = recordDepth;
+        int recordStart = -1;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean arrayClosed = false;
+        for (int i = position; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            if (depth > recordDepth) {
+                switch (b) {
+                    case '"' -> inString = true;
+                    case '{', '[' -> depth++;
+                    case '}', ']' -> {
+                        depth--;
+                        if (depth == recordDepth) {
+                            addRecord(recordStart, i + 1);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+                continue;
+            }
+            // Between records only whitespace, separators and the closing bracket may appear
+            if (b == '{' && !arrayClosed) {
+                recordStart = i;
+                depth++;
+            } else if (b == ']' && wrappedInArray && !arrayClosed) {
+                arrayClosed = true;
+            } else if (!(b == ',' && wrappedInArray && !arrayClosed) && !isWhitespace(b)) {
+                throw new IllegalArgumentException("Expected a JSON object at byte " + i);
+            }
+        }
+        if (inString || depth != recordDepth || (wrappedInArray && !arrayClosed)) {
+            throw new IllegalArgumentException("Import file ends in the middle of a record");
+        }
+    }
+
+    private void addRecord(int start, int end) {
+        if (recordCount == recordStarts.length) {
+            recordStarts = Arrays.copyOf(recordStarts, recordCount * 2);
+            recordEnds = Arrays.copyOf(recordEnds, recordCount * 2);
+        }
+        recordStarts[recordCount] = start;
+        recordEnds[recordCount] = end;
+        recordCount++;
+    }
+
+    private boolean startsWithByteOrderMark(int limit) {
+        return limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF;
+    }
+
+    private int skipWhitespace(int position, int limit) {
+        while (position < limit && isWhitespace(buffer.get(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left in the spool directory; nothing else refers to it
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls {"message": ..., "bankAddress": ...} objects one at a time off a stream of newline-delimited
+ * JSON with Jackson's streaming parser, so only the current record is ever in memory.
+ * Unknown properties are skipped.
+ */
+public class NdjsonMessageReader implements Closeable {
+
+    private final JsonParser parser;
+
+    public NdjsonMessageReader(JsonMapper jsonMapper, InputStream input) {
+        this.parser = jsonMapper.createParser(input);
+    }
+
+    public NdjsonMessageReader(JsonMapper jsonMapper, byte[] input, int offset, int length) {
+        this.parser = jsonMapper.createParser(input, offset, length);
+    }
+
+    /**
+     * @return the next message, or null at the end of the input
+     * @throws IllegalArgumentException if the input is not a sequence of JSON objects
+     * @throws IllegalStateException if the underlying stream fails
+     */
+    public BulkMessageProcessRequestDto.MessageBankAddressPair next() {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object at line " + parser.currentLocation().getLineNr());
+            }
+            String message = null;
+            String bankAddress = null;
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "message" -> message = parser.getValueAsString();
+                    case "bankAddress" -> bankAddress = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            return new BulkMessageProcessRequestDto.MessageBankAddressPair(message, bankAddress);
+        } catch (JacksonIOException e) {
+            throw new IllegalStateException("Could not read messages: " + e.getCause().getMessage(), e);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed JSON at line " + parser.currentLocation().getLineNr()
+                    + ": " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * @return up to max messages; fewer only at the end of the input
+     */
+    public List<BulkMessageProcessRequestDto.MessageBankAddressPair> nextSlice(int max) {
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = new ArrayList<>(max);
+        BulkMessageProcessRequestDto.MessageBankAddressPair messagePair;
+        while (slice.size() < max && (messagePair = next()) != null) {
+            slice.add(messagePair);
+        }
+        return slice;
+    }
+
+    @Override
+    public void close() {
+        parser.close();
+    }
+}
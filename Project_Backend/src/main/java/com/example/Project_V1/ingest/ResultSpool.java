@@ -0,0 +1,143 @@
+package com.example.Project_V1.ingest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only, disk-backed list of records, so a job with millions of results costs no heap.
+ *
+ * Records are stored as NDJSON in one temp file; a second file holds the 8-byte start offset of every
+ * record, so any page can be read with two positional reads regardless of how many records precede it.
+ * Both files are deleted on close.
+ */
+public class ResultSpool implements Closeable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final JsonMapper jsonMapper;
+    private final Path dataFile;
+    private final Path indexFile;
+    private final FileChannel data;
+    private final FileChannel index;
+    private long count;
+    private long dataSize;
+    private boolean closed;
+
+    public ResultSpool(Path directory, JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        try {
+            Files.createDirectories(directory);
+            this.dataFile = Files.createTempFile(directory, "bulk-results-", ".ndjson");
+            this.indexFile = Files.createTempFile(directory, "bulk-results-", ".idx");
+            this.data = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.index = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create result spool in " + directory, e);
+        }
+    }
+
+    public synchronized void append(Object record) {
+        ensureOpen();
+        byte[] json = jsonMapper.writeValueAsBytes(record);
+        ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put(NEWLINE).flip();
+        ByteBuffer offset = ByteBuffer.allocate(Long.BYTES).putLong(dataSize).flip();
+        try {
+            writeFully(data, line, dataSize);
+            writeFully(index, offset, count * Long.BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to result spool", e);
+        }
+        dataSize += json.length + 1;
+        count++;
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Read up to max records starting at position from; empty once from is past the end.
+     */
+    public synchronized <T> List<T> read(long from, int max, Class<T> type) {
+        ensureOpen();
+        if (from < 0 || max <= 0) {
+            throw new IllegalArgumentException("Invalid result range");
+        }
+        List<T> records = new ArrayList<>();
+        if (from >= count) {
+            return records;
+        }
+        long to = Math.min(count, from + max);
+        try {
+            long start = readOffset(from);
+            long end = to < count ? readOffset(to) : dataSize;
+            ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(end - start));
+            readFully(data, bytes, start);
+            byte[] array = bytes.array();
+            int lineStart = 0;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == NEWLINE) {
+                    records.add(jsonMapper.readValue(array, lineStart, i - lineStart, type));
+                    lineStart = i + 1;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read result spool", e);
+        }
+        return records;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            data.close();
+            index.close();
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(indexFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete result spool", e);
+        }
+    }
+
+    private long readOffset(long position) throws IOException {
+        ByteBuffer offset = ByteBuffer.allocate(Long.BYTES);
+        readFully(index, offset, position * Long.BYTES);
+        return offset.flip().getLong();
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Result spool is closed");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of result spool");
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Inserts transactions through a Hibernate StatelessSession: no first-level cache, no dirty checking,
+ * and nothing retained after the insert, so memory stays flat however large the import is.
+ *
+ * The stateless session is opened on the JDBC connection of the current Spring transaction, so its
+ * inserts commit and roll back with that transaction. JPA callbacks do not run for stateless inserts,
+ * so the @PrePersist defaults are applied here.
+ */
+@Component
+public class StatelessTransactionInserter {
+
+    private final EntityManager entityManager;
+
+    public StatelessTransactionInserter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Run the work against one stateless session; must be called inside a transaction.
+     */
+    public <T> T inChunk(Function<ChunkSession, T> work) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (StatelessSession statelessSession = session.getSessionFactory().openStatelessSession(connection)) {
+                return work.apply(new JdbcChunkSession(statelessSession, connection));
+            }
+        });
+    }
+
+    /**
+     * Stateless inserts plus JDBC savepoints on the transaction's connection.
+     * (JpaTransactionManager cannot create savepoints for Hibernate, so they are taken here.)
+     */
+    public interface ChunkSession extends SavepointManager {
+
+        /**
+         * Insert all rows as one JDBC batch; a failure means none of them may be assumed stored.
+         */
+        void insertAll(List<Transaction> transactions);
+
+        void insert(Transaction transaction);
+    }
+
+    private static final class JdbcChunkSession implements ChunkSession {
+        private final StatelessSession session;
+        private final Connection connection;
+
+        private JdbcChunkSession(StatelessSession session, Connection connection) {
+            this.session = session;
+            this.connection = connection;
+        }
+
+        @Override
+        public void insertAll(List<Transaction> transactions) {
+            transactions.forEach(Transaction::applyInsertDefaults);
+            session.insertMultiple(transactions);
+        }
+
+        @Override
+        public void insert(Transaction transaction) {
+            transaction.applyInsertDefaults();
+            session.insert(transaction);
+        }
+
+        @Override
+        public Object createSavepoint() {
+            try {
+                return connection.setSavepoint();
+            } catch (SQLException e) {
+                throw new TransactionSystemException("Could not create JDBC savepoint", e);
+            }
+        }
+
+        @Override
+        public void rollbackToSavepoint(Object savepoint) {
+            try {
+                connection.rollback((Savepoint) savepoint);
+            } catch (SQLException e) {
+                throw new TransactionSystemException("Could not roll back to JDBC savepoint", e);
+            }
+        }
+
+        @Override
+        public void releaseSavepoint(Object savepoint) {
+            try {
+                connection.releaseSavepoint((Savepoint) savepoint);
+            } catch (SQLException e) {
+                // Some drivers do not support releasing; the savepoint is dropped at commit anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Project_V1.ingest;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Async request handling for /process-stream, whose StreamingResponseBody reads the upload and writes the
+ * results on an MVC async thread. The container's default async timeout (30s on Tomcat) would cut off a
+ * long upload mid-stream, so requests get finance.ingest.stream-timeout instead (zero or negative: no limit).
+ * They run on their own pool of finance.ingest.stream-request-threads threads; more streams wait for a thread.
+ */
+@Configuration
+public class StreamIngestWebConfig implements WebMvcConfigurer {
+
+    private final Duration streamTimeout;
+    private final ThreadPoolTaskExecutor streamRequestExecutor = new ThreadPoolTaskExecutor();
+
+    public StreamIngestWebConfig(@Value("${finance.ingest.stream-timeout:1h}") Duration streamTimeout,
+                                 @Value("${finance.ingest.stream-request-threads:16}") int streamRequestThreads) {
+        if (streamRequestThreads <= 0) {
+            throw new IllegalArgumentException("Stream request thread count must be positive");
+        }
+        this.streamTimeout = streamTimeout;
+        // Not a bean: an Executor bean would stand in for Boot's applicationTaskExecutor
+        streamRequestExecutor.setCorePoolSize(streamRequestThreads);
+        streamRequestExecutor.setMaxPoolSize(streamRequestThreads);
+        streamRequestExecutor.setThreadNamePrefix("stream-request-");
+        streamRequestExecutor.setDaemon(true);
+        streamRequestExecutor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // The servlet container treats a timeout of zero or less as no timeout
+        configurer.setDefaultTimeout(streamTimeout.isPositive() ? streamTimeout.toMillis() : -1);
+        configurer.setTaskExecutor(streamRequestExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamRequestExecutor.shutdown();
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Persists extracted bulk transactions in chunks: one database transaction (and one commit) per
+ * finance.ingest.commit-chunk-size rows. Rows go through a stateless session (see
+ * StatelessTransactionInserter), so nothing accumulates in a persistence context. Each chunk is
+ * first written as one JDBC batch; if that fails, the chunk is retried with a savepoint around every
+ * row so a row that fails to insert is rolled back on its own while the rest of its chunk still commits.
+ * A row rejected for its values is reported as invalid rather than failed, so callers know not to retry it.
+ *
+ * Chunks are written concurrently on the bulk worker pool, so at most bulk-parallelism
+ * connections are held by bulk ingest at any time.
+ */
+@Component
+public class TransactionBatchWriter {
+
+    private final StatelessTransactionInserter transactionInserter;
+    private final TransactionTemplate transactionTemplate;
+    private final BulkIngestExecutor bulkIngestExecutor;
+    private final int chunkSize;
+
+    public TransactionBatchWriter(StatelessTransactionInserter transactionInserter,
+                                  PlatformTransactionManager transactionManager,
+                                  BulkIngestExecutor bulkIngestExecutor,
+                                  @Value("${finance.ingest.commit-chunk-size:200}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Commit chunk size must be positive");
+        }
+        this.transactionInserter = transactionInserter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkIngestExecutor = bulkIngestExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Write every transaction and return one result per input, in input order.
+     */
+    public List<WriteResult> writeAll(List<Transaction> transactions) {
+        List<List<Transaction>> chunks = new ArrayList<>();
+        for (int start = 0; start < transactions.size(); start += chunkSize) {
+            chunks.add(transactions.subList(start, Math.min(start + chunkSize, transactions.size())));
+        }
+        List<WriteResult> results = new ArrayList<>(transactions.size());
+        for (List<WriteResult> chunkResults : bulkIngestExecutor.mapInOrder(chunks, this::writeChunk)) {
+            results.addAll(chunkResults);
+        }
+        return results;
+    }
+
+    private List<WriteResult> writeChunk(List<Transaction> chunk) {
+        try {
+            return transactionTemplate.execute(status -> transactionInserter.inChunk(session -> writeRows(chunk, session)));
+        } catch (RuntimeException e) {
+            // The chunk as a whole did not commit, so none of its rows were stored
+            String error = "Batch commit failed: " + e.getMessage();
+            List<WriteResult> failed = new ArrayList<>(chunk.size());
+            for (Transaction transaction : chunk) {
+                failed.add(WriteResult.failed(transaction, error));
+            }
+            return failed;
+        }
+    }
+
+    private List<WriteResult> writeRows(List<Transaction> chunk, StatelessTransactionInserter.ChunkSession session) {
+        // Fast path: the whole chunk as one JDBC batch
+        Object chunkSavepoint = session.createSavepoint();
+        try {
+            session.insertAll(chunk);
+            session.releaseSavepoint(chunkSavepoint);
+            List<WriteResult> results = new ArrayList<>(chunk.size());
+            for (Transaction transaction : chunk) {
+                results.add(WriteResult.saved(transaction));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            session.rollbackToSavepoint(chunkSavepoint);
+            // Ids handed out to the rolled-back batch were never stored; let the retry assign new ones
+            for (Transaction transaction : chunk) {
+                transaction.setId(null);
+            }
+        }
+
+        // Some row in the chunk is bad: retry one row per savepoint so only that row is dropped
+        List<WriteResult> results = new ArrayList<>(chunk.size());
+        for (Transaction transaction : chunk) {
+            Object savepoint = session.createSavepoint();
+            try {
+                session.insert(transaction);
+                session.releaseSavepoint(savepoint);
+                results.add(WriteResult.saved(transaction));
+            } catch (RuntimeException e) {
+                session.rollbackToSavepoint(savepoint);
+                transaction.setId(null);
+                results.add(isDuplicate(e) ? WriteResult.duplicate(transaction, e.getMessage())
+                        : isInvalidData(e) ? WriteResult.invalid(transaction, e.getMessage())
+                        : WriteResult.failed(transaction, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Rejected by the (user_id, dedup_key) index: a concurrent request stored the same message first.
+     * The index is the only unique constraint besides the generated id, so a driver that does not report
+     * the constraint name is taken at its word for a unique violation.
+     */
+    private static boolean isDuplicate(RuntimeException e) {
+        if (!(e instanceof ConstraintViolationException violation)
+                || violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+            return false;
+        }
+        String constraintName = violation.getConstraintName();
+        return constraintName == null || constraintName.toLowerCase(Locale.ROOT).contains(Transaction.DEDUP_CONSTRAINT);
+    }
+
+    /**
+     * Rejected for the row's own values (too long, out of range, violating a constraint), so writing it
+     * again fails the same way. Checked after isDuplicate.
+     */
+    private static boolean isInvalidData(RuntimeException e) {
+        return e instanceof DataException || e instanceof ConstraintViolationException
+                || e instanceof DataIntegrityViolationException;
+    }
+
+    /**
+     * Outcome of one row: the saved entity, or the error that rolled it back
+     */
+    public static final class WriteResult {
+        private final Transaction transaction;
+        private final String error;
+        private final boolean duplicate;
+        private final boolean invalid;
+
+        private WriteResult(Transaction transaction, String error, boolean duplicate, boolean invalid) {
+            this.transaction = transaction;
+            this.error = error;
+            this.duplicate = duplicate;
+            this.invalid = invalid;
+        }
+
+        static WriteResult saved(Transaction transaction) {
+            return new WriteResult(transaction, null, false, false);
+        }
+
+        static WriteResult failed(Transaction transaction, String error) {
+            return new WriteResult(transaction, error, false, false);
+        }
+
+        static WriteResult duplicate(Transaction transaction, String error) {
+            return new WriteResult(transaction, error, true, false);
+        }
+
+        static WriteResult invalid(Transaction transaction, String error) {
+            return new WriteResult(transaction, error, false, true);
+        }
+
+        public boolean isSaved() {
+            return error == null;
+        }
+
+        /**
+         * Not saved because the user already has this message
+         */
+        public boolean isDuplicate() {
+            return duplicate;
+        }
+
+        /**
+         * Not saved because the database rejected the row's values; retrying cannot help
+         */
+        public boolean isInvalid() {
+            return invalid;
+        }
+
+        public Transaction getTransaction() {
+            return transaction;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Identity of a transaction for duplicate detection, unique per user.
+ *
+ * With a reference number the key covers bank, type and reference, so both legs of a self transfer
+ * (same UPI reference, debit at one bank and credit at the other) are kept. Without one it is a hash
+ * of the bank and the message text, so only the same SMS delivered twice collapses.
+ */
+public final class TransactionDedupKey {
+
+    private TransactionDedupKey() {
+    }
+
+    public static String of(Transaction transaction) {
+        String bankAddress = transaction.getBankAddress() != null ? transaction.getBankAddress() : "";
+        String referenceNumber = transaction.getReferenceNumber();
+        if (referenceNumber != null && !referenceNumber.isBlank()) {
+            return "r:" + sha256(bankAddress + '\n' + transaction.getTransactionType() + '\n'
+                    + referenceNumber.strip().toUpperCase(Locale.ROOT));
+        }
+        String message = transaction.getOriginalMessage() != null ? transaction.getOriginalMessage().strip() : "";
+        return "m:" + sha256(bankAddress + '\n' + message);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
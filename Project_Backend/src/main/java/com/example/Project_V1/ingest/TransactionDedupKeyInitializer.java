@@ -0,0 +1,89 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gives rows stored before duplicate detection existed their dedup key at startup, so a backup import of
+ * old history is matched against them like any other message.
+ *
+ * Rows without a key are read in id order, finance.ingest.dedup-backfill-page-size at a time, and keyed
+ * with TransactionDedupKey. An old row that repeats one already keyed (the same SMS stored twice back
+ * then) would break the unique (user_id, dedup_key) index; it keeps a null key and is left as it is.
+ * Runs once all singletons (and so the schema update) are ready, before the web server accepts requests
+ * and before any user's dedup filter is built.
+ */
+@Component
+public class TransactionDedupKeyInitializer implements SmartInitializingSingleton {
+
+    private static final String SELECT_PAGE =
+            "SELECT id, bank_address, transaction_type, reference_number, original_message FROM transactions"
+                    + " WHERE dedup_key IS NULL AND id > ? ORDER BY id LIMIT ?";
+    // Only a row still without a key, so a concurrently starting instance does not key a row twice
+    private static final String UPDATE_KEY = "UPDATE transactions SET dedup_key = ? WHERE id = ? AND dedup_key IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+
+    // Depending on the EntityManagerFactory guarantees the dedup_key column has been created
+    public TransactionDedupKeyInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                          @Value("${finance.ingest.dedup-backfill-page-size:1000}") int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Dedup backfill page size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<Transaction> page = jdbcTemplate.query(SELECT_PAGE, (rs, rowNum) -> {
+                Transaction transaction = new Transaction();
+                transaction.setId(rs.getLong("id"));
+                transaction.setBankAddress(rs.getString("bank_address"));
+                transaction.setTransactionType(rs.getString("transaction_type"));
+                transaction.setReferenceNumber(rs.getString("reference_number"));
+                transaction.setOriginalMessage(rs.getString("original_message"));
+                return transaction;
+            }, afterId, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            writeKeys(page);
+            if (page.size() < pageSize) {
+                return;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private void writeKeys(List<Transaction> page) {
+        List<Object[]> updates = new ArrayList<>(page.size());
+        for (Transaction transaction : page) {
+            updates.add(new Object[]{TransactionDedupKey.of(transaction), transaction.getId()});
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_KEY, updates);
+        } catch (DataIntegrityViolationException e) {
+            // Some row repeats an earlier one; key the page row by row so only the repeats are left out
+            for (Object[] update : updates) {
+                try {
+                    jdbcTemplate.update(UPDATE_KEY, update);
+                } catch (DuplicateKeyException duplicate) {
+                    // The earlier copy holds the key
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import com.example.Project_V1.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds messages that are already stored for a user, by dedup key (see TransactionDedupKey).
+ *
+ * Each user gets a Bloom filter of their stored keys, built from one query the first time the user is
+ * seen. A key the filter rules out is new without touching the database; only keys it cannot rule out
+ * (real duplicates and the odd false positive) are looked up, one query per user per batch. The unique
+ * (user_id, dedup_key) index stays the authority: two requests racing with the same new message both
+ * pass the filter and the second insert is rejected there.
+ *
+ * Filters are kept for the finance.ingest.dedup-filter-users most recently active users. A filter that
+ * fills past the size it was built for is dropped and rebuilt, twice as large, on next use.
+ */
+@Component
+public class TransactionDeduplicator {
+
+    // Smallest filter built, so users with few transactions do not rebuild it every few inserts
+    private static final int MIN_FILTER_CAPACITY = 1024;
+
+    private final TransactionRepository transactionRepository;
+    private final double falsePositiveRate;
+    private final Map<Long, UserFilter> filters;
+
+    public TransactionDeduplicator(TransactionRepository transactionRepository,
+                                   @Value("${finance.ingest.dedup-filter-users:10000}") int maxUsers,
+                                   @Value("${finance.ingest.dedup-false-positive-rate:0.01}") double falsePositiveRate) {
+        if (maxUsers <= 0) {
+            throw new IllegalArgumentException("Dedup filter user count must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Dedup false positive rate must be between 0 and 1");
+        }
+        this.transactionRepository = transactionRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserFilter> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Stored transactions of the user among the given keys, by key; keys without one are new
+     */
+    public Map<String, Transaction> findStored(Long userId, Collection<String> dedupKeys) {
+        UserFilter filter = filterFor(userId);
+        List<String> candidates = new ArrayList<>();
+        for (String dedupKey : dedupKeys) {
+            if (filter.mightContain(dedupKey)) {
+                candidates.add(dedupKey);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Transaction> stored = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findByUserIdAndDedupKeyIn(userId, candidates)) {
+            stored.put(transaction.getDedupKey(), transaction);
+        }
+        return stored;
+    }
+
+    /**
+     * Add the keys of newly stored transactions to their users' filters
+     */
+    public void recordStored(Collection<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (transaction.getDedupKey() == null) {
+                continue;
+            }
+            Long userId = transaction.getUser().getId();
+            UserFilter filter;
+            synchronized (filters) {
+                filter = filters.get(userId);
+            }
+            // A user without a filter gets one with this key when it is next built from the database
+            if (filter != null && !filter.put(transaction.getDedupKey())) {
+                synchronized (filters) {
+                    filters.remove(userId, filter);
+                }
+            }
+        }
+    }
+
+    private UserFilter filterFor(Long userId) {
+        UserFilter filter;
+        synchronized (filters) {
+            filter = filters.computeIfAbsent(userId, id -> new UserFilter());
+        }
+        filter.load(userId);
+        return filter;
+    }
+
+    /**
+     * One user's filter; built on first use, so the map lock is never held during the query
+     */
+    private final class UserFilter {
+
+        private DedupBloomFilter bloomFilter;
+        private int capacity;
+        private int size;
+
+        synchronized void load(Long userId) {
+            if (bloomFilter != null) {
+                return;
+            }
+            List<String> storedKeys = transactionRepository.findDedupKeysByUserId(userId);
+            capacity = Math.max(MIN_FILTER_CAPACITY, storedKeys.size() * 2);
+            bloomFilter = new DedupBloomFilter(capacity, falsePositiveRate);
+            storedKeys.forEach(bloomFilter::put);
+            size = storedKeys.size();
+        }
+
+        synchronized boolean mightContain(String dedupKey) {
+            return bloomFilter.mightContain(dedupKey);
+        }
+
+        /**
+         * @return false once the filter holds more keys than it was sized for
+         */
+        synchronized boolean put(String dedupKey) {
+            if (bloomFilter == null) {
+                // Not built yet; the query it will be built from sees this row
+                return true;
+            }
+            bloomFilter.put(dedupKey);
+            return ++size <= capacity;
+        }
+    }
+}
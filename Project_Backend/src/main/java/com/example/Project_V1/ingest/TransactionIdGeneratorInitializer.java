@@ -0,0 +1,48 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the transactions id generator past the highest existing id at startup.
+ *
+ * Databases created before Transaction switched from IDENTITY to a table generator already hold rows
+ * whose ids the fresh generator would hand out again. Runs once all singletons (and so the schema
+ * update) are ready, before the web server accepts requests.
+ */
+@Component
+public class TransactionIdGeneratorInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depending on the EntityManagerFactory guarantees the generator table has been created
+    public TransactionIdGeneratorInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // The pooled optimizer hands out (value - allocationSize, value], so the next block must end past maxId
+        long floor = maxId + Transaction.ID_ALLOCATION_SIZE;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + Transaction.ID_GENERATOR_TABLE + " SET next_val = ? WHERE generator_name = ? AND next_val < ?",
+                floor, Transaction.ID_GENERATOR_NAME, floor);
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + Transaction.ID_GENERATOR_TABLE + " WHERE generator_name = ?",
+                    Integer.class, Transaction.ID_GENERATOR_NAME);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO " + Transaction.ID_GENERATOR_TABLE + " (generator_name, next_val) VALUES (?, ?)",
+                        Transaction.ID_GENERATOR_NAME, floor);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.Project_V1.regex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over ASCII keywords.
+ * One linear scan of a text reports every keyword that occurs in it, ignoring ASCII case.
+ */
+public final class AhoCorasickAutomaton {
+
+    private static final int ROOT = 0;
+    private static final char[] NO_KEYS = new char[0];
+    private static final int[] NO_INTS = new int[0];
+
+    // Sparse goto function: per node, parallel arrays of child labels and child node ids
+    private final char[][] childKeys;
+    private final int[][] childNodes;
+    private final int[] failure;
+    // Keyword ids ending at each node, already merged along failure links
+    private final int[][] outputs;
+    private final int keywordCount;
+
+    /**
+     * @param keywords lowercase ASCII keywords; the keyword id is its index in this list
+     */
+    public AhoCorasickAutomaton(List<String> keywords) {
+        List<char[]> keys = new ArrayList<>();
+        List<int[]> nodes = new ArrayList<>();
+        List<int[]> ownOutputs = new ArrayList<>();
+        keys.add(NO_KEYS);
+        nodes.add(NO_INTS);
+        ownOutputs.add(NO_INTS);
+
+        for (int keywordId = 0; keywordId < keywords.size(); keywordId++) {
+            String keyword = keywords.get(keywordId);
+            int node = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = RequiredLiteralExtractor.toLowerAscii(keyword.charAt(i));
+                int child = find(keys.get(node), nodes.get(node), c);
+                if (child < 0) {
+                    child = keys.size();
+                    keys.add(NO_KEYS);
+                    nodes.add(NO_INTS);
+                    ownOutputs.add(NO_INTS);
+                    keys.set(node, append(keys.get(node), c));
+                    nodes.set(node, append(nodes.get(node), child));
+                }
+                node = child;
+            }
+            ownOutputs.set(node, append(ownOutputs.get(node), keywordId));
+        }
+
+        int size = keys.size();
+        this.childKeys = keys.toArray(new char[0][]);
+        this.childNodes = nodes.toArray(new int[0][]);
+        this.failure = new int[size];
+        this.outputs = ownOutputs.toArray(new int[0][]);
+        this.keywordCount = keywords.size();
+
+        // Breadth-first so a node's failure target is always finished before the node itself
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : childNodes[ROOT]) {
+            failure[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int k = 0; k < childKeys[node].length; k++) {
+                char c = childKeys[node][k];
+                int child = childNodes[node][k];
+                failure[child] = step(failure[node], c);
+                outputs[child] = merge(outputs[child], outputs[failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    public int getKeywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Scan the text once and return the ids of every keyword found
+     */
+    public BitSet scan(CharSequence text) {
+        BitSet found = new BitSet(keywordCount);
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128) {
+                // Keywords are ASCII only, so no keyword can span a non-ASCII character
+                node = ROOT;
+                continue;
+            }
+            node = step(node, RequiredLiteralExtractor.toLowerAscii(c));
+            for (int keywordId : outputs[node]) {
+                found.set(keywordId);
+            }
+        }
+        return found;
+    }
+
+    private int step(int node, char c) {
+        while (true) {
+            int child = find(childKeys[node], childNodes[node], c);
+            if (child >= 0) {
+                return child;
+            }
+            if (node == ROOT) {
+                return ROOT;
+            }
+            node = failure[node];
+        }
+    }
+
+    private static int find(char[] keys, int[] nodes, char c) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == c) {
+                return nodes[i];
+            }
+        }
+        return -1;
+    }
+
+    private static char[] append(char[] array, char value) {
+        char[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.entity.RegexLog;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, in-memory view of an approved RegexLog.
+ * Only the fields needed for matching are kept so the LONGTEXT sample text is not held on the heap.
+ */
+@Getter
+public class ApprovedPattern {
+    private final Long id;
+    private final String source;
+    private final Pattern pattern;
+    private final ExtractionPlan extractionPlan;
+    // Literal substrings every match must contain, used by the bank's LiteralPrefilter
+    private final List<String> requiredLiterals;
+    // Position in createdAt DESC order; used as the deterministic tiebreak when reordering by hits
+    private final int baseRank;
+    private final LongAdder hitCounter;
+
+    public ApprovedPattern(Long id, String source, Pattern pattern) {
+        this(id, source, pattern, 0, new LongAdder());
+    }
+
+    public ApprovedPattern(Long id, String source, Pattern pattern, int baseRank, LongAdder hitCounter) {
+        this.id = id;
+        this.source = source;
+        this.pattern = pattern;
+        this.extractionPlan = ExtractionPlan.of(pattern);
+        this.requiredLiterals = RequiredLiteralExtractor.extract(source);
+        this.baseRank = baseRank;
+        this.hitCounter = hitCounter;
+    }
+
+    /**
+     * Compile an approved RegexLog, returning null if its pattern is missing or invalid
+     */
+    public static ApprovedPattern from(RegexLog regexLog, PatternCache patternCache, int baseRank, LongAdder hitCounter) {
+        if (regexLog.getPattern() == null || regexLog.getPattern().isBlank()) {
+            return null;
+        }
+        try {
+            Pattern compiled = patternCache.compile(regexLog.getPattern(), Pattern.CASE_INSENSITIVE);
+            return new ApprovedPattern(regexLog.getId(), regexLog.getPattern(), compiled, baseRank, hitCounter);
+        } catch (RuntimeException e) {
+            // Invalid patterns never matched anything before; keep them out of the set
+            return null;
+        }
+    }
+
+    public void recordHit() {
+        hitCounter.increment();
+    }
+
+    public long getHits() {
+        return hitCounter.sum();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.entity.RegexLog;
+import com.example.Project_V1.enums.RegexPatternStatus;
+import com.example.Project_V1.repository.RegexLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory registry of approved regex patterns, keyed by bank address.
+ *
+ * Readers get an immutable BankPatternSet snapshot and never touch the database once a bank
+ * has been loaded. Snapshots are rebuilt and swapped atomically whenever a pattern moves
+ * into or out of APPROVED.
+ *
+ * Each bank's candidate list is periodically reordered by match frequency so the most common
+ * SMS format is tried first. Hit counters are kept per pattern id and survive rebuilds.
+ *
+ * Banks listed in finance.regex.automaton-banks ("*" for all) get a single-pass
+ * MultiPatternAutomaton compiled into their snapshot.
+ *
+ * Bank addresses come from request bodies, so one without approved patterns is not kept with the
+ * others; its empty snapshot goes into a small LRU of finance.regex.max-unknown-banks addresses instead.
+ */
+@Component
+public class ApprovedPatternRegistry {
+
+    private final RegexLogRepository regexLogRepository;
+    private final PatternCache patternCache;
+    private final Map<String, BankPatternSet> patternSets = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Bumped before every rebuild; a lazy load that overlapped one may have read an older state
+    private final AtomicLong refreshSequence = new AtomicLong();
+    private volatile int maxUnknownBanks = 1000;
+    private final Map<String, BankPatternSet> unknownBanks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BankPatternSet> eldest) {
+            return size() > maxUnknownBanks;
+        }
+    };
+    private final Map<Long, LongAdder> hitCounters = new ConcurrentHashMap<>();
+    private volatile Set<String> automatonBanks = Set.of();
+
+    public ApprovedPatternRegistry(RegexLogRepository regexLogRepository, PatternCache patternCache) {
+        this.regexLogRepository = regexLogRepository;
+        this.patternCache = patternCache;
+    }
+
+    /**
+     * Comma-separated bank addresses that use the automaton engine; "*" selects every bank
+     */
+    @Value("${finance.regex.automaton-banks:}")
+    public void setAutomatonBanks(String banks) {
+        Set<String> selected = new HashSet<>();
+        if (banks != null) {
+            for (String bank : banks.split(",")) {
+                if (!bank.isBlank()) {
+                    selected.add(bank.trim());
+                }
+            }
+        }
+        this.automatonBanks = Set.copyOf(selected);
+    }
+
+    /**
+     * How many bank addresses without approved patterns are remembered, so their messages skip the query
+     */
+    @Value("${finance.regex.max-unknown-banks:1000}")
+    public void setMaxUnknownBanks(int maxUnknownBanks) {
+        if (maxUnknownBanks < 0) {
+            throw new IllegalArgumentException("Unknown bank count must not be negative");
+        }
+        this.maxUnknownBanks = maxUnknownBanks;
+    }
+
+    /**
+     * Get the approved patterns for a bank, loading them once if the bank has not been seen yet
+     */
+    public BankPatternSet getPatterns(String bankAddress) {
+        BankPatternSet patternSet = patternSets.get(bankAddress);
+        if (patternSet != null) {
+            return patternSet;
+        }
+        synchronized (unknownBanks) {
+            patternSet = unknownBanks.get(bankAddress);
+        }
+        if (patternSet != null) {
+            return patternSet;
+        }
+        // Query without holding any lock; concurrent first requests for a bank may each load it
+        long refreshes = refreshSequence.get();
+        BankPatternSet loaded = load(bankAddress);
+        // A rebuild that ran meanwhile may have seen a newer state than this load, so the load is then
+        // returned without being kept. The check is made under the same lock the rebuild takes.
+        if (loaded.isEmpty()) {
+            synchronized (unknownBanks) {
+                if (refreshSequence.get() != refreshes) {
+                    return loaded;
+                }
+                BankPatternSet raced = unknownBanks.putIfAbsent(bankAddress, loaded);
+                return raced != null ? raced : loaded;
+            }
+        }
+        BankPatternSet installed = patternSets.compute(bankAddress, (key, current) ->
+                current != null || refreshSequence.get() != refreshes ? current : loaded);
+        return installed != null ? installed : loaded;
+    }
+
+    /**
+     * Rebuild the snapshot for a bank. If called inside a transaction the rebuild is deferred
+     * until after commit so the new status is visible to the reload query.
+     */
+    public void refresh(String bankAddress) {
+        if (bankAddress == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild(bankAddress);
+                }
+            });
+        } else {
+            rebuild(bankAddress);
+        }
+    }
+
+    /**
+     * Load every approved pattern in one query so the first messages after startup are served from memory
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Map<String, List<RegexLog>> byBank = new LinkedHashMap<>();
+        for (RegexLog regexLog : regexLogRepository.findByStatusOrderByCreatedAtDesc(RegexPatternStatus.APPROVED)) {
+            if (regexLog.getBankAddress() != null) {
+                byBank.computeIfAbsent(regexLog.getBankAddress(), key -> new ArrayList<>()).add(regexLog);
+            }
+        }
+        byBank.forEach((bankAddress, regexLogs) -> patternSets.putIfAbsent(bankAddress, build(bankAddress, regexLogs)));
+    }
+
+    /**
+     * Reorder every bank's candidate list by hit frequency. The pattern set itself (and its version) is unchanged.
+     */
+    @Scheduled(fixedDelayString = "${finance.regex.reorder-interval-ms:60000}")
+    public void reorderByHitRate() {
+        for (String bankAddress : patternSets.keySet()) {
+            patternSets.computeIfPresent(bankAddress, (key, patternSet) -> patternSet.reorderedByHits());
+        }
+    }
+
+    private void rebuild(String bankAddress) {
+        refreshSequence.incrementAndGet();
+        synchronized (unknownBanks) {
+            unknownBanks.remove(bankAddress);
+        }
+        // A bank left without approved patterns drops out of the map, like one never seen
+        patternSets.compute(bankAddress, (key, previous) -> {
+            BankPatternSet rebuilt = load(key);
+            return rebuilt.isEmpty() ? null : rebuilt;
+        });
+    }
+
+    private BankPatternSet load(String bankAddress) {
+        return build(bankAddress, regexLogRepository
+                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, bankAddress));
+    }
+
+    private BankPatternSet build(String bankAddress, List<RegexLog> regexLogs) {
+        List<ApprovedPattern> patterns = new ArrayList<>();
+        for (RegexLog regexLog : regexLogs) {
+            LongAdder hitCounter = regexLog.getId() != null
+                    ? hitCounters.computeIfAbsent(regexLog.getId(), id -> new LongAdder())
+                    : new LongAdder();
+            ApprovedPattern approvedPattern = ApprovedPattern.from(regexLog, patternCache, patterns.size(), hitCounter);
+            if (approvedPattern != null) {
+                patterns.add(approvedPattern);
+            }
+        }
+        // Start from the learned order so a rebuild does not throw away what the counters already know
+        boolean useAutomaton = automatonBanks.contains("*") || automatonBanks.contains(bankAddress);
+        return new BankPatternSet(bankAddress, versionSequence.incrementAndGet(), patterns, useAutomaton)
+                .reorderedByHits();
+    }
+}
@@ -0,0 +1,631 @@
+package com.example.Project_V1.regex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the subset of java.util.regex syntax used by SMS patterns and compiles it into
+ * Pike VM instructions for MultiPatternAutomaton.
+ *
+ * Supported: literals and escapes, '.', character classes with ranges and \d \w \s, capturing,
+ * non-capturing and named groups, alternation, greedy and lazy quantifiers, ^ $ \A \z \Z \b \B,
+ * and a leading (?i). Capturing groups are numbered exactly as java.util.regex numbers them, so
+ * the ExtractionPlan of the compiled Pattern can be reused. Anything else throws UnsupportedRegexException.
+ */
+final class AutomatonCompiler {
+
+    static final int OP_CHAR = 0;
+    static final int OP_ANY = 1;
+    static final int OP_CLASS = 2;
+    static final int OP_SPLIT = 3;
+    static final int OP_JMP = 4;
+    static final int OP_SAVE = 5;
+    static final int OP_ASSERT = 6;
+    static final int OP_MATCH = 7;
+
+    static final int ASSERT_BEGIN = 0;
+    static final int ASSERT_END = 1;
+    static final int ASSERT_END_ABSOLUTE = 2;
+    static final int ASSERT_WORD_BOUNDARY = 3;
+    static final int ASSERT_NOT_WORD_BOUNDARY = 4;
+
+    static final int MAX_INSTRUCTIONS_PER_PATTERN = 20_000;
+    static final int MAX_REPEAT = 100;
+
+    private final String regex;
+    private int position;
+    private int groupCount;
+
+    private AutomatonCompiler(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * Compile one pattern into a relocatable fragment: SAVE 0, body, SAVE 1, MATCH
+     */
+    static Fragment compile(String regex) {
+        AutomatonCompiler compiler = new AutomatonCompiler(regex);
+        Node root = compiler.parse();
+        Fragment fragment = new Fragment(compiler.groupCount);
+        fragment.emit(OP_SAVE, 0, 0);
+        root.emit(fragment);
+        fragment.emit(OP_SAVE, 1, 0);
+        fragment.emit(OP_MATCH, 0, 0);
+        return fragment;
+    }
+
+    // ---------------------------------------------------------------- parsing
+
+    private Node parse() {
+        skipLeadingCaseInsensitiveFlag();
+        Node node = parseAlternation();
+        if (position < regex.length()) {
+            throw new UnsupportedRegexException("Unexpected '" + regex.charAt(position) + "' at " + position);
+        }
+        return node;
+    }
+
+    private void skipLeadingCaseInsensitiveFlag() {
+        // Approved patterns are already compiled CASE_INSENSITIVE, so a leading (?i) changes nothing
+        if (regex.startsWith("(?i)")) {
+            position = 4;
+        }
+    }
+
+    private Node parseAlternation() {
+        List<Node> alternatives = new ArrayList<>();
+        alternatives.add(parseConcatenation());
+        while (position < regex.length() && regex.charAt(position) == '|') {
+            position++;
+            alternatives.add(parseConcatenation());
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+    }
+
+    private Node parseConcatenation() {
+        List<Node> items = new ArrayList<>();
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (c == '|' || c == ')') {
+                break;
+            }
+            items.add(parseQuantified(parseAtom()));
+        }
+        return new Concatenation(items);
+    }
+
+    private Node parseQuantified(Node atom) {
+        if (position >= regex.length()) {
+            return atom;
+        }
+        char c = regex.charAt(position);
+        int min;
+        int max;
+        if (c == '*') {
+            min = 0;
+            max = -1;
+            position++;
+        } else if (c == '+') {
+            min = 1;
+            max = -1;
+            position++;
+        } else if (c == '?') {
+            min = 0;
+            max = 1;
+            position++;
+        } else if (c == '{') {
+            int close = regex.indexOf('}', position);
+            if (close < 0) {
+                throw new UnsupportedRegexException("Unclosed repetition");
+            }
+            String[] bounds = regex.substring(position + 1, close).split(",", -1);
+            try {
+                min = Integer.parseInt(bounds[0].trim());
+                if (bounds.length == 1) {
+                    max = min;
+                } else {
+                    max = bounds[1].isBlank() ? -1 : Integer.parseInt(bounds[1].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new UnsupportedRegexException("Invalid repetition");
+            }
+            if (min > MAX_REPEAT || max > MAX_REPEAT) {
+                throw new UnsupportedRegexException("Repetition too large for the automaton");
+            }
+            position = close + 1;
+        } else {
+            return atom;
+        }
+
+        boolean greedy = true;
+        if (position < regex.length()) {
+            char suffix = regex.charAt(position);
+            if (suffix == '?') {
+                greedy = false;
+                position++;
+            } else if (suffix == '+') {
+                throw new UnsupportedRegexException("Possessive quantifiers are not supported");
+            }
+        }
+        if (atom instanceof Assertion) {
+            throw new UnsupportedRegexException("Quantified assertion");
+        }
+        return new Repeat(atom, min, max, greedy);
+    }
+
+    private Node parseAtom() {
+        char c = regex.charAt(position);
+        switch (c) {
+            case '(':
+                return parseGroup();
+            case '[':
+                return new ClassNode(parseCharClass());
+            case '.':
+                position++;
+                return new AnyChar();
+            case '^':
+                position++;
+                return new Assertion(ASSERT_BEGIN);
+            case '$':
+                position++;
+                return new Assertion(ASSERT_END);
+            case '\\':
+                return parseEscape();
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedRegexException("Dangling quantifier");
+            default:
+                position++;
+                return new Literal(c);
+        }
+    }
+
+    private Node parseGroup() {
+        position++; // '('
+        int groupIndex = -1;
+        if (regex.startsWith("?:", position)) {
+            position += 2;
+        } else if (regex.startsWith("?<", position)
+                && position + 2 < regex.length()
+                && Character.isLetter(regex.charAt(position + 2))) {
+            int close = regex.indexOf('>', position);
+            if (close < 0) {
+                throw new UnsupportedRegexException("Unclosed group name");
+            }
+            position = close + 1;
+            groupIndex = ++groupCount;
+        } else if (position < regex.length() && regex.charAt(position) == '?') {
+            throw new UnsupportedRegexException("Lookaround, atomic groups and inline flags are not supported");
+        } else {
+            groupIndex = ++groupCount;
+        }
+        Node body = parseAlternation();
+        if (position >= regex.length() || regex.charAt(position) != ')') {
+            throw new UnsupportedRegexException("Unclosed group");
+        }
+        position++;
+        return new Group(groupIndex, body);
+    }
+
+    private Node parseEscape() {
+        if (position + 1 >= regex.length()) {
+            throw new UnsupportedRegexException("Trailing backslash");
+        }
+        char escaped = regex.charAt(position + 1);
+        switch (escaped) {
+            case 'b':
+                position += 2;
+                return new Assertion(ASSERT_WORD_BOUNDARY);
+            case 'B':
+                position += 2;
+                return new Assertion(ASSERT_NOT_WORD_BOUNDARY);
+            case 'A':
+                position += 2;
+                return new Assertion(ASSERT_BEGIN);
+            case 'Z':
+                position += 2;
+                return new Assertion(ASSERT_END);
+            case 'z':
+                position += 2;
+                return new Assertion(ASSERT_END_ABSOLUTE);
+            case 'd':
+            case 'D':
+            case 'w':
+            case 'W':
+            case 's':
+            case 'S':
+                position += 2;
+                CharClass charClass = new CharClass();
+                charClass.addPredefined(escaped);
+                return new ClassNode(charClass);
+            default:
+                return new Literal(parseEscapedChar());
+        }
+    }
+
+    /**
+     * Parse an escape that stands for a single character, at the current position
+     */
+    private char parseEscapedChar() {
+        char escaped = regex.charAt(position + 1);
+        position += 2;
+        switch (escaped) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case 'x':
+                return (char) parseHex(2);
+            case 'u':
+                return (char) parseHex(4);
+            case '0': {
+                int value = 0;
+                int digits = 0;
+                while (position < regex.length() && digits < 3
+                        && regex.charAt(position) >= '0' && regex.charAt(position) <= '7') {
+                    value = value * 8 + (regex.charAt(position) - '0');
+                    position++;
+                    digits++;
+                }
+                return (char) value;
+            }
+            default:
+                if (Character.isLetterOrDigit(escaped)) {
+                    throw new UnsupportedRegexException("Escape \\" + escaped + " is not supported");
+                }
+                return escaped;
+        }
+    }
+
+    private int parseHex(int digits) {
+        if (position < regex.length() && regex.charAt(position) == '{') {
+            throw new UnsupportedRegexException("Braced hex escapes are not supported");
+        }
+        if (position + digits > regex.length()) {
+            throw new UnsupportedRegexException("Truncated hex escape");
+        }
+        try {
+            int value = Integer.parseInt(regex.substring(position, position + digits), 16);
+            position += digits;
+            return value;
+        } catch (NumberFormatException e) {
+            throw new UnsupportedRegexException("Invalid hex escape");
+        }
+    }
+
+    private CharClass parseCharClass() {
+        position++; // '['
+        CharClass charClass = new CharClass();
+        if (position < regex.length() && regex.charAt(position) == '^') {
+            charClass.negated = true;
+            position++;
+        }
+        boolean first = true;
+        while (position < regex.length()) {
+            char c = regex.charAt(position);
+            if (c == ']' && !first) {
+                position++;
+                return charClass;
+            }
+            first = false;
+            if (c == '[' || regex.startsWith("&&", position)) {
+                throw new UnsupportedRegexException("Nested classes and intersections are not supported");
+            }
+            int low;
+            if (c == '\\') {
+                if (position + 1 >= regex.length()) {
+                    throw new UnsupportedRegexException("Trailing backslash");
+                }
+                char escaped = regex.charAt(position + 1);
+                if ("dDwWsS".indexOf(escaped) >= 0) {
+                    charClass.addPredefined(escaped);
+                    position += 2;
+                    continue;
+                }
+                low = parseEscapedChar();
+            } else {
+                low = c;
+                position++;
+            }
+            int high = low;
+            if (position + 1 < regex.length() && regex.charAt(position) == '-' && regex.charAt(position + 1) != ']') {
+                position++;
+                char rangeEnd = regex.charAt(position);
+                if (rangeEnd == '\\') {
+                    high = parseEscapedChar();
+                } else if (rangeEnd == '[') {
+                    throw new UnsupportedRegexException("Nested classes are not supported");
+                } else {
+                    high = rangeEnd;
+                    position++;
+                }
+            }
+            charClass.addRange((char) low, (char) high);
+        }
+        throw new UnsupportedRegexException("Unclosed character class");
+    }
+
+    // ---------------------------------------------------------------- program fragments
+
+    /**
+     * Instructions for one pattern with jump targets relative to the fragment start
+     */
+    static final class Fragment {
+        final int groupCount;
+        int[] ops = new int[32];
+        int[] args = new int[32];
+        int[] args2 = new int[32];
+        final List<CharClass> classes = new ArrayList<>();
+        int size;
+
+        Fragment(int groupCount) {
+            this.groupCount = groupCount;
+        }
+
+        int emit(int op, int arg, int arg2) {
+            if (size == MAX_INSTRUCTIONS_PER_PATTERN) {
+                throw new UnsupportedRegexException("Pattern is too large for the automaton");
+            }
+            if (size == ops.length) {
+                ops = java.util.Arrays.copyOf(ops, size * 2);
+                args = java.util.Arrays.copyOf(args, size * 2);
+                args2 = java.util.Arrays.copyOf(args2, size * 2);
+            }
+            ops[size] = op;
+            args[size] = arg;
+            args2[size] = arg2;
+            return size++;
+        }
+
+        void patch(int pc, int arg, int arg2) {
+            args[pc] = arg;
+            args2[pc] = arg2;
+        }
+    }
+
+    // ---------------------------------------------------------------- AST
+
+    private interface Node {
+        void emit(Fragment fragment);
+    }
+
+    private static final class Literal implements Node {
+        private final char c;
+
+        Literal(char c) {
+            this.c = c;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            fragment.emit(OP_CHAR, RequiredLiteralExtractor.toLowerAscii(c), 0);
+        }
+    }
+
+    private static final class AnyChar implements Node {
+        @Override
+        public void emit(Fragment fragment) {
+            fragment.emit(OP_ANY, 0, 0);
+        }
+    }
+
+    private static final class ClassNode implements Node {
+        private final CharClass charClass;
+
+        ClassNode(CharClass charClass) {
+            this.charClass = charClass;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            fragment.classes.add(charClass);
+            fragment.emit(OP_CLASS, fragment.classes.size() - 1, 0);
+        }
+    }
+
+    private static final class Assertion implements Node {
+        private final int kind;
+
+        Assertion(int kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            fragment.emit(OP_ASSERT, kind, 0);
+        }
+    }
+
+    private static final class Group implements Node {
+        private final int index;
+        private final Node body;
+
+        Group(int index, Node body) {
+            this.index = index;
+            this.body = body;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            if (index < 0) {
+                body.emit(fragment);
+                return;
+            }
+            fragment.emit(OP_SAVE, 2 * index, 0);
+            body.emit(fragment);
+            fragment.emit(OP_SAVE, 2 * index + 1, 0);
+        }
+    }
+
+    private static final class Concatenation implements Node {
+        private final List<Node> items;
+
+        Concatenation(List<Node> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            for (Node item : items) {
+                item.emit(fragment);
+            }
+        }
+    }
+
+    private static final class Alternation implements Node {
+        private final List<Node> alternatives;
+
+        Alternation(List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            // SPLIT L1, next; L1: alt1; JMP end; next: SPLIT L2, next2; ... last alternative
+            List<Integer> jumpsToEnd = new ArrayList<>();
+            for (int i = 0; i < alternatives.size() - 1; i++) {
+                int split = fragment.emit(OP_SPLIT, 0, 0);
+                alternatives.get(i).emit(fragment);
+                jumpsToEnd.add(fragment.emit(OP_JMP, 0, 0));
+                fragment.patch(split, split + 1, fragment.size);
+            }
+            alternatives.get(alternatives.size() - 1).emit(fragment);
+            for (int jump : jumpsToEnd) {
+                fragment.patch(jump, fragment.size, 0);
+            }
+        }
+    }
+
+    private static final class Repeat implements Node {
+        private final Node body;
+        private final int min;
+        private final int max;
+        private final boolean greedy;
+
+        Repeat(Node body, int min, int max, boolean greedy) {
+            this.body = body;
+            this.min = min;
+            this.max = max;
+            this.greedy = greedy;
+        }
+
+        @Override
+        public void emit(Fragment fragment) {
+            for (int i = 0; i < min; i++) {
+                body.emit(fragment);
+            }
+            if (max < 0) {
+                // L: SPLIT body, end; body; JMP L; end:
+                int split = fragment.emit(OP_SPLIT, 0, 0);
+                body.emit(fragment);
+                fragment.emit(OP_JMP, split, 0);
+                patchSplit(fragment, split, split + 1, fragment.size);
+                return;
+            }
+            // Optional copies nest so that each extra iteration requires the previous one: x{1,3} = x(x(x)?)?
+            List<Integer> splits = new ArrayList<>();
+            for (int i = min; i < max; i++) {
+                splits.add(fragment.emit(OP_SPLIT, 0, 0));
+                body.emit(fragment);
+            }
+            for (int split : splits) {
+                patchSplit(fragment, split, split + 1, fragment.size);
+            }
+        }
+
+        private void patchSplit(Fragment fragment, int split, int enter, int skip) {
+            if (greedy) {
+                fragment.patch(split, enter, skip);
+            } else {
+                fragment.patch(split, skip, enter);
+            }
+        }
+    }
+
+    /**
+     * Character set: ranges plus predefined classes, optionally negated
+     */
+    static final class CharClass {
+        private final List<char[]> ranges = new ArrayList<>();
+        private final StringBuilder predefined = new StringBuilder();
+        boolean negated;
+
+        void addRange(char low, char high) {
+            ranges.add(new char[]{low, high});
+        }
+
+        void addPredefined(char kind) {
+            predefined.append(kind);
+        }
+
+        /**
+         * Case-insensitive (ASCII) membership test, matching CASE_INSENSITIVE semantics
+         */
+        boolean matches(char c) {
+            boolean inside = contains(c);
+            if (!inside) {
+                char other = otherAsciiCase(c);
+                inside = other != c && contains(other);
+            }
+            return negated != inside;
+        }
+
+        private boolean contains(char c) {
+            for (char[] range : ranges) {
+                if (c >= range[0] && c <= range[1]) {
+                    return true;
+                }
+            }
+            for (int i = 0; i < predefined.length(); i++) {
+                if (matchesPredefined(predefined.charAt(i), c)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean matchesPredefined(char kind, char c) {
+            return switch (kind) {
+                case 'd' -> isDigit(c);
+                case 'D' -> !isDigit(c);
+                case 'w' -> isWordChar(c);
+                case 'W' -> !isWordChar(c);
+                case 's' -> isSpace(c);
+                case 'S' -> !isSpace(c);
+                default -> false;
+            };
+        }
+
+        private static char otherAsciiCase(char c) {
+            if (c >= 'a' && c <= 'z') {
+                return (char) (c - ('a' - 'A'));
+            }
+            if (c >= 'A' && c <= 'Z') {
+                return (char) (c + ('a' - 'A'));
+            }
+            return c;
+        }
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_';
+    }
+
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.Project_V1.regex;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the approved patterns for one bank address.
+ * A new snapshot (with a new version) is published every time the approved set changes.
+ *
+ * Banks selected for the automaton engine also carry a MultiPatternAutomaton that evaluates all
+ * of their compatible patterns in one pass; it is null for everyone else.
+ */
+@Getter
+public class BankPatternSet {
+    private final String bankAddress;
+    private final long version;
+    private final List<ApprovedPattern> patterns;
+    private final LiteralPrefilter prefilter;
+    private final MultiPatternAutomaton automaton;
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, ApprovedPattern> patternsById;
+    /**
+     * True if some pattern distinguishes specific digits, which rules out digit-masked no-match caching
+     */
+    private final boolean digitSensitive;
+
+    public BankPatternSet(String bankAddress, long version, List<ApprovedPattern> patterns) {
+        this(bankAddress, version, patterns, false);
+    }
+
+    public BankPatternSet(String bankAddress, long version, List<ApprovedPattern> patterns, boolean useAutomaton) {
+        this(bankAddress, version, patterns, new LiteralPrefilter(patterns),
+                useAutomaton ? MultiPatternAutomaton.compile(patterns) : null);
+    }
+
+    private BankPatternSet(String bankAddress, long version, List<ApprovedPattern> patterns,
+                           LiteralPrefilter prefilter, MultiPatternAutomaton automaton) {
+        this.bankAddress = bankAddress;
+        this.version = version;
+        this.patterns = List.copyOf(patterns);
+        this.prefilter = prefilter;
+        this.automaton = automaton;
+        Map<Long, ApprovedPattern> byId = new HashMap<>();
+        for (ApprovedPattern pattern : this.patterns) {
+            if (pattern.getId() != null) {
+                byId.put(pattern.getId(), pattern);
+            }
+        }
+        this.patternsById = byId;
+        this.digitSensitive = this.patterns.stream()
+                .anyMatch(pattern -> MessageFingerprint.isDigitSensitive(pattern.getSource()));
+    }
+
+    /**
+     * @return the approved pattern with this id in this snapshot, or null
+     */
+    public ApprovedPattern findById(Long id) {
+        return id != null ? patternsById.get(id) : null;
+    }
+
+    public boolean isEmpty() {
+        return patterns.isEmpty();
+    }
+
+    /**
+     * Same patterns and version, ordered by observed hit count (most frequent first).
+     * Ties keep createdAt DESC order so the result is deterministic.
+     */
+    public BankPatternSet reorderedByHits() {
+        // Snapshot the counters first; they keep moving while we sort
+        Map<ApprovedPattern, Long> hits = new IdentityHashMap<>();
+        for (ApprovedPattern pattern : patterns) {
+            hits.put(pattern, pattern.getHits());
+        }
+        List<ApprovedPattern> reordered = new ArrayList<>(patterns);
+        reordered.sort(Comparator.comparingLong((ApprovedPattern pattern) -> hits.get(pattern)).reversed()
+                .thenComparingInt(ApprovedPattern::getBaseRank));
+        if (reordered.equals(patterns)) {
+            return this;
+        }
+        return new BankPatternSet(bankAddress, version, reordered, prefilter, automaton);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Project_V1.regex;
+
+/**
+ * CharSequence that aborts a running java.util.regex match once a deadline has passed.
+ *
+ * The regex engine reads its input through charAt(), including while backtracking, so checking
+ * the clock there bounds even a catastrophic pattern. The clock is only read every
+ * CHECK_INTERVAL calls to keep the overhead negligible. Not thread-safe: one instance per match.
+ */
+public final class DeadlineCharSequence implements CharSequence {
+
+    static final int CHECK_INTERVAL = 1024;
+
+    private final CharSequence text;
+    private final long deadlineNanos;
+    private int untilNextCheck = CHECK_INTERVAL;
+
+    public DeadlineCharSequence(CharSequence text, long deadlineNanos) {
+        this.text = text;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (--untilNextCheck == 0) {
+            untilNextCheck = CHECK_INTERVAL;
+            if (System.nanoTime() - deadlineNanos > 0) {
+                throw new RegexTimeoutException("Regex evaluation exceeded its time budget");
+            }
+        }
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        // Only used to materialise groups after a match, so no deadline is needed
+        return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
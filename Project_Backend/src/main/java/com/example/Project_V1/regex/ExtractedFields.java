@@ -0,0 +1,17 @@
+package com.example.Project_V1.regex;
+
+/**
+ * Field values read from one match by an ExtractionPlan; absent or blank groups are null
+ */
+public final class ExtractedFields {
+
+    private final String[] values;
+
+    ExtractedFields(String[] values) {
+        this.values = values;
+    }
+
+    public String get(ExtractionField field) {
+        return values[field.ordinal()];
+    }
+}
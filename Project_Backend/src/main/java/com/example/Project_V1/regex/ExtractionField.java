@@ -0,0 +1,25 @@
+package com.example.Project_V1.regex;
+
+/**
+ * The named groups a transaction regex may define
+ */
+public enum ExtractionField {
+    ACCOUNT_NUMBER("accountNumber"),
+    TRANSACTION_TYPE("transactionType"),
+    AMOUNT("amount"),
+    DATE("date"),
+    VIA("via"),
+    TO("to"),
+    AVAILABLE_BALANCE("availableBalance"),
+    REFERENCE_NUMBER("referenceNumber");
+
+    private final String groupName;
+
+    ExtractionField(String groupName) {
+        this.groupName = groupName;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.Project_V1.regex;
+
+import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+/**
+ * Precomputed group-index lookup for the transaction fields of one compiled pattern.
+ *
+ * Resolving the named groups once means extraction is a loop over group indices:
+ * no name lookups per match and no IllegalArgumentException for groups the pattern does not define.
+ */
+public final class ExtractionPlan {
+
+    private static final int ABSENT = -1;
+    private static final ExtractionField[] FIELDS = ExtractionField.values();
+
+    private final int[] groupIndexes;
+
+    private ExtractionPlan(int[] groupIndexes) {
+        this.groupIndexes = groupIndexes;
+    }
+
+    public static ExtractionPlan of(Pattern pattern) {
+        return of(pattern.namedGroups());
+    }
+
+    /**
+     * Build a plan from a group-name to group-index mapping
+     */
+    public static ExtractionPlan of(Map<String, Integer> namedGroups) {
+        int[] groupIndexes = new int[FIELDS.length];
+        for (ExtractionField field : FIELDS) {
+            Integer index = namedGroups.get(field.getGroupName());
+            groupIndexes[field.ordinal()] = index != null ? index : ABSENT;
+        }
+        return new ExtractionPlan(groupIndexes);
+    }
+
+    public boolean hasGroup(ExtractionField field) {
+        return groupIndexes[field.ordinal()] != ABSENT;
+    }
+
+    /**
+     * Read every defined field from a successful match. Blank values are returned as null, others trimmed.
+     */
+    public ExtractedFields extract(MatchResult matchResult) {
+        String[] values = new String[FIELDS.length];
+        for (int i = 0; i < groupIndexes.length; i++) {
+            int groupIndex = groupIndexes[i];
+            if (groupIndex == ABSENT) {
+                continue;
+            }
+            String value = matchResult.group(groupIndex);
+            values[i] = (value != null && !value.isBlank()) ? value.trim() : null;
+        }
+        return new ExtractedFields(values);
+    }
+}
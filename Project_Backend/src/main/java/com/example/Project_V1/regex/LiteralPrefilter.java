@@ -0,0 +1,61 @@
+package com.example.Project_V1.regex;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-bank prefilter: all required literals of a bank's approved patterns go into one Aho-Corasick
+ * automaton, so a single scan of the message tells which patterns could possibly match.
+ */
+public final class LiteralPrefilter {
+
+    private final AhoCorasickAutomaton automaton;
+    private final Map<ApprovedPattern, int[]> requiredLiteralIds = new IdentityHashMap<>();
+
+    public LiteralPrefilter(List<ApprovedPattern> patterns) {
+        Map<String, Integer> literalIds = new LinkedHashMap<>();
+        for (ApprovedPattern pattern : patterns) {
+            List<String> literals = pattern.getRequiredLiterals();
+            int[] ids = new int[literals.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = literalIds.computeIfAbsent(literals.get(i), literal -> literalIds.size());
+            }
+            requiredLiteralIds.put(pattern, ids);
+        }
+        this.automaton = new AhoCorasickAutomaton(new ArrayList<>(literalIds.keySet()));
+    }
+
+    public Candidates scan(String message) {
+        BitSet found = automaton.getKeywordCount() == 0 ? new BitSet() : automaton.scan(message);
+        return new Candidates(found);
+    }
+
+    /**
+     * Result of one scan: which patterns still need a full regex evaluation
+     */
+    public final class Candidates {
+        private final BitSet foundLiterals;
+
+        private Candidates(BitSet foundLiterals) {
+            this.foundLiterals = foundLiterals;
+        }
+
+        public boolean mayMatch(ApprovedPattern pattern) {
+            int[] ids = requiredLiteralIds.get(pattern);
+            if (ids == null) {
+                // Not part of this prefilter: never rule it out
+                return true;
+            }
+            for (int id : ids) {
+                if (!foundLiterals.get(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.Project_V1.regex;
+
+import java.util.regex.Pattern;
+
+/**
+ * Cheap template fingerprint of an SMS: what stays the same between two messages of one bank format.
+ *
+ * Digit runs (including grouped amounts like 1,250.00 and dates like 05-01-25 piece by piece) become '#',
+ * whitespace runs collapse to a single space and ASCII letters are lower-cased, so
+ * "INR 1,250.00 debited from A/c XX1234" and "INR 80.00 debited from A/c XX9876" share a fingerprint.
+ */
+public final class MessageFingerprint {
+
+    private static final Pattern QUANTIFIER_BOUNDS = Pattern.compile("(?<!\\\\)\\{[\\d,\\s]*}");
+
+    private MessageFingerprint() {
+    }
+
+    public static String of(String message) {
+        StringBuilder fingerprint = new StringBuilder(message.length());
+        int i = 0;
+        while (i < message.length()) {
+            char c = message.charAt(i);
+            if (AutomatonCompiler.isDigit(c)) {
+                fingerprint.append('#');
+                i++;
+                // Thousands separators and decimal points inside a number belong to the same run
+                while (i < message.length()) {
+                    char next = message.charAt(i);
+                    if (AutomatonCompiler.isDigit(next)) {
+                        i++;
+                    } else if ((next == ',' || next == '.') && i + 1 < message.length()
+                            && AutomatonCompiler.isDigit(message.charAt(i + 1))) {
+                        i += 2;
+                    } else {
+                        break;
+                    }
+                }
+            } else if (Character.isWhitespace(c)) {
+                fingerprint.append(' ');
+                while (i < message.length() && Character.isWhitespace(message.charAt(i))) {
+                    i++;
+                }
+            } else {
+                fingerprint.append(RequiredLiteralExtractor.toLowerAscii(c));
+                i++;
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Stricter, length-preserving key: every digit becomes '9' and nothing else changes.
+     * Used for no-match caching, where a false hit would drop a real transaction.
+     */
+    public static String digitMasked(String message) {
+        char[] masked = message.toCharArray();
+        for (int i = 0; i < masked.length; i++) {
+            if (AutomatonCompiler.isDigit(masked[i])) {
+                masked[i] = '9';
+            }
+        }
+        return new String(masked);
+    }
+
+    /**
+     * Whether a pattern can tell one digit from another (a literal digit or a partial digit range),
+     * in which case two messages with the same digitMasked() form may match differently.
+     * Backreferences compare digits too, so they count; quantifier bounds and the full 0-9 range do not.
+     */
+    public static boolean isDigitSensitive(String regex) {
+        if (regex.contains("\\k<")) {
+            return true;
+        }
+        String stripped = QUANTIFIER_BOUNDS.matcher(regex).replaceAll("").replace("0-9", "");
+        for (int i = 0; i < stripped.length(); i++) {
+            if (AutomatonCompiler.isDigit(stripped.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.dto.TransactionExtractionResultDto;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * Runs a message against a bank's approved patterns and extracts the transaction fields
+ * from the first pattern that matches.
+ *
+ * The bank's literal prefilter is consulted first, so full regex evaluation only runs on
+ * patterns whose required literals all occur in the message. When the bank has a
+ * MultiPatternAutomaton, all of its compatible patterns are evaluated together in one pass and
+ * only the remaining patterns go through java.util.regex; the snapshot's order still decides
+ * which match wins.
+ *
+ * java.util.regex evaluation runs under the RegexTimeoutGuard budget; a pattern that runs out of
+ * time counts as a no-match and the timeout is recorded against its id.
+ *
+ * Bank SMS are templated, so the pattern that matched a message's fingerprint is remembered in the
+ * MessageTemplateCache. A repeat of the template is tried against that one pattern first, and only
+ * falls back to the full scan if it no longer matches.
+ *
+ * When the full scan finds nothing, the message's digit-masked form is remembered as a known
+ * no-match for that pattern-set version, so repeats of forwarded OTP and promotional texts skip
+ * the scan entirely. Scans that hit a timeout, and sets whose patterns mention specific digits,
+ * are never cached as no-match.
+ */
+@Component
+public class MessageMatcher {
+
+    private final RegexTimeoutGuard timeoutGuard;
+    private final MessageTemplateCache templateCache;
+
+    public MessageMatcher(RegexTimeoutGuard timeoutGuard, MessageTemplateCache templateCache) {
+        this.timeoutGuard = timeoutGuard;
+        this.templateCache = templateCache;
+    }
+
+    /**
+     * Try each approved pattern in the snapshot's order until one matches
+     * @return extraction result; matchFound is false when no pattern matched
+     */
+    public TransactionExtractionResultDto match(BankPatternSet patternSet, String message) {
+        if (message == null) {
+            return noMatch(null);
+        }
+        String noMatchKey = patternSet.isDigitSensitive() ? null : MessageFingerprint.digitMasked(message);
+        if (noMatchKey != null && templateCache.isKnownNoMatch(patternSet, noMatchKey)) {
+            return noMatch(message);
+        }
+
+        String fingerprint = MessageFingerprint.of(message);
+        ApprovedPattern routed = patternSet.findById(templateCache.getMatchingPatternId(patternSet, fingerprint));
+        boolean timedOut = false;
+        if (routed != null) {
+            try {
+                TransactionExtractionResultDto result = toResult(message, routed, findMatch(message, routed));
+                if (result.isMatchFound()) {
+                    routed.recordHit();
+                    return result;
+                }
+            } catch (RegexTimeoutException e) {
+                // The scan below skips the routed pattern, so its timeout must still block no-match caching
+                timedOut = true;
+            }
+        }
+
+        LiteralPrefilter.Candidates candidates = patternSet.getPrefilter().scan(message);
+        MultiPatternAutomaton automaton = patternSet.getAutomaton();
+        MultiPatternAutomaton.Result automatonResult = null;
+        for (ApprovedPattern approvedPattern : patternSet.getPatterns()) {
+            if (approvedPattern == routed || !candidates.mayMatch(approvedPattern)) {
+                continue;
+            }
+            TransactionExtractionResultDto result;
+            if (automaton != null && automaton.supports(approvedPattern)) {
+                if (automatonResult == null) {
+                    automatonResult = automaton.run(message);
+                }
+                result = toResult(message, approvedPattern, automatonResult.matchFor(approvedPattern));
+            } else {
+                try {
+                    result = toResult(message, approvedPattern, findMatch(message, approvedPattern));
+                } catch (RegexTimeoutException e) {
+                    timedOut = true;
+                    continue;
+                }
+            }
+            if (result.isMatchFound()) {
+                approvedPattern.recordHit();
+                templateCache.recordMatch(patternSet, fingerprint, approvedPattern.getId());
+                return result;
+            }
+        }
+        if (noMatchKey != null && !timedOut) {
+            templateCache.recordNoMatch(patternSet, noMatchKey);
+        }
+        return noMatch(message);
+    }
+
+    /**
+     * Run one pattern through java.util.regex under the time budget
+     * @return the match, or null if the pattern does not match
+     * @throws RegexTimeoutException if the budget ran out; the timeout has already been recorded
+     */
+    private MatchResult findMatch(String message, ApprovedPattern approvedPattern) {
+        try {
+            Matcher matcher = approvedPattern.getPattern().matcher(timeoutGuard.guard(message));
+            return matcher.find() ? matcher : null;
+        } catch (RegexTimeoutException e) {
+            timeoutGuard.recordTimeout(approvedPattern.getId());
+            throw e;
+        } catch (Exception e) {
+            // Matching failed
+            return null;
+        }
+    }
+
+    /**
+     * Build the extraction result from a pattern's match; a null match means no match
+     */
+    private TransactionExtractionResultDto toResult(String message, ApprovedPattern approvedPattern, MatchResult match) {
+        TransactionExtractionResultDto result = new TransactionExtractionResultDto();
+        result.setOriginalMessage(message);
+        result.setRegexPatternId(approvedPattern.getId());
+
+        if (match != null) {
+            ExtractedFields fields = approvedPattern.getExtractionPlan().extract(match);
+            result.setMatchFound(true);
+            result.setAccountNumber(fields.get(ExtractionField.ACCOUNT_NUMBER));
+            result.setTransactionType(fields.get(ExtractionField.TRANSACTION_TYPE));
+            result.setAmount(fields.get(ExtractionField.AMOUNT));
+            result.setDate(fields.get(ExtractionField.DATE));
+            result.setVia(fields.get(ExtractionField.VIA));
+            result.setTo(fields.get(ExtractionField.TO));
+            result.setAvailableBalance(fields.get(ExtractionField.AVAILABLE_BALANCE));
+            result.setReferenceNumber(fields.get(ExtractionField.REFERENCE_NUMBER));
+        } else {
+            result.setMatchFound(false);
+        }
+        return result;
+    }
+
+    private TransactionExtractionResultDto noMatch(String message) {
+        TransactionExtractionResultDto result = new TransactionExtractionResultDto();
+        result.setOriginalMessage(message);
+        result.setMatchFound(false);
+        return result;
+    }
+}
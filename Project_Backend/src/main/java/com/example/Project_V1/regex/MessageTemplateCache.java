@@ -0,0 +1,171 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.dto.TemplateCacheStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded LRU cache from (bank, pattern-set version, message fingerprint) to the id of the
+ * approved pattern that matched that template last time.
+ *
+ * The same cache also remembers messages that matched no approved pattern, keyed by their
+ * digit-masked form, so repeats can be answered with matchFound=false without a scan.
+ *
+ * The pattern-set version is part of every key, so entries recorded against an older approved set
+ * can never be returned once the bank's set changes; they simply age out.
+ *
+ * Every lookup is also a write (it refreshes the entry's recency), so the cache is split into
+ * stripes by key hash, each an LRU map with its own lock and its share of the capacity. Parallel
+ * matching then rarely waits on the cache; eviction is least-recently-used within a stripe, which
+ * is close to global LRU for hashed keys.
+ */
+@Component
+public class MessageTemplateCache {
+
+    private static final Long NO_MATCH = -1L;
+    private static final int MAX_STRIPES = 16;
+
+    private final int maxSize;
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder noMatchHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MessageTemplateCache(@Value("${finance.regex.template-cache-size:10000}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Template cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.stripes = new Stripe[Math.min(MAX_STRIPES, maxSize)];
+        for (int i = 0; i < stripes.length; i++) {
+            // Spread the remainder so the stripes add up to maxSize exactly
+            stripes[i] = new Stripe(maxSize / stripes.length + (i < maxSize % stripes.length ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return id of the pattern that matched this template under this pattern-set version, or null
+     */
+    public Long getMatchingPatternId(BankPatternSet patternSet, String fingerprint) {
+        Long patternId = get(new CacheKey(patternSet.getBankAddress(), patternSet.getVersion(), fingerprint, false));
+        if (patternId != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return patternId;
+    }
+
+    public void recordMatch(BankPatternSet patternSet, String fingerprint, Long patternId) {
+        if (patternId == null) {
+            return;
+        }
+        put(new CacheKey(patternSet.getBankAddress(), patternSet.getVersion(), fingerprint, false), patternId);
+    }
+
+    /**
+     * @return true if a message with this digit-masked form matched nothing under this pattern-set version
+     */
+    public boolean isKnownNoMatch(BankPatternSet patternSet, String digitMaskedMessage) {
+        Long cached = get(new CacheKey(patternSet.getBankAddress(), patternSet.getVersion(), digitMaskedMessage, true));
+        if (cached != null) {
+            noMatchHits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void recordNoMatch(BankPatternSet patternSet, String digitMaskedMessage) {
+        put(new CacheKey(patternSet.getBankAddress(), patternSet.getVersion(), digitMaskedMessage, true), NO_MATCH);
+    }
+
+    public TemplateCacheStatsDto getStats() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return new TemplateCacheStatsDto(size, maxSize, hits.sum(), misses.sum(), noMatchHits.sum(), evictions.sum());
+    }
+
+    private Long get(CacheKey key) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    private void put(CacheKey key, Long value) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    private Stripe stripeFor(CacheKey key) {
+        int hash = key.hashCode();
+        // Mix the high bits in, as HashMap does, so similar keys still spread
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    /**
+     * One access-order LRU map; guarded by its own monitor
+     */
+    private final class Stripe extends LinkedHashMap<CacheKey, Long> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Long> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class CacheKey {
+        private final String bankAddress;
+        private final long version;
+        private final String fingerprint;
+        private final boolean noMatch;
+
+        private CacheKey(String bankAddress, long version, String fingerprint, boolean noMatch) {
+            this.bankAddress = bankAddress;
+            this.version = version;
+            this.fingerprint = fingerprint;
+            this.noMatch = noMatch;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey other)) {
+                return false;
+            }
+            return version == other.version
+                    && noMatch == other.noMatch
+                    && Objects.equals(bankAddress, other.bankAddress)
+                    && fingerprint.equals(other.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bankAddress, version, fingerprint, noMatch);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.example.Project_V1.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+
+/**
+ * All of a bank's automaton-compatible patterns compiled into one program and evaluated in a
+ * single left-to-right pass over the message (Pike VM / Thompson NFA simulation with capture slots).
+ *
+ * Work per character is bounded by the program size, so a message costs O(length x patterns)
+ * regardless of how the patterns are written - no backtracking, no catastrophic inputs.
+ * Each pattern keeps java.util.regex find() semantics: leftmost match, greedy/lazy preference
+ * and the same group numbering, so the pattern's ExtractionPlan applies to the result unchanged.
+ *
+ * Patterns the compiler cannot express are left out; supports() tells the caller to fall back to
+ * java.util.regex for those.
+ */
+public final class MultiPatternAutomaton {
+
+    private final int[] ops;
+    private final int[] args;
+    private final int[] args2;
+    private final AutomatonCompiler.CharClass[] classes;
+    private final int[] patternOf;
+    private final int[] startPc;
+    private final int[] slotCount;
+    private final Map<ApprovedPattern, Integer> indexOf;
+
+    private MultiPatternAutomaton(List<ApprovedPattern> compiled, List<AutomatonCompiler.Fragment> fragments) {
+        int totalSize = 0;
+        for (AutomatonCompiler.Fragment fragment : fragments) {
+            totalSize += fragment.size;
+        }
+        this.ops = new int[totalSize];
+        this.args = new int[totalSize];
+        this.args2 = new int[totalSize];
+        this.patternOf = new int[totalSize];
+        this.startPc = new int[fragments.size()];
+        this.slotCount = new int[fragments.size()];
+        this.indexOf = new IdentityHashMap<>();
+
+        List<AutomatonCompiler.CharClass> allClasses = new ArrayList<>();
+        int base = 0;
+        for (int k = 0; k < fragments.size(); k++) {
+            AutomatonCompiler.Fragment fragment = fragments.get(k);
+            int classBase = allClasses.size();
+            allClasses.addAll(fragment.classes);
+            startPc[k] = base;
+            slotCount[k] = 2 * (fragment.groupCount + 1);
+            indexOf.put(compiled.get(k), k);
+            for (int pc = 0; pc < fragment.size; pc++) {
+                int op = fragment.ops[pc];
+                int arg = fragment.args[pc];
+                int arg2 = fragment.args2[pc];
+                // Relocate jump targets and class references into the combined program
+                if (op == AutomatonCompiler.OP_SPLIT) {
+                    arg += base;
+                    arg2 += base;
+                } else if (op == AutomatonCompiler.OP_JMP) {
+                    arg += base;
+                } else if (op == AutomatonCompiler.OP_CLASS) {
+                    arg += classBase;
+                } else if (op == AutomatonCompiler.OP_MATCH) {
+                    arg = k;
+                }
+                ops[base + pc] = op;
+                args[base + pc] = arg;
+                args2[base + pc] = arg2;
+                patternOf[base + pc] = k;
+            }
+            base += fragment.size;
+        }
+        this.classes = allClasses.toArray(new AutomatonCompiler.CharClass[0]);
+    }
+
+    /**
+     * Compile every pattern the automaton can express; the rest are silently left to java.util.regex
+     */
+    public static MultiPatternAutomaton compile(List<ApprovedPattern> patterns) {
+        List<ApprovedPattern> compiled = new ArrayList<>();
+        List<AutomatonCompiler.Fragment> fragments = new ArrayList<>();
+        for (ApprovedPattern pattern : patterns) {
+            try {
+                fragments.add(AutomatonCompiler.compile(pattern.getSource()));
+                compiled.add(pattern);
+            } catch (UnsupportedRegexException e) {
+                // Falls back to java.util.regex
+            }
+        }
+        return new MultiPatternAutomaton(compiled, fragments);
+    }
+
+    public boolean supports(ApprovedPattern pattern) {
+        return indexOf.containsKey(pattern);
+    }
+
+    public int getPatternCount() {
+        return startPc.length;
+    }
+
+    public int getProgramSize() {
+        return ops.length;
+    }
+
+    /**
+     * Run every compiled pattern over the text in one pass
+     */
+    public Result run(String text) {
+        int patternCount = startPc.length;
+        int[][] matches = new int[patternCount][];
+        if (patternCount == 0) {
+            return new Result(text, matches);
+        }
+        int length = text.length();
+        ThreadList current = new ThreadList(ops.length);
+        ThreadList next = new ThreadList(ops.length);
+        Closure closure = new Closure(ops.length);
+        boolean[] cut = new boolean[patternCount];
+
+        for (int i = 0; i <= length; i++) {
+            // New start threads go last: lowest priority, and only for patterns that have not matched yet
+            boolean seeking = false;
+            for (int k = 0; k < patternCount; k++) {
+                if (matches[k] == null) {
+                    int[] caps = new int[slotCount[k]];
+                    Arrays.fill(caps, -1);
+                    closure.add(current, startPc[k], caps, text, i);
+                    seeking = true;
+                }
+            }
+            if (current.size == 0 && !seeking) {
+                break;
+            }
+            next.clear();
+            Arrays.fill(cut, false);
+            char c = i < length ? text.charAt(i) : 0;
+
+            for (int t = 0; t < current.size; t++) {
+                int pc = current.pcs[t];
+                int k = patternOf[pc];
+                if (cut[k]) {
+                    continue;
+                }
+                switch (ops[pc]) {
+                    case AutomatonCompiler.OP_MATCH:
+                        // Threads of this pattern after this one have lower priority - drop them
+                        matches[k] = current.caps[t];
+                        cut[k] = true;
+                        break;
+                    case AutomatonCompiler.OP_CHAR:
+                        if (i < length && RequiredLiteralExtractor.toLowerAscii(c) == args[pc]) {
+                            closure.add(next, pc + 1, current.caps[t], text, i + 1);
+                        }
+                        break;
+                    case AutomatonCompiler.OP_ANY:
+                        if (i < length && !isLineTerminator(c)) {
+                            closure.add(next, pc + 1, current.caps[t], text, i + 1);
+                        }
+                        break;
+                    case AutomatonCompiler.OP_CLASS:
+                        if (i < length && classes[args[pc]].matches(c)) {
+                            closure.add(next, pc + 1, current.caps[t], text, i + 1);
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected instruction in thread list: " + ops[pc]);
+                }
+            }
+            ThreadList swap = current;
+            current = next;
+            next = swap;
+        }
+        return new Result(text, matches);
+    }
+
+    /**
+     * Per-pattern outcome of a run
+     */
+    public final class Result {
+        private final String text;
+        private final int[][] matches;
+
+        private Result(String text, int[][] matches) {
+            this.text = text;
+            this.matches = matches;
+        }
+
+        /**
+         * @return the pattern's leftmost match, or null if it did not match (or is not compiled into the automaton)
+         */
+        public MatchResult matchFor(ApprovedPattern pattern) {
+            Integer k = indexOf.get(pattern);
+            if (k == null || matches[k] == null) {
+                return null;
+            }
+            return new AutomatonMatch(text, matches[k]);
+        }
+    }
+
+    /**
+     * Follows epsilon transitions (jumps, splits, saves, assertions) in priority order and
+     * appends the reachable consuming instructions to a thread list
+     */
+    private final class Closure {
+        private final int[] pcStack;
+        private final int[][] capStack;
+
+        Closure(int programSize) {
+            // Every pc is expanded at most once per list and pushes at most two successors
+            this.pcStack = new int[2 * programSize + 1];
+            this.capStack = new int[2 * programSize + 1][];
+        }
+
+        void add(ThreadList list, int startPc, int[] startCaps, String text, int position) {
+            int top = 0;
+            pcStack[top] = startPc;
+            capStack[top] = startCaps;
+            top++;
+            while (top > 0) {
+                top--;
+                int pc = pcStack[top];
+                int[] caps = capStack[top];
+                capStack[top] = null;
+                if (!list.visit(pc)) {
+                    continue;
+                }
+                switch (ops[pc]) {
+                    case AutomatonCompiler.OP_JMP:
+                        pcStack[top] = args[pc];
+                        capStack[top++] = caps;
+                        break;
+                    case AutomatonCompiler.OP_SPLIT:
+                        // Push the lower-priority branch first so the preferred one is expanded first
+                        pcStack[top] = args2[pc];
+                        capStack[top++] = caps;
+                        pcStack[top] = args[pc];
+                        capStack[top++] = caps;
+                        break;
+                    case AutomatonCompiler.OP_SAVE: {
+                        int[] updated = caps.clone();
+                        updated[args[pc]] = position;
+                        pcStack[top] = pc + 1;
+                        capStack[top++] = updated;
+                        break;
+                    }
+                    case AutomatonCompiler.OP_ASSERT:
+                        if (assertionHolds(args[pc], text, position)) {
+                            pcStack[top] = pc + 1;
+                            capStack[top++] = caps;
+                        }
+                        break;
+                    default:
+                        list.add(pc, caps);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ordered thread list plus a generation-stamped visited set for the closure
+     */
+    private static final class ThreadList {
+        final int[] pcs;
+        final int[][] caps;
+        int size;
+        private final int[] visitedGeneration;
+        private int generation = 1;
+
+        ThreadList(int programSize) {
+            this.pcs = new int[programSize];
+            this.caps = new int[programSize][];
+            this.visitedGeneration = new int[programSize];
+        }
+
+        boolean visit(int pc) {
+            if (visitedGeneration[pc] == generation) {
+                return false;
+            }
+            visitedGeneration[pc] = generation;
+            return true;
+        }
+
+        void add(int pc, int[] threadCaps) {
+            pcs[size] = pc;
+            caps[size] = threadCaps;
+            size++;
+        }
+
+        void clear() {
+            Arrays.fill(caps, 0, size, null);
+            size = 0;
+            generation++;
+        }
+    }
+
+    private static boolean assertionHolds(int kind, String text, int position) {
+        int length = text.length();
+        switch (kind) {
+            case AutomatonCompiler.ASSERT_BEGIN:
+                return position == 0;
+            case AutomatonCompiler.ASSERT_END_ABSOLUTE:
+                return position == length;
+            case AutomatonCompiler.ASSERT_END:
+                // java.util.regex '$' without MULTILINE: end of input or before a final line terminator
+                if (position == length) {
+                    return true;
+                }
+                if (position == length - 1) {
+                    char last = text.charAt(position);
+                    if (last == '\n' && position > 0 && text.charAt(position - 1) == '\r') {
+                        return false;
+                    }
+                    return isLineTerminator(last);
+                }
+                return position == length - 2 && text.charAt(position) == '\r' && text.charAt(position + 1) == '\n';
+            case AutomatonCompiler.ASSERT_WORD_BOUNDARY:
+                return isWordBoundary(text, position);
+            case AutomatonCompiler.ASSERT_NOT_WORD_BOUNDARY:
+                return !isWordBoundary(text, position);
+            default:
+                throw new IllegalStateException("Unknown assertion: " + kind);
+        }
+    }
+
+    private static boolean isWordBoundary(String text, int position) {
+        boolean before = position > 0 && isBoundaryWordChar(text.charAt(position - 1));
+        boolean after = position < text.length() && isBoundaryWordChar(text.charAt(position));
+        return before != after;
+    }
+
+    private static boolean isBoundaryWordChar(char c) {
+        // Since JDK 19, \b without UNICODE_CHARACTER_CLASS uses the same ASCII word characters as \w
+        return AutomatonCompiler.isWordChar(c);
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Capture slots of one pattern's match exposed as a MatchResult
+     */
+    private static final class AutomatonMatch implements MatchResult {
+        private final String text;
+        private final int[] slots;
+
+        AutomatonMatch(String text, int[] slots) {
+            this.text = text;
+            this.slots = slots;
+        }
+
+        @Override
+        public int start() {
+            return start(0);
+        }
+
+        @Override
+        public int start(int group) {
+            checkGroup(group);
+            return slots[2 * group];
+        }
+
+        @Override
+        public int end() {
+            return end(0);
+        }
+
+        @Override
+        public int end(int group) {
+            checkGroup(group);
+            return slots[2 * group + 1];
+        }
+
+        @Override
+        public String group() {
+            return group(0);
+        }
+
+        @Override
+        public String group(int group) {
+            checkGroup(group);
+            int start = slots[2 * group];
+            int end = slots[2 * group + 1];
+            if (start < 0 || end < 0) {
+                return null;
+            }
+            return text.substring(start, end);
+        }
+
+        @Override
+        public int groupCount() {
+            return slots.length / 2 - 1;
+        }
+
+        private void checkGroup(int group) {
+            if (group < 0 || group > groupCount()) {
+                throw new IndexOutOfBoundsException("No group " + group);
+            }
+        }
+    }
+}
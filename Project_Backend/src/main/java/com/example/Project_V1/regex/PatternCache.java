@@ -0,0 +1,100 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.dto.PatternCacheStatsDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Size-bounded LRU cache of compiled java.util.regex.Pattern instances keyed by pattern text and flags.
+ * Shared by transaction extraction and the regex playground so a pattern string is compiled once.
+ */
+@Component
+public class PatternCache {
+
+    private final int maxSize;
+    private final Map<CacheKey, Pattern> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PatternCache(@Value("${finance.regex.pattern-cache-size:1000}") int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pattern cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Pattern> eldest) {
+                if (size() > PatternCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a compiled pattern, compiling and caching it on first use.
+     * Throws PatternSyntaxException for invalid patterns; failures are not cached.
+     */
+    public Pattern compile(String regex, int flags) {
+        CacheKey key = new CacheKey(regex, flags);
+        Pattern cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        // Compile outside the lock so a slow compile does not block other lookups
+        Pattern compiled = Pattern.compile(regex, flags);
+        synchronized (cache) {
+            Pattern existing = cache.putIfAbsent(key, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    public PatternCacheStatsDto getStats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        return new PatternCacheStatsDto(size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static final class CacheKey {
+        private final String regex;
+        private final int flags;
+
+        private CacheKey(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey other)) {
+                return false;
+            }
+            return flags == other.flags && regex.equals(other.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(regex, flags);
+        }
+    }
+}
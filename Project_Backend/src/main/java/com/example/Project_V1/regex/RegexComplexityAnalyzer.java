@@ -0,0 +1,415 @@
+package com.example.Project_V1.regex;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Flags catastrophic-backtracking hazards in a candidate pattern before it can be approved.
+ *
+ * Two passes: a structural scan for nested unbounded quantifiers, quantified alternations whose
+ * branches can start with the same character, and multiple unbounded .* / .+ runs; then the
+ * compiled pattern is timed against generated inputs that pump each character the pattern
+ * mentions and end in a character nothing matches, which is where backtracking blows up.
+ *
+ * Probe cost is measured in characters read by the engine, which is deterministic (wall-clock time
+ * on a cold JVM is not). A probe that reads more than finance.regex.analysis-max-steps characters,
+ * or runs past finance.regex.analysis-budget-ms, marks the pattern as timed out.
+ */
+@Component
+public class RegexComplexityAnalyzer {
+
+    static final int SHORT_PROBE_LENGTH = 28;
+    static final int LONG_PROBE_LENGTH = 1024;
+    private static final int MAX_PUMPS = 16;
+    private static final String FAILING_SUFFIX = "\u0001";
+    private static final String SAMPLE_CHARS = "abcdefghijklmnopqrstuvwxyz0123456789 _.,-/:@*#";
+
+    private static final int NESTED_QUANTIFIER_POINTS = 40;
+    private static final int OVERLAPPING_ALTERNATION_POINTS = 30;
+    private static final int UNBOUNDED_DOT_POINTS = 15;
+    private static final int MAX_TIMING_POINTS = 60;
+
+    private final long maxSteps;
+    private final long budgetNanos;
+
+    public RegexComplexityAnalyzer(@Value("${finance.regex.analysis-max-steps:2000000}") long maxSteps,
+                                   @Value("${finance.regex.analysis-budget-ms:500}") long budgetMs) {
+        if (maxSteps <= 0 || budgetMs <= 0) {
+            throw new IllegalArgumentException("Regex analysis budgets must be positive");
+        }
+        this.maxSteps = maxSteps;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMs);
+    }
+
+    /**
+     * Analyze a pattern that has already compiled successfully
+     */
+    public RegexComplexityReport analyze(String source, Pattern compiled) {
+        List<String> warnings = new ArrayList<>();
+        int score = scanStructure(source, warnings);
+
+        long worstNanos = 0;
+        long worstSteps = 0;
+        for (String pump : pumps(source)) {
+            for (int length : new int[]{SHORT_PROBE_LENGTH, LONG_PROBE_LENGTH}) {
+                String probe = pump.repeat(Math.max(1, length / pump.length())) + FAILING_SUFFIX;
+                long started = System.nanoTime();
+                StepCountingCharSequence input = new StepCountingCharSequence(probe, maxSteps, started + budgetNanos);
+                boolean timedOut = false;
+                try {
+                    compiled.matcher(input).find();
+                } catch (RegexTimeoutException e) {
+                    timedOut = true;
+                }
+                worstNanos = Math.max(worstNanos, System.nanoTime() - started);
+                worstSteps = Math.max(worstSteps, input.steps);
+                if (timedOut) {
+                    warnings.add("Matching '" + printable(pump) + "' x" + length + " exceeded the analysis budget");
+                    return new RegexComplexityReport(100, warnings, TimeUnit.NANOSECONDS.toMicros(worstNanos), true);
+                }
+            }
+        }
+        score += (int) Math.min(MAX_TIMING_POINTS, worstSteps * MAX_TIMING_POINTS / maxSteps);
+        return new RegexComplexityReport(Math.min(100, score), warnings, TimeUnit.NANOSECONDS.toMicros(worstNanos), false);
+    }
+
+    // ---------------------------------------------------------------- structural scan
+
+    private static final class GroupFrame {
+        final int start;
+        boolean containsUnbounded;
+        final List<String> firstAtoms = new ArrayList<>();
+        boolean atAlternativeStart = true;
+
+        GroupFrame(int start) {
+            this.start = start;
+            firstAtoms.add(null);
+        }
+
+        void atom(String atomSource) {
+            if (atAlternativeStart) {
+                firstAtoms.set(firstAtoms.size() - 1, atomSource);
+                atAlternativeStart = false;
+            }
+        }
+    }
+
+    /**
+     * @return structural points; one warning is added per hazard kind found
+     */
+    private int scanStructure(String source, List<String> warnings) {
+        Deque<GroupFrame> frames = new ArrayDeque<>();
+        frames.push(new GroupFrame(0));
+        Integer nestedAt = null;
+        Integer overlappingAt = null;
+        int unboundedDots = 0;
+
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            GroupFrame frame = frames.peek();
+            int atomEnd;
+            switch (c) {
+                case '(': {
+                    int bodyStart = groupBodyStart(source, i);
+                    if (bodyStart < 0) {
+                        // Inline flags such as (?i) are not atoms
+                        i = source.indexOf(')', i) + 1;
+                        continue;
+                    }
+                    frames.push(new GroupFrame(i));
+                    i = bodyStart;
+                    continue;
+                }
+                case ')': {
+                    if (frames.size() == 1) {
+                        return 0;
+                    }
+                    GroupFrame group = frames.pop();
+                    GroupFrame parent = frames.peek();
+                    parent.atom(null);
+                    int[] quantifier = quantifierAt(source, i + 1);
+                    boolean unbounded = quantifier[1] == 1;
+                    boolean repeats = quantifier[2] == 1;
+                    if (unbounded && group.containsUnbounded && nestedAt == null) {
+                        nestedAt = group.start;
+                    }
+                    if (repeats && overlappingAt == null && alternativesOverlap(group.firstAtoms)) {
+                        overlappingAt = group.start;
+                    }
+                    parent.containsUnbounded |= group.containsUnbounded || unbounded;
+                    i = i + 1 + quantifier[0];
+                    continue;
+                }
+                case '|':
+                    frame.firstAtoms.add(null);
+                    frame.atAlternativeStart = true;
+                    i++;
+                    continue;
+                case '^':
+                case '$':
+                    i++;
+                    continue;
+                case '[':
+                    atomEnd = classEnd(source, i);
+                    break;
+                case '\\':
+                    atomEnd = escapeEnd(source, i);
+                    break;
+                default:
+                    atomEnd = i + 1;
+                    break;
+            }
+            String atomSource = source.substring(i, Math.min(atomEnd, source.length()));
+            frame.atom(atomSource);
+            int[] quantifier = quantifierAt(source, atomEnd);
+            if (quantifier[1] == 1) {
+                frame.containsUnbounded = true;
+                if (c == '.') {
+                    unboundedDots++;
+                }
+            }
+            i = atomEnd + quantifier[0];
+        }
+
+        int score = 0;
+        if (nestedAt != null) {
+            warnings.add("Nested unbounded quantifier in the group at index " + nestedAt
+                    + " can backtrack exponentially");
+            score += NESTED_QUANTIFIER_POINTS;
+        }
+        if (overlappingAt != null) {
+            warnings.add("Repeated alternation at index " + overlappingAt
+                    + " has branches that can start with the same character");
+            score += OVERLAPPING_ALTERNATION_POINTS;
+        }
+        if (unboundedDots >= 2) {
+            warnings.add(unboundedDots + " unbounded .* / .+ runs can backtrack polynomially against each other");
+            score += UNBOUNDED_DOT_POINTS;
+        }
+        return score;
+    }
+
+    /**
+     * @return index of the first body character, or -1 for an inline flag group like (?i)
+     */
+    private static int groupBodyStart(String source, int open) {
+        int i = open + 1;
+        if (i >= source.length() || source.charAt(i) != '?') {
+            return i;
+        }
+        i++;
+        if (source.startsWith("<=", i) || source.startsWith("<!", i)) {
+            return i + 2;
+        }
+        if (i < source.length() && source.charAt(i) == '<') {
+            return source.indexOf('>', i) + 1;
+        }
+        if (i < source.length() && ":=!>".indexOf(source.charAt(i)) >= 0) {
+            return i + 1;
+        }
+        // Flags: (?i) or (?i:...)
+        while (i < source.length() && source.charAt(i) != ':' && source.charAt(i) != ')') {
+            i++;
+        }
+        return i < source.length() && source.charAt(i) == ':' ? i + 1 : -1;
+    }
+
+    /**
+     * @return {length, unbounded (0/1), can repeat more than once (0/1)} for the quantifier at index
+     */
+    private static int[] quantifierAt(String source, int index) {
+        if (index >= source.length()) {
+            return new int[]{0, 0, 0};
+        }
+        int length;
+        boolean unbounded;
+        boolean repeats;
+        char c = source.charAt(index);
+        if (c == '*' || c == '+') {
+            length = 1;
+            unbounded = true;
+            repeats = true;
+        } else if (c == '?') {
+            length = 1;
+            unbounded = false;
+            repeats = false;
+        } else if (c == '{') {
+            int close = source.indexOf('}', index);
+            if (close < 0) {
+                return new int[]{0, 0, 0};
+            }
+            String[] bounds = source.substring(index + 1, close).split(",", -1);
+            length = close - index + 1;
+            unbounded = bounds.length > 1 && bounds[1].isBlank();
+            repeats = unbounded || parseBound(bounds[bounds.length - 1]) > 1;
+        } else {
+            return new int[]{0, 0, 0};
+        }
+        // Lazy and possessive suffixes
+        if (index + length < source.length() && "?+".indexOf(source.charAt(index + length)) >= 0) {
+            length++;
+        }
+        return new int[]{length, unbounded ? 1 : 0, repeats ? 1 : 0};
+    }
+
+    private static int parseBound(String bound) {
+        try {
+            return Integer.parseInt(bound.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int classEnd(String source, int open) {
+        int i = open + 1;
+        if (i < source.length() && source.charAt(i) == '^') {
+            i++;
+        }
+        if (i < source.length() && source.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return source.length();
+    }
+
+    private static int escapeEnd(String source, int backslash) {
+        int i = backslash + 1;
+        if (i >= source.length()) {
+            return source.length();
+        }
+        char c = source.charAt(i);
+        if (c == 'Q') {
+            int end = source.indexOf("\\E", i);
+            return end < 0 ? source.length() : end + 2;
+        }
+        if ((c == 'p' || c == 'P' || c == 'x' || c == 'N') && i + 1 < source.length() && source.charAt(i + 1) == '{') {
+            return Math.max(i + 1, source.indexOf('}', i) + 1);
+        }
+        if (c == 'k' && i + 1 < source.length() && source.charAt(i + 1) == '<') {
+            return Math.max(i + 1, source.indexOf('>', i) + 1);
+        }
+        if (c == 'x') {
+            return Math.min(source.length(), i + 3);
+        }
+        if (c == 'u') {
+            return Math.min(source.length(), i + 5);
+        }
+        return i + 1;
+    }
+
+    /**
+     * Two branches overlap if some sample character can start both of them
+     */
+    private static boolean alternativesOverlap(List<String> firstAtoms) {
+        List<Pattern> starts = new ArrayList<>();
+        for (String atom : firstAtoms) {
+            if (atom == null) {
+                continue;
+            }
+            try {
+                starts.add(Pattern.compile(atom, Pattern.CASE_INSENSITIVE));
+            } catch (PatternSyntaxException e) {
+                // Not a standalone atom (e.g. \1); ignore it
+            }
+        }
+        for (int a = 0; a < starts.size(); a++) {
+            for (int b = a + 1; b < starts.size(); b++) {
+                for (int s = 0; s < SAMPLE_CHARS.length(); s++) {
+                    String sample = String.valueOf(SAMPLE_CHARS.charAt(s));
+                    if (starts.get(a).matcher(sample).matches() && starts.get(b).matcher(sample).matches()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // ---------------------------------------------------------------- adversarial inputs
+
+    /**
+     * Strings to repeat: every plain character the pattern mentions plus a few generic shapes
+     */
+    private static Set<String> pumps(String source) {
+        Set<String> pumps = new LinkedHashSet<>(List.of("a", "1", " ", "a ", "1,"));
+        for (int i = 0; i < source.length() && pumps.size() < MAX_PUMPS; i++) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i++;
+                continue;
+            }
+            if (c < 128 && (Character.isLetterOrDigit(c) || ",/:-@# ".indexOf(c) >= 0)) {
+                pumps.add(String.valueOf(Character.toLowerCase(c)));
+            }
+        }
+        return pumps;
+    }
+
+    private static String printable(String pump) {
+        return pump.replace(" ", "\\s");
+    }
+
+    /**
+     * Counts every character the regex engine reads and aborts past the step or time budget
+     */
+    private static final class StepCountingCharSequence implements CharSequence {
+        private final String text;
+        private final long maxSteps;
+        private final long deadlineNanos;
+        long steps;
+
+        StepCountingCharSequence(String text, long maxSteps, long deadlineNanos) {
+            this.text = text;
+            this.maxSteps = maxSteps;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++steps > maxSteps
+                    || (steps % DeadlineCharSequence.CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0)) {
+                throw new RegexTimeoutException("Regex analysis exceeded its budget");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
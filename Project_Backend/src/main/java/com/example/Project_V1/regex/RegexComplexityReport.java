@@ -0,0 +1,24 @@
+package com.example.Project_V1.regex;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of RegexComplexityAnalyzer for one pattern.
+ * Score runs from 0 (no hazards, fast on every probe) to 100 (timed out).
+ */
+@Getter
+public class RegexComplexityReport {
+    private final int score;
+    private final List<String> warnings;
+    private final long worstCaseMatchMicros;
+    private final boolean timedOut;
+
+    public RegexComplexityReport(int score, List<String> warnings, long worstCaseMatchMicros, boolean timedOut) {
+        this.score = score;
+        this.warnings = List.copyOf(warnings);
+        this.worstCaseMatchMicros = worstCaseMatchMicros;
+        this.timedOut = timedOut;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.Project_V1.regex;
+
+/**
+ * Thrown from inside a regex evaluation once its time budget has been spent
+ */
+public class RegexTimeoutException extends RuntimeException {
+    public RegexTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.Project_V1.regex;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-match time budget for java.util.regex evaluation, plus a count of timeouts per pattern id.
+ *
+ * A single backtracking-heavy pattern would otherwise pin a request thread indefinitely;
+ * with the guard, the match is abandoned after finance.regex.match-timeout-ms and treated as a no-match.
+ */
+@Component
+public class RegexTimeoutGuard {
+
+    private final long timeoutNanos;
+    private final Map<Long, LongAdder> timeouts = new ConcurrentHashMap<>();
+
+    public RegexTimeoutGuard(@Value("${finance.regex.match-timeout-ms:100}") long timeoutMs) {
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("Regex match timeout must be positive");
+        }
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    /**
+     * Wrap the input for one match; the budget starts now
+     */
+    public CharSequence guard(CharSequence text) {
+        return new DeadlineCharSequence(text, System.nanoTime() + timeoutNanos);
+    }
+
+    /**
+     * Record that a pattern ran out of time
+     */
+    public void recordTimeout(Long patternId) {
+        if (patternId != null) {
+            timeouts.computeIfAbsent(patternId, id -> new LongAdder()).increment();
+        }
+    }
+
+    public long getTimeouts(Long patternId) {
+        LongAdder counter = timeouts.get(patternId);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Timeout counts by pattern id, sorted by id
+     */
+    public Map<Long, Long> getTimeoutCounts() {
+        Map<Long, Long> counts = new TreeMap<>();
+        timeouts.forEach((patternId, counter) -> counts.put(patternId, counter.sum()));
+        return counts;
+    }
+}
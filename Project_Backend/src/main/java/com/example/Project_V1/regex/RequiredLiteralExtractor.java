@@ -0,0 +1,270 @@
+package com.example.Project_V1.regex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls the literal substrings a regex requires in every match (e.g. "debited from a/c", "avl bal").
+ *
+ * The analysis is deliberately conservative: only top-level literal runs are used, anything inside
+ * groups or character classes is skipped, and a top-level alternation yields no literals at all.
+ * A pattern with no literals is always treated as a candidate, so the prefilter can never hide a match.
+ * Literals are returned ASCII-lowercased to line up with the case-insensitive matching of approved patterns.
+ */
+public final class RequiredLiteralExtractor {
+
+    static final int MIN_LITERAL_LENGTH = 3;
+    static final int MAX_LITERALS = 8;
+
+    private static final Pattern COMMENTS_FLAG = Pattern.compile("\\(\\?[a-zA-Z-]*x");
+
+    private RequiredLiteralExtractor() {
+    }
+
+    public static List<String> extract(String regex) {
+        if (regex == null || regex.contains("\\Q") || COMMENTS_FLAG.matcher(regex).find()) {
+            return List.of();
+        }
+        if (hasTopLevelAlternation(regex)) {
+            return List.of();
+        }
+
+        Set<String> literals = new LinkedHashSet<>();
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+        int length = regex.length();
+        while (i < length) {
+            char c = regex.charAt(i);
+            int literal = -1;
+            int next;
+            switch (c) {
+                case '\\' -> {
+                    next = skipEscape(regex, i);
+                    char escaped = i + 1 < length ? regex.charAt(i + 1) : 0;
+                    literal = escapedLiteral(escaped);
+                }
+                case '[' -> next = skipCharClass(regex, i);
+                case '(' -> next = skipGroup(regex, i);
+                case '.', '^', '$', '{', '*', '+', '?', ')', '|' -> next = i + 1;
+                default -> {
+                    next = i + 1;
+                    literal = c;
+                }
+            }
+
+            boolean quantified = next < length && isQuantifierStart(regex, next);
+            int quantifierMin = 1;
+            if (quantified) {
+                quantifierMin = quantifierMin(regex, next);
+                next = skipQuantifier(regex, next);
+            }
+
+            if (literal >= 0 && literal < 128) {
+                if (quantifierMin > 0) {
+                    run.append(toLowerAscii((char) literal));
+                }
+                if (quantified) {
+                    // A quantified atom ends the run: what follows is not adjacent to what came before
+                    flush(run, literals);
+                }
+            } else {
+                // Non-ASCII literals are dropped so UNICODE_CASE folding can never defeat the ASCII-folded scan
+                flush(run, literals);
+            }
+            i = next;
+        }
+        flush(run, literals);
+
+        List<String> result = new ArrayList<>(literals);
+        result.sort(Comparator.comparingInt(String::length).reversed());
+        return result.size() > MAX_LITERALS ? List.copyOf(result.subList(0, MAX_LITERALS)) : List.copyOf(result);
+    }
+
+    static char toLowerAscii(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static void flush(StringBuilder run, Set<String> literals) {
+        if (run.length() >= MIN_LITERAL_LENGTH) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    /**
+     * The literal character an escape stands for, or -1 if it is a class, anchor or reference
+     */
+    private static int escapedLiteral(char escaped) {
+        return switch (escaped) {
+            case 't' -> '\t';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 'f' -> '\f';
+            default -> Character.isLetterOrDigit(escaped) || escaped == 0 ? -1 : escaped;
+        };
+    }
+
+    private static int skipEscape(String regex, int i) {
+        int length = regex.length();
+        if (i + 1 >= length) {
+            return length;
+        }
+        char escaped = regex.charAt(i + 1);
+        int next = i + 2;
+        switch (escaped) {
+            case 'p', 'P', 'x', 'N' -> {
+                if (next < length && regex.charAt(next) == '{') {
+                    int close = regex.indexOf('}', next);
+                    return close < 0 ? length : close + 1;
+                }
+                return escaped == 'x' ? Math.min(length, next + 2) : Math.min(length, next + 1);
+            }
+            case 'u' -> {
+                return Math.min(length, next + 4);
+            }
+            case 'c' -> {
+                return Math.min(length, next + 1);
+            }
+            case 'k' -> {
+                int close = regex.indexOf('>', next);
+                return close < 0 ? length : close + 1;
+            }
+            case '0' -> {
+                while (next < length && next < i + 5 && regex.charAt(next) >= '0' && regex.charAt(next) <= '7') {
+                    next++;
+                }
+                return next;
+            }
+            default -> {
+                if (escaped >= '1' && escaped <= '9') {
+                    while (next < length && Character.isDigit(regex.charAt(next))) {
+                        next++;
+                    }
+                }
+                return next;
+            }
+        }
+    }
+
+    private static int skipCharClass(String regex, int i) {
+        int length = regex.length();
+        int depth = 0;
+        int j = i;
+        while (j < length) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                j = skipEscape(regex, j);
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // A ']' right after the opening bracket (or after '^') is a literal member
+                if (j + 1 < length && regex.charAt(j + 1) == '^') {
+                    j++;
+                }
+                if (j + 1 < length && regex.charAt(j + 1) == ']') {
+                    j++;
+                }
+            } else if (c == ']') {
+                depth--;
+                if (depth == 0) {
+                    return j + 1;
+                }
+            }
+            j++;
+        }
+        return length;
+    }
+
+    private static int skipGroup(String regex, int i) {
+        int length = regex.length();
+        int depth = 0;
+        int j = i;
+        while (j < length) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                j = skipEscape(regex, j);
+                continue;
+            }
+            if (c == '[') {
+                j = skipCharClass(regex, j);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return j + 1;
+                }
+            }
+            j++;
+        }
+        return length;
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int length = regex.length();
+        int i = 0;
+        while (i < length) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regex, i);
+            } else if (c == '[') {
+                i = skipCharClass(regex, i);
+            } else if (c == '(') {
+                i = skipGroup(regex, i);
+            } else if (c == '|') {
+                return true;
+            } else {
+                i++;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isQuantifierStart(String regex, int i) {
+        char c = regex.charAt(i);
+        if (c == '*' || c == '+' || c == '?') {
+            return true;
+        }
+        return c == '{' && i + 1 < regex.length() && Character.isDigit(regex.charAt(i + 1));
+    }
+
+    private static int quantifierMin(String regex, int i) {
+        char c = regex.charAt(i);
+        if (c == '+') {
+            return 1;
+        }
+        if (c == '*' || c == '?') {
+            return 0;
+        }
+        int j = i + 1;
+        int min = 0;
+        while (j < regex.length() && Character.isDigit(regex.charAt(j))) {
+            min = Math.min(min * 10 + (regex.charAt(j) - '0'), 1000);
+            j++;
+        }
+        return min;
+    }
+
+    private static int skipQuantifier(String regex, int i) {
+        int length = regex.length();
+        int j = i;
+        if (regex.charAt(j) == '{') {
+            int close = regex.indexOf('}', j);
+            j = close < 0 ? length : close + 1;
+        } else {
+            j++;
+        }
+        // Lazy or possessive suffix
+        if (j < length && (regex.charAt(j) == '?' || regex.charAt(j) == '+')) {
+            j++;
+        }
+        return j;
+    }
+}
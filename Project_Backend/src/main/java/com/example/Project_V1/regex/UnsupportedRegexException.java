@@ -0,0 +1,11 @@
+package com.example.Project_V1.regex;
+
+/**
+ * Thrown when a pattern uses a construct the linear-time automaton cannot express
+ * (backreferences, lookaround, possessive quantifiers, ...). Such patterns fall back to java.util.regex.
+ */
+public class UnsupportedRegexException extends RuntimeException {
+    public UnsupportedRegexException(String message) {
+        super(message);
+    }
+}
@@ -2,9 +2,12 @@ package com.example.Project_V1.repository;
 
 import com.example.Project_V1.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,6 +33,13 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     
     // Find by reference number (useful for duplicate detection)
     List<Transaction> findByReferenceNumberAndUserId(String referenceNumber, Long userId);
+
+    // Stored transactions among the given dedup keys (checked only when the dedup filter cannot rule them out)
+    List<Transaction> findByUserIdAndDedupKeyIn(Long userId, Collection<String> dedupKeys);
+
+    // Every dedup key of a user, to build the user's dedup filter
+    @Query("select t.dedupKey from Transaction t where t.user.id = :userId and t.dedupKey is not null")
+    List<String> findDedupKeysByUserId(@Param("userId") Long userId);
     
     // Find transactions by user and bank address
     List<Transaction> findByUserIdAndBankAddressOrderByCreatedAtDesc(Long userId, String bankAddress);
@@ -0,0 +1,148 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.ingest.BulkIngestExecutor;
+import com.example.Project_V1.ingest.MappedMessageFile;
+import com.example.Project_V1.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Imports a large SMS export uploaded as a file. The upload is spooled to finance.ingest.spool-dir,
+ * memory-mapped and indexed (see MappedMessageFile), then run as a bulk ingest job.
+ *
+ * The job reads the file in ranges of finance.ingest.import-range-size records. Ranges are parsed
+ * on the bulk worker pool, one range per worker at a time, and each parsed batch goes through the
+ * normal bulk pipeline, so matching and the chunked batch writes stay parallel too. The spooled file
+ * is deleted when the job ends.
+ */
+@Service
+public class BulkFileImportService {
+
+    private final BulkIngestJobService bulkIngestJobService;
+    private final BulkIngestExecutor bulkIngestExecutor;
+    private final UserRepository userRepository;
+    private final JsonMapper jsonMapper;
+    private final int rangeSize;
+    private final Path spoolDirectory;
+
+    public BulkFileImportService(BulkIngestJobService bulkIngestJobService,
+                                 BulkIngestExecutor bulkIngestExecutor,
+                                 UserRepository userRepository,
+                                 JsonMapper jsonMapper,
+                                 @Value("${finance.ingest.import-range-size:1000}") int rangeSize,
+                                 @Value("${finance.ingest.spool-dir:${java.io.tmpdir}}") String spoolDirectory) {
+        if (rangeSize <= 0) {
+            throw new IllegalArgumentException("Import range size must be positive");
+        }
+        this.bulkIngestJobService = bulkIngestJobService;
+        this.bulkIngestExecutor = bulkIngestExecutor;
+        this.userRepository = userRepository;
+        this.jsonMapper = jsonMapper;
+        this.rangeSize = rangeSize;
+        this.spoolDirectory = Path.of(spoolDirectory);
+    }
+
+    /**
+     * Spool and index the file, then submit it as a job.
+     *
+     * @throws IllegalArgumentException for an unknown user, an empty file, or a file that is not a list of message objects
+     */
+    public BulkIngestJobDto importFile(Long userId, MultipartFile file) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found with id: " + userId);
+        }
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("An import file is required");
+        }
+
+        Files.createDirectories(spoolDirectory);
+        Path spooled = Files.createTempFile(spoolDirectory, "bulk-import-", ".json");
+        try {
+            file.transferTo(spooled);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        MappedMessageFile mapped = MappedMessageFile.open(spooled, jsonMapper);
+        if (mapped.getRecordCount() == 0) {
+            mapped.close();
+            throw new IllegalArgumentException("The import file contains no messages");
+        }
+        try {
+            return bulkIngestJobService.submit(userId, new MappedFileMessages(mapped), (long) mapped.getRecordCount());
+        } catch (RuntimeException e) {
+            mapped.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Hands out the file's messages in order, parsing the next few ranges in parallel whenever it runs dry.
+     * Closing it deletes the spooled file.
+     */
+    private class MappedFileMessages implements Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair>, Closeable {
+
+        private final MappedMessageFile file;
+        private List<BulkMessageProcessRequestDto.MessageBankAddressPair> parsed = List.of();
+        private int parsedPosition;
+        private int nextRecord;
+
+        private MappedFileMessages(MappedMessageFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return parsedPosition < parsed.size() || nextRecord < file.getRecordCount();
+        }
+
+        @Override
+        public BulkMessageProcessRequestDto.MessageBankAddressPair next() {
+            if (parsedPosition == parsed.size()) {
+                parseNextRanges();
+            }
+            return parsed.get(parsedPosition++);
+        }
+
+        private void parseNextRanges() {
+            if (nextRecord >= file.getRecordCount()) {
+                throw new NoSuchElementException();
+            }
+            List<int[]> ranges = new ArrayList<>(bulkIngestExecutor.getParallelism());
+            while (ranges.size() < bulkIngestExecutor.getParallelism() && nextRecord < file.getRecordCount()) {
+                int end = Math.min(nextRecord + rangeSize, file.getRecordCount());
+                ranges.add(new int[]{nextRecord, end});
+                nextRecord = end;
+            }
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages = new ArrayList<>();
+            for (List<BulkMessageProcessRequestDto.MessageBankAddressPair> range
+                    : bulkIngestExecutor.mapInOrder(ranges, range -> file.parse(range[0], range[1]))) {
+                messages.addAll(range);
+            }
+            parsed = messages;
+            parsedPosition = 0;
+        }
+
+        @Override
+        public void close() {
+            file.close();
+        }
+    }
+}
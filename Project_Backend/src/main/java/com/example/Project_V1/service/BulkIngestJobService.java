@@ -0,0 +1,260 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkIngestResultPageDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.enums.BulkIngestJobStatus;
+import com.example.Project_V1.ingest.BulkIngestJob;
+import com.example.Project_V1.ingest.ResultSpool;
+import com.example.Project_V1.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous bulk ingest: a submitted job returns at once and is processed in slices of
+ * finance.ingest.job-slice-size messages on its own small pool (finance.ingest.job-concurrency).
+ * Each slice goes through the normal bulk pipeline, so matching is still parallel and rows are still
+ * committed in chunks. Jobs over a source that waits for input (see submitBlocking) read it on a
+ * separate thread and only take a pool thread to process a full slice.
+ *
+ * Per-message results are spooled to disk (finance.ingest.spool-dir) and served in pages. Finished
+ * jobs are forgotten, and their spool deleted, finance.ingest.job-retention-minutes after they end
+ * (checked every finance.ingest.job-reap-interval-ms).
+ * Cancelling stops a job before its next slice; slices already processed stay committed.
+ */
+@Service
+public class BulkIngestJobService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final TransactionService transactionService;
+    private final UserRepository userRepository;
+    private final JsonMapper jsonMapper;
+    private final int sliceSize;
+    private final long retentionMinutes;
+    private final Path spoolDirectory;
+    private final ExecutorService executor;
+    private final ExecutorService readerExecutor;
+    private final Map<String, BulkIngestJob> jobs = new ConcurrentHashMap<>();
+
+    public BulkIngestJobService(TransactionService transactionService,
+                                UserRepository userRepository,
+                                JsonMapper jsonMapper,
+                                @Value("${finance.ingest.job-concurrency:2}") int jobConcurrency,
+                                @Value("${finance.ingest.job-slice-size:500}") int sliceSize,
+                                @Value("${finance.ingest.job-retention-minutes:60}") long retentionMinutes,
+                                @Value("${finance.ingest.spool-dir:${java.io.tmpdir}}") String spoolDirectory) {
+        if (jobConcurrency <= 0 || sliceSize <= 0) {
+            throw new IllegalArgumentException("Job concurrency and slice size must be positive");
+        }
+        this.transactionService = transactionService;
+        this.userRepository = userRepository;
+        this.jsonMapper = jsonMapper;
+        this.sliceSize = sliceSize;
+        this.retentionMinutes = retentionMinutes;
+        this.spoolDirectory = Path.of(spoolDirectory);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(jobConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // One thread per blocking source; they spend their time waiting for input, not working
+        AtomicInteger readerNumber = new AtomicInteger();
+        this.readerExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "bulk-job-reader-" + readerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BulkIngestJobDto submit(BulkMessageProcessRequestDto requestDto) {
+        if (requestDto.getUserId() == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (requestDto.getMessages() == null || requestDto.getMessages().isEmpty()) {
+            throw new IllegalArgumentException("At least one message is required for bulk processing");
+        }
+        return submit(requestDto.getUserId(), requestDto.getMessages().iterator(), (long) requestDto.getMessages().size());
+    }
+
+    /**
+     * Submit a job over any message source; totalMessages may be null when the size is not known up front.
+     * The iterator is consumed on a job thread, so it should not wait for input; use submitBlocking for
+     * sources that do. A Closeable iterator is closed when the job ends, however it ends.
+     */
+    public BulkIngestJobDto submit(Long userId, Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair> messages,
+                                   Long totalMessages) {
+        BulkIngestJob job = createJob(userId, messages, totalMessages);
+        executor.submit(() -> run(job, messages, false));
+        return job.toDto();
+    }
+
+    /**
+     * Submit a job over a source that blocks while it waits for more input, such as an upload still
+     * receiving chunks. The source is read on its own thread and each full slice is handed to the job
+     * pool, so a slow or abandoned source never holds one of the finance.ingest.job-concurrency threads.
+     */
+    public BulkIngestJobDto submitBlocking(Long userId, Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair> messages,
+                                           Long totalMessages) {
+        BulkIngestJob job = createJob(userId, messages, totalMessages);
+        readerExecutor.submit(() -> run(job, messages, true));
+        return job.toDto();
+    }
+
+    public BulkIngestJobDto getJob(String jobId) {
+        return findJob(jobId).toDto();
+    }
+
+    public BulkIngestResultPageDto getResults(String jobId, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        BulkIngestJob job = findJob(jobId);
+        return new BulkIngestResultPageDto(jobId, page, size, job.getResultCount(),
+                job.readResults((long) page * size, size));
+    }
+
+    public BulkIngestJobDto cancel(String jobId) {
+        BulkIngestJob job = findJob(jobId);
+        job.requestCancel();
+        return job.toDto();
+    }
+
+    private BulkIngestJob createJob(Long userId, Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair> messages,
+                                    Long totalMessages) {
+        if (!userRepository.existsById(userId)) {
+            closeSource(messages);
+            throw new IllegalArgumentException("User not found with id: " + userId);
+        }
+        BulkIngestJob job = new BulkIngestJob(UUID.randomUUID().toString(), userId, totalMessages,
+                new ResultSpool(spoolDirectory, jsonMapper));
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private BulkIngestJob findJob(String jobId) {
+        BulkIngestJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Bulk ingest job not found: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * @param handOff process slices on the job pool rather than the calling thread
+     */
+    private void run(BulkIngestJob job, Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair> messages,
+                     boolean handOff) {
+        try {
+            if (!job.markRunning()) {
+                return;
+            }
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = new ArrayList<>(sliceSize);
+            while (messages.hasNext()) {
+                slice.add(messages.next());
+                if (slice.size() == sliceSize) {
+                    if (!processSlice(job, slice, handOff)) {
+                        return;
+                    }
+                    slice = new ArrayList<>(sliceSize);
+                }
+            }
+            if (!slice.isEmpty() && !processSlice(job, slice, handOff)) {
+                return;
+            }
+            job.markFinished(BulkIngestJobStatus.COMPLETED, null);
+        } catch (RuntimeException e) {
+            // A cancelled job whose source was torn down underneath it is still just cancelled
+            if (job.isCancelRequested()) {
+                job.markFinished(BulkIngestJobStatus.CANCELLED, null);
+            } else {
+                job.markFinished(BulkIngestJobStatus.FAILED, e.getMessage());
+            }
+        } finally {
+            closeSource(messages);
+        }
+    }
+
+    private void closeSource(Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair> messages) {
+        if (messages instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // The source is finished with either way
+            }
+        }
+    }
+
+    private boolean processSlice(BulkIngestJob job, List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice,
+                                 boolean handOff) {
+        if (!handOff) {
+            return processSlice(job, slice);
+        }
+        try {
+            // Waiting here keeps slices in order and the reader no further ahead than one slice
+            return executor.submit(() -> processSlice(job, slice)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing job " + job.getId(), e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return false if the job was cancelled instead of processing the slice
+     */
+    private boolean processSlice(BulkIngestJob job, List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice) {
+        if (job.isCancelRequested()) {
+            job.markFinished(BulkIngestJobStatus.CANCELLED, null);
+            return false;
+        }
+        job.recordResults(transactionService.processMessageBatch(job.getUserId(), slice));
+        return true;
+    }
+
+    /**
+     * Forget jobs that finished more than finance.ingest.job-retention-minutes ago and delete their spools
+     */
+    @Scheduled(fixedDelayString = "${finance.ingest.job-reap-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.getStatus().isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff)) {
+                job.discard();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readerExecutor.shutdownNow();
+        executor.shutdownNow();
+        jobs.values().forEach(BulkIngestJob::discard);
+        jobs.clear();
+    }
+}
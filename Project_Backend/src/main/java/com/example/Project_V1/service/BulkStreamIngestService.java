@@ -0,0 +1,142 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestResultDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.ingest.NdjsonMessageReader;
+import com.example.Project_V1.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming bulk ingest: reads newline-delimited JSON messages off the request body and writes one
+ * NDJSON result line per message back while it is still reading.
+ *
+ * Messages are processed in slices of finance.ingest.stream-slice-size through the normal bulk
+ * pipeline. While one slice is being matched and stored, the next one is parsed, so at most two slices
+ * are in memory however large the upload is. finance.ingest.stream-concurrency caps how many streams
+ * can have a slice in flight at once.
+ */
+@Service
+public class BulkStreamIngestService {
+
+    private final TransactionService transactionService;
+    private final UserRepository userRepository;
+    private final JsonMapper jsonMapper;
+    private final int sliceSize;
+    private final ExecutorService executor;
+
+    public BulkStreamIngestService(TransactionService transactionService,
+                                   UserRepository userRepository,
+                                   JsonMapper jsonMapper,
+                                   @Value("${finance.ingest.stream-slice-size:200}") int sliceSize,
+                                   @Value("${finance.ingest.stream-concurrency:4}") int streamConcurrency) {
+        if (sliceSize <= 0 || streamConcurrency <= 0) {
+            throw new IllegalArgumentException("Stream slice size and concurrency must be positive");
+        }
+        this.transactionService = transactionService;
+        this.userRepository = userRepository;
+        this.jsonMapper = jsonMapper;
+        this.sliceSize = sliceSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(streamConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checked before the response starts, so a bad user still gets a plain 400.
+     */
+    public void validateUser(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found with id: " + userId);
+        }
+    }
+
+    /**
+     * Process the whole stream. Malformed input or a failed slice ends the stream with one final result line
+     * carrying the error; results already written stay valid.
+     */
+    public void process(Long userId, InputStream body, boolean gzip, OutputStream responseBody) throws IOException {
+        InputStream input = gzip ? new GZIPInputStream(body, 64 * 1024) : body;
+        OutputStream out = new BufferedOutputStream(responseBody, 64 * 1024);
+        long written = 0;
+        CompletableFuture<List<BulkIngestResultDto>> inFlight = null;
+        try (NdjsonMessageReader reader = new NdjsonMessageReader(jsonMapper, input)) {
+            while (true) {
+                // Parse the next slice while the previous one is still being processed
+                List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = reader.nextSlice(sliceSize);
+                if (inFlight != null) {
+                    written = writeResults(out, awaitSlice(inFlight), written);
+                    inFlight = null;
+                }
+                if (slice.isEmpty()) {
+                    break;
+                }
+                inFlight = CompletableFuture.supplyAsync(() -> transactionService.processMessageBatch(userId, slice), executor);
+            }
+        } catch (RuntimeException e) {
+            if (inFlight != null) {
+                try {
+                    written = writeResults(out, awaitSlice(inFlight), written);
+                } catch (RuntimeException sliceFailure) {
+                    // Report the first failure only
+                }
+            }
+            writeLine(out, new BulkIngestResultDto(written, false, null, null, e.getMessage(), null));
+        } finally {
+            out.flush();
+        }
+    }
+
+    private List<BulkIngestResultDto> awaitSlice(CompletableFuture<List<BulkIngestResultDto>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Write one slice's results with their indexes rebased onto the stream position, then flush them to the client.
+     */
+    private long writeResults(OutputStream out, List<BulkIngestResultDto> results, long base) throws IOException {
+        for (BulkIngestResultDto result : results) {
+            result.setIndex(base + result.getIndex());
+            writeLine(out, result);
+        }
+        out.flush();
+        return base + results.size();
+    }
+
+    private void writeLine(OutputStream out, BulkIngestResultDto result) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.dto.BulkUploadDto;
+import com.example.Project_V1.ingest.ChunkedUpload;
+import com.example.Project_V1.ingest.NdjsonMessageReader;
+import com.example.Project_V1.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads of newline-delimited JSON messages for clients that cannot send a large body in one go.
+ *
+ * Creating an upload also submits its bulk ingest job, which reads messages off the upload while chunks
+ * are still arriving, so processing keeps pace with the upload instead of starting after it. The job
+ * waits for chunks on a reader thread of its own (see BulkIngestJobService.submitBlocking), so slow
+ * uploads do not hold up other jobs. Clients PUT chunks at the committed offset, ask for the committed
+ * offset after a failure, and finalize when done. Uploads that see no chunk for
+ * finance.ingest.upload-idle-minutes are aborted, checked every finance.ingest.upload-reap-interval-ms.
+ */
+@Service
+public class BulkUploadService {
+
+    private final BulkIngestJobService bulkIngestJobService;
+    private final UserRepository userRepository;
+    private final JsonMapper jsonMapper;
+    private final Path spoolDirectory;
+    private final long idleMinutes;
+    private final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<>();
+
+    public BulkUploadService(BulkIngestJobService bulkIngestJobService,
+                             UserRepository userRepository,
+                             JsonMapper jsonMapper,
+                             @Value("${finance.ingest.spool-dir:${java.io.tmpdir}}") String spoolDirectory,
+                             @Value("${finance.ingest.upload-idle-minutes:30}") long idleMinutes) {
+        this.bulkIngestJobService = bulkIngestJobService;
+        this.userRepository = userRepository;
+        this.jsonMapper = jsonMapper;
+        this.spoolDirectory = Path.of(spoolDirectory);
+        this.idleMinutes = idleMinutes;
+    }
+
+    public BulkUploadDto create(Long userId) throws IOException {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found with id: " + userId);
+        }
+        Files.createDirectories(spoolDirectory);
+        Path file = Files.createTempFile(spoolDirectory, "bulk-upload-", ".ndjson");
+        ChunkedUpload upload;
+        UploadMessages messages;
+        try {
+            upload = new ChunkedUpload(UUID.randomUUID().toString(), userId, file);
+            messages = new UploadMessages(jsonMapper, upload.openStream());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        BulkIngestJobDto job = bulkIngestJobService.submitBlocking(userId, messages, null);
+        upload.setJobId(job.getJobId());
+        uploads.put(upload.getId(), upload);
+        return upload.toDto();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the upload does not exist
+     * @throws IllegalStateException    if the offset is past the committed offset or the upload is closed
+     */
+    public BulkUploadDto appendChunk(String uploadId, long offset, InputStream data) throws IOException {
+        ChunkedUpload upload = findUpload(uploadId);
+        upload.append(offset, data);
+        return upload.toDto();
+    }
+
+    public BulkUploadDto getUpload(String uploadId) {
+        return findUpload(uploadId).toDto();
+    }
+
+    /**
+     * @param expectedLength total bytes the client sent, checked against the committed offset when given
+     */
+    public BulkUploadDto finish(String uploadId, Long expectedLength) {
+        ChunkedUpload upload = findUpload(uploadId);
+        upload.finish(expectedLength);
+        return upload.toDto();
+    }
+
+    /**
+     * Abort the upload and cancel its job; messages already processed stay committed.
+     */
+    public BulkUploadDto abort(String uploadId) {
+        ChunkedUpload upload = uploads.remove(uploadId);
+        if (upload == null) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        try {
+            bulkIngestJobService.cancel(upload.toDto().getJobId());
+        } catch (IllegalArgumentException e) {
+            // The job already finished and was forgotten
+        }
+        upload.abort("Cancelled by client");
+        return upload.toDto();
+    }
+
+    private ChunkedUpload findUpload(String uploadId) {
+        ChunkedUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        return upload;
+    }
+
+    /**
+     * Abort uploads that have seen no chunk for finance.ingest.upload-idle-minutes, which also ends their jobs
+     */
+    @Scheduled(fixedDelayString = "${finance.ingest.upload-reap-interval-ms:60000}")
+    public void removeIdleUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(idleMinutes);
+        uploads.values().removeIf(upload -> {
+            if (upload.getUpdatedAt().isBefore(cutoff)) {
+                // A finalized upload is left to its job, which deletes the file when it is done reading
+                upload.abort("No data received for " + idleMinutes + " minutes");
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploads.values().forEach(upload -> upload.abort("Server shutting down"));
+        uploads.clear();
+    }
+
+    /**
+     * Message source for an upload's job: one lookahead message so hasNext() can block for the next chunk.
+     * The parser is created on first use because it reads ahead to detect the encoding, which would
+     * block until the first chunk arrives.
+     */
+    private static class UploadMessages implements Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair>, Closeable {
+
+        private final JsonMapper jsonMapper;
+        private final InputStream stream;
+        private NdjsonMessageReader reader;
+        private BulkMessageProcessRequestDto.MessageBankAddressPair nextMessage;
+
+        private UploadMessages(JsonMapper jsonMapper, InputStream stream) {
+            this.jsonMapper = jsonMapper;
+            this.stream = stream;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (reader == null) {
+                reader = new NdjsonMessageReader(jsonMapper, stream);
+            }
+            if (nextMessage == null) {
+                nextMessage = reader.next();
+            }
+            return nextMessage != null;
+        }
+
+        @Override
+        public BulkMessageProcessRequestDto.MessageBankAddressPair next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BulkMessageProcessRequestDto.MessageBankAddressPair message = nextMessage;
+            nextMessage = null;
+            return message;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+            }
+            stream.close();
+        }
+    }
+}
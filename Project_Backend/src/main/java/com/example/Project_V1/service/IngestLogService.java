@@ -0,0 +1,338 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.dto.IngestLogAckDto;
+import com.example.Project_V1.dto.IngestLogStatusDto;
+import com.example.Project_V1.dto.MultiUserBulkMessageRequestDto;
+import com.example.Project_V1.dto.TransactionMessageRequestDto;
+import com.example.Project_V1.enums.BulkErrorCode;
+import com.example.Project_V1.ingest.IngestLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous /process: a message is acknowledged as soon as it is durably appended to the local
+ * ingest log (see IngestLog), and matched and stored later by a background drainer.
+ *
+ * The drainer reads up to finance.ingest.log.drain-batch-size entries at a time and runs them through
+ * the multi-user bulk pipeline, so matching and the chunked writes use the bulk worker pool. The log
+ * checkpoint only moves past messages that are done: stored, or failed for good (no match, unknown user,
+ * duplicate, ...). It stops at the first message whose write failed or that hit an unexpected error, and
+ * the drainer retries from there with a growing delay, so a database outage delays messages instead of
+ * dropping them. A batch that fails as a whole is retried the same way, and after a crash everything past
+ * the checkpoint is read again. Messages stored before a retry or a crash therefore run twice; the second
+ * run is dropped as a duplicate.
+ *
+ * A message is set aside in the dead-letter file (DEAD_LETTER_FILE in the log directory, one JSON line
+ * each) when the database rejects its values (INVALID_DATA), or when it still fails after
+ * finance.ingest.log.max-attempts tries. The checkpoint then moves past it, so one bad message cannot
+ * hold up the messages behind it.
+ *
+ * The drainer starts once the application is ready, after startup work such as
+ * TransactionIdGeneratorInitializer, so replayed entries never insert with stale ids.
+ *
+ * Off unless finance.ingest.log.enabled is set. The log lives in finance.ingest.log.dir, which should be
+ * on a local, persistent disk.
+ */
+@Service
+public class IngestLogService {
+
+    private static final long IDLE_WAIT_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+    public static final String DEAD_LETTER_FILE = "dead-letter.ndjson";
+
+    private final TransactionService transactionService;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int drainBatchSize;
+    private final int maxAttempts;
+    private final AtomicLong storedMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong deadLetteredMessages = new AtomicLong();
+
+    // Drainer thread only: the message being retried and how often it has failed so far
+    private long retryOffset = -1;
+    private int retryAttempts;
+
+    private volatile IngestLog log;
+    private volatile Thread drainer;
+    private volatile boolean running;
+    private volatile String lastError;
+
+    public IngestLogService(TransactionService transactionService,
+                            JsonMapper jsonMapper,
+                            @Value("${finance.ingest.log.enabled:false}") boolean enabled,
+                            @Value("${finance.ingest.log.dir:${java.io.tmpdir}/finance-ingest-log}") String directory,
+                            @Value("${finance.ingest.log.segment-bytes:67108864}") long segmentBytes,
+                            @Value("${finance.ingest.log.drain-batch-size:500}") int drainBatchSize,
+                            @Value("${finance.ingest.log.max-attempts:10}") int maxAttempts) {
+        if (drainBatchSize <= 0) {
+            throw new IllegalArgumentException("Ingest log drain batch size must be positive");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Ingest log max attempts must be positive");
+        }
+        this.transactionService = transactionService;
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.drainBatchSize = drainBatchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Open the log, so messages can be accepted as soon as requests are served
+     */
+    @PostConstruct
+    public synchronized void openLog() throws IOException {
+        if (enabled && log == null) {
+            log = IngestLog.open(directory, segmentBytes);
+        }
+    }
+
+    /**
+     * Start draining the log from the checkpoint, which replays whatever was not processed before
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() throws IOException {
+        if (!enabled || drainer != null) {
+            return;
+        }
+        openLog();
+        running = true;
+        Thread thread = new Thread(this::drain, "ingest-log-drainer");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+    /**
+     * Append the message to the log; it is on disk when this returns.
+     *
+     * @throws IllegalStateException    if the ingest log is not enabled
+     * @throws IllegalArgumentException if the message cannot be processed at all (no user, no text)
+     */
+    public IngestLogAckDto append(TransactionMessageRequestDto requestDto) throws IOException {
+        IngestLog ingestLog = requireLog();
+        if (requestDto.getUserId() == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        if (requestDto.getMessage() == null || requestDto.getMessage().isBlank()) {
+            throw new IllegalArgumentException("Message is required");
+        }
+        byte[] entry = jsonMapper.writeValueAsBytes(new MultiUserBulkMessageRequestDto.UserMessage(
+                requestDto.getUserId(), requestDto.getMessage(), requestDto.getBankAddress()));
+        return new IngestLogAckDto(ingestLog.append(entry), false);
+    }
+
+    /**
+     * Whether the message at offset has been processed yet
+     *
+     * @throws IllegalArgumentException if no message was appended at offset
+     */
+    public IngestLogAckDto getEntry(long offset) {
+        IngestLog ingestLog = requireLog();
+        if (offset < 0 || offset >= ingestLog.getEndOffset()) {
+            throw new IllegalArgumentException("No ingest log entry at offset " + offset);
+        }
+        return new IngestLogAckDto(offset, offset < ingestLog.getCheckpoint());
+    }
+
+    public IngestLogStatusDto getStatus() {
+        IngestLog ingestLog = log;
+        if (ingestLog == null) {
+            return new IngestLogStatusDto(false, 0, 0, 0, 0, 0, 0, null);
+        }
+        return new IngestLogStatusDto(true, ingestLog.getEndOffset(), ingestLog.getCheckpoint(),
+                ingestLog.getSegmentCount(), storedMessages.get(), failedMessages.get(), deadLetteredMessages.get(),
+                lastError);
+    }
+
+    private IngestLog requireLog() {
+        IngestLog ingestLog = log;
+        if (ingestLog == null) {
+            throw new IllegalStateException("Asynchronous processing is not enabled (finance.ingest.log.enabled)");
+        }
+        return ingestLog;
+    }
+
+    private void drain() {
+        IngestLog ingestLog = log;
+        long offset = ingestLog.getCheckpoint();
+        while (running) {
+            try {
+                List<IngestLog.Entry> entries = ingestLog.read(offset, drainBatchSize);
+                if (entries.isEmpty()) {
+                    ingestLog.awaitEntries(offset, IDLE_WAIT_MILLIS);
+                    continue;
+                }
+                int done = processEntries(entries);
+                if (done > 0) {
+                    offset = entries.get(done - 1).getNextOffset();
+                    ingestLog.commit(offset);
+                }
+                if (done < entries.size()) {
+                    // Retry from the first message that may still go through
+                    lastError = "Message at offset " + entries.get(done).getOffset() + " could not be stored; retry "
+                            + retryAttempts + " of " + (maxAttempts - 1);
+                    pause(Math.min(RETRY_DELAY_MILLIS << Math.min(retryAttempts - 1, 16), MAX_RETRY_DELAY_MILLIS));
+                    continue;
+                }
+                lastError = null;
+            } catch (IOException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                // Nothing was committed, so the same batch is read again
+                lastError = e.getMessage();
+                pause(RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * Run a batch through the pipeline, setting aside messages that cannot be stored.
+     *
+     * @return how many leading entries are done; the rest, from the first message still worth retrying on,
+     * must be read again
+     */
+    private int processEntries(List<IngestLog.Entry> entries) throws IOException {
+        List<MultiUserBulkMessageRequestDto.UserMessage> messages = new ArrayList<>(entries.size());
+        List<Integer> entryIndexes = new ArrayList<>(entries.size());
+        List<Integer> unreadable = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                messages.add(jsonMapper.readValue(entries.get(i).getPayload(), MultiUserBulkMessageRequestDto.UserMessage.class));
+                entryIndexes.add(i);
+            } catch (JacksonException e) {
+                // Written by append, so this only happens if the format changed; retrying would not help
+                unreadable.add(i);
+            }
+        }
+        CompactBulkResponseDto response = transactionService.processMultiUserBulkMessagesCompact(
+                new MultiUserBulkMessageRequestDto(messages));
+
+        int done = entries.size();
+        int doneMessages = messages.size();
+        int failedForGood = 0;
+        List<byte[]> deadLetters = new ArrayList<>();
+        // Failed indexes are in input order, so the first message still worth retrying bounds what is done
+        for (int i = 0; i < response.getFailedIndexes().length; i++) {
+            int messageIndex = response.getFailedIndexes()[i];
+            BulkErrorCode errorCode = response.getErrorCodes()[i];
+            IngestLog.Entry entry = entries.get(entryIndexes.get(messageIndex));
+            if (isRetryable(errorCode)) {
+                int attempts = entry.getOffset() == retryOffset ? retryAttempts + 1 : 1;
+                if (attempts < maxAttempts) {
+                    retryOffset = entry.getOffset();
+                    retryAttempts = attempts;
+                    doneMessages = messageIndex;
+                    done = entryIndexes.get(messageIndex);
+                    break;
+                }
+            }
+            if (isRetryable(errorCode) || errorCode == BulkErrorCode.INVALID_DATA) {
+                deadLetters.add(deadLetter(entry.getOffset(), errorCode, messages.get(messageIndex)));
+            }
+            failedForGood++;
+        }
+        // On disk before the checkpoint moves past them
+        writeDeadLetters(deadLetters);
+
+        // Only the done prefix is counted; messages past it are counted when they are read again
+        storedMessages.addAndGet(doneMessages - failedForGood);
+        for (int index : unreadable) {
+            if (index < done) {
+                failedForGood++;
+            }
+        }
+        failedMessages.addAndGet(failedForGood);
+        deadLetteredMessages.addAndGet(deadLetters.size());
+        return done;
+    }
+
+    /**
+     * Failures that depend on the database or the server rather than on the message itself
+     */
+    private static boolean isRetryable(BulkErrorCode errorCode) {
+        return errorCode == BulkErrorCode.WRITE_FAILED || errorCode == BulkErrorCode.PROCESSING_ERROR;
+    }
+
+    private byte[] deadLetter(long offset, BulkErrorCode errorCode, MultiUserBulkMessageRequestDto.UserMessage message) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("offset", offset);
+        record.put("errorCode", errorCode);
+        record.put("userId", message.getUserId());
+        record.put("message", message.getMessage());
+        record.put("bankAddress", message.getBankAddress());
+        return (jsonMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void writeDeadLetters(List<byte[]> deadLetters) throws IOException {
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (byte[] deadLetter : deadLetters) {
+                ByteBuffer buffer = ByteBuffer.wrap(deadLetter);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(true);
+        }
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        Thread thread = drainer;
+        IngestLog ingestLog = log;
+        try {
+            if (thread != null) {
+                // Let the batch in progress finish and commit; an idle drainer wakes within IDLE_WAIT_MILLIS
+                thread.join(IDLE_WAIT_MILLIS + 10_000);
+            }
+            if (ingestLog != null) {
+                ingestLog.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.Project_V1.service;
 
+import com.example.Project_V1.dto.PatternCacheStatsDto;
 import com.example.Project_V1.dto.RegexLogDto;
 import com.example.Project_V1.dto.RegexRequestDto;
 import com.example.Project_V1.dto.RegexResponseDto;
 import com.example.Project_V1.dto.RegexSaveRequestDto;
 import com.example.Project_V1.dto.StatusUpdateRequestDto;
+import com.example.Project_V1.dto.TemplateCacheStatsDto;
 
 import java.util.List;
+import java.util.Map;
 
 public interface RegexService {
     RegexResponseDto extract(RegexRequestDto requestDto);
@@ -29,4 +32,10 @@ public interface RegexService {
     RegexLogDto updateStatus(StatusUpdateRequestDto requestDto);
     
     RegexLogDto getRegexPatternById(Long id);
+
+    PatternCacheStatsDto getPatternCacheStats();
+
+    Map<Long, Long> getMatchTimeouts();
+
+    TemplateCacheStatsDto getTemplateCacheStats();
 }
@@ -1,16 +1,29 @@
 package com.example.Project_V1.service;
 
+import com.example.Project_V1.dto.PatternCacheStatsDto;
 import com.example.Project_V1.dto.RegexLogDto;
 import com.example.Project_V1.dto.RegexRequestDto;
 import com.example.Project_V1.dto.RegexResponseDto;
 import com.example.Project_V1.dto.RegexSaveRequestDto;
 import com.example.Project_V1.dto.StatusUpdateRequestDto;
+import com.example.Project_V1.dto.TemplateCacheStatsDto;
 import com.example.Project_V1.entity.RegexLog;
 import com.example.Project_V1.enums.RegexPatternStatus;
+import com.example.Project_V1.regex.ApprovedPatternRegistry;
+import com.example.Project_V1.regex.ExtractedFields;
+import com.example.Project_V1.regex.ExtractionField;
+import com.example.Project_V1.regex.ExtractionPlan;
+import com.example.Project_V1.regex.MessageTemplateCache;
+import com.example.Project_V1.regex.PatternCache;
+import com.example.Project_V1.regex.RegexComplexityAnalyzer;
+import com.example.Project_V1.regex.RegexComplexityReport;
+import com.example.Project_V1.regex.RegexTimeoutException;
+import com.example.Project_V1.regex.RegexTimeoutGuard;
 import com.example.Project_V1.repository.RegexLogRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.regex.*;
 import java.util.stream.Collectors;
 
@@ -18,9 +31,24 @@ import java.util.stream.Collectors;
 public class RegexServiceImpl implements RegexService {
 
     private final RegexLogRepository regexLogRepository;
-
-    public RegexServiceImpl(RegexLogRepository regexLogRepository) {
+    private final ApprovedPatternRegistry approvedPatternRegistry;
+    private final PatternCache patternCache;
+    private final RegexTimeoutGuard timeoutGuard;
+    private final RegexComplexityAnalyzer complexityAnalyzer;
+    private final MessageTemplateCache templateCache;
+
+    public RegexServiceImpl(RegexLogRepository regexLogRepository,
+                            ApprovedPatternRegistry approvedPatternRegistry,
+                            PatternCache patternCache,
+                            RegexTimeoutGuard timeoutGuard,
+                            RegexComplexityAnalyzer complexityAnalyzer,
+                            MessageTemplateCache templateCache) {
         this.regexLogRepository = regexLogRepository;
+        this.approvedPatternRegistry = approvedPatternRegistry;
+        this.patternCache = patternCache;
+        this.timeoutGuard = timeoutGuard;
+        this.complexityAnalyzer = complexityAnalyzer;
+        this.templateCache = templateCache;
     }
 
     @Override
@@ -32,7 +60,7 @@ public class RegexServiceImpl implements RegexService {
 
         Pattern pattern;
         try {
-            pattern = Pattern.compile(requestDto.getPattern(), Pattern.CASE_INSENSITIVE);
+            pattern = patternCache.compile(requestDto.getPattern(), Pattern.CASE_INSENSITIVE);
         } catch (PatternSyntaxException e) {
             throw new IllegalArgumentException("Invalid regex pattern");
         }
@@ -41,21 +69,28 @@ public class RegexServiceImpl implements RegexService {
         String text = (requestDto.getText() != null && !requestDto.getText().trim().isEmpty()) 
                 ? requestDto.getText() : "";
 
-        Matcher matcher = pattern.matcher(text);
+        Matcher matcher = pattern.matcher(timeoutGuard.guard(text));
         RegexResponseDto response = new RegexResponseDto();
 
-        boolean matchFound = matcher.find();
+        boolean matchFound;
+        try {
+            matchFound = matcher.find();
+        } catch (RegexTimeoutException e) {
+            // A pattern that runs out of time counts as a no-match
+            matchFound = false;
+        }
         response.setMatchFound(matchFound);
 
         if (matchFound) {
-            response.setAccountNumber(getGroup(matcher, "accountNumber"));
-            response.setTransactionType(getGroup(matcher, "transactionType"));
-            response.setAmount(getGroup(matcher, "amount"));
-            response.setDate(getGroup(matcher, "date"));
-            response.setVia(getGroup(matcher, "via"));
-            response.setTo(getGroup(matcher, "to"));
-            response.setAvailableBalance(getGroup(matcher, "availableBalance"));
-            response.setReferenceNumber(getGroup(matcher, "referenceNumber"));
+            ExtractedFields fields = ExtractionPlan.of(pattern).extract(matcher);
+            response.setAccountNumber(fields.get(ExtractionField.ACCOUNT_NUMBER));
+            response.setTransactionType(fields.get(ExtractionField.TRANSACTION_TYPE));
+            response.setAmount(fields.get(ExtractionField.AMOUNT));
+            response.setDate(fields.get(ExtractionField.DATE));
+            response.setVia(fields.get(ExtractionField.VIA));
+            response.setTo(fields.get(ExtractionField.TO));
+            response.setAvailableBalance(fields.get(ExtractionField.AVAILABLE_BALANCE));
+            response.setReferenceNumber(fields.get(ExtractionField.REFERENCE_NUMBER));
         }
 
         return response;
@@ -83,9 +118,10 @@ public class RegexServiceImpl implements RegexService {
         String merchantName = (requestDto.getMerchantName() != null && !requestDto.getMerchantName().trim().isEmpty()) 
                 ? requestDto.getMerchantName().trim() : null;
 
-        // Validate the regex pattern
+        // Validate the regex pattern (compiled once and reused for the sample text check below)
+        Pattern compiledPattern;
         try {
-            Pattern.compile(pattern);
+            compiledPattern = patternCache.compile(pattern, Pattern.CASE_INSENSITIVE);
         } catch (PatternSyntaxException e) {
             throw new IllegalArgumentException("Invalid regex pattern: " + e.getMessage());
         }
@@ -104,8 +140,10 @@ public class RegexServiceImpl implements RegexService {
                 if(requestDto.getStatus() != null && existingLog.getStatus() != null && requestDto.getStatus() == existingLog.getStatus()){
                     throw new IllegalArgumentException("Pattern already exists in database");
                 }
+                RegexPatternStatus previousStatus = existingLog.getStatus();
                 existingLog.setStatus(newStatus);
                 RegexLog updatedLog = regexLogRepository.save(existingLog);
+                refreshApprovedPatterns(previousStatus, updatedLog);
                 return convertToDto(updatedLog);
             }
         }
@@ -126,18 +164,27 @@ public class RegexServiceImpl implements RegexService {
                 ? requestDto.getStatus()
                 : RegexPatternStatus.DRAFT;
 
-        // Test if pattern matches the text (if text is provided)
+        // Keep backtracking-prone patterns out of the hot path; checked before the pattern runs on anything
+        RegexComplexityReport complexityReport = complexityAnalyzer.analyze(pattern, compiledPattern);
+        if (complexityReport.isTimedOut()) {
+            throw new IllegalArgumentException("Regex pattern is too slow: " + String.join("; ", complexityReport.getWarnings()));
+        }
+
+        // Test if pattern matches the text (if text is provided), under the same time budget as matching
         boolean matchFound = false;
         if (text != null) {
-            Pattern compiledPattern = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
-            Matcher matcher = compiledPattern.matcher(text);
-            matchFound = matcher.find();
+            Matcher matcher = compiledPattern.matcher(timeoutGuard.guard(text));
+            try {
+                matchFound = matcher.find();
+            } catch (RegexTimeoutException e) {
+                throw new RegexTimeoutException("Regex pattern is too slow on the sample message");
+            }
         }
 
         if(!matchFound && text != null){
             throw new Error("The regex pattern doesn't extract the message information");
         }
-        
+
         RegexLog log = new RegexLog(
                 pattern,
                 text,
@@ -149,8 +196,13 @@ public class RegexServiceImpl implements RegexService {
                 transactionCategory,
                 merchantName
         );
+        log.setComplexityScore(complexityReport.getScore());
+        log.setComplexityWarnings(complexityReport.getWarnings().isEmpty()
+                ? null : String.join("\n", complexityReport.getWarnings()));
+        log.setWorstCaseMatchMicros(complexityReport.getWorstCaseMatchMicros());
 
         RegexLog savedLog = regexLogRepository.save(log);
+        refreshApprovedPatterns(null, savedLog);
         return convertToDto(savedLog);
     }
 
@@ -186,25 +238,19 @@ public class RegexServiceImpl implements RegexService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * Safe named-group extraction.
-     * Returns null if group does not exist or is not matched.
-     */
-//    private String getGroup(Matcher matcher, String groupName) {
-//        if(matcher.group(groupName) != null){
-//            return matcher.group(groupName);
-//        }
-//        return "";
-//    }
-
-    private String getGroup(Matcher matcher, String name) {
-        try {
-            String value = matcher.group(name);
-            return (value != null && !value.isBlank()) ? value.trim() : null;
-        } catch (IllegalArgumentException e) {
-            System.out.println("This is illegal " + e);
-            return null;
-        }
+    @Override
+    public PatternCacheStatsDto getPatternCacheStats() {
+        return patternCache.getStats();
+    }
+
+    @Override
+    public Map<Long, Long> getMatchTimeouts() {
+        return timeoutGuard.getTimeoutCounts();
+    }
+
+    @Override
+    public TemplateCacheStatsDto getTemplateCacheStats() {
+        return templateCache.getStats();
     }
 
     /**
@@ -224,6 +270,10 @@ public class RegexServiceImpl implements RegexService {
         dto.setTransactionType(log.getTransactionType());
         dto.setTransactionCategory(log.getTransactionCategory());
         dto.setMerchantName(log.getMerchantName());
+        dto.setComplexityScore(log.getComplexityScore());
+        dto.setComplexityWarnings(log.getComplexityWarnings() != null
+                ? List.of(log.getComplexityWarnings().split("\n")) : List.of());
+        dto.setWorstCaseMatchMicros(log.getWorstCaseMatchMicros());
         return dto;
     }
 
@@ -236,8 +286,10 @@ public class RegexServiceImpl implements RegexService {
             throw new IllegalStateException("Can only approve patterns with PENDING status. Current status: " + log.getStatus());
         }
         
+        RegexPatternStatus previousStatus = log.getStatus();
         log.setStatus(RegexPatternStatus.APPROVED);
         RegexLog updatedLog = regexLogRepository.save(log);
+        refreshApprovedPatterns(previousStatus, updatedLog);
         return convertToDto(updatedLog);
     }
 
@@ -250,8 +302,10 @@ public class RegexServiceImpl implements RegexService {
             throw new IllegalStateException("Can't only reject patterns with APPROVED status. Current status: " + log.getStatus());
         }
         
+        RegexPatternStatus previousStatus = log.getStatus();
         log.setStatus(RegexPatternStatus.REJECTED);
         RegexLog updatedLog = regexLogRepository.save(log);
+        refreshApprovedPatterns(previousStatus, updatedLog);
         return convertToDto(updatedLog);
     }
 
@@ -276,6 +330,7 @@ public class RegexServiceImpl implements RegexService {
         
         log.setStatus(newStatus);
         RegexLog updatedLog = regexLogRepository.save(log);
+        refreshApprovedPatterns(currentStatus, updatedLog);
         return convertToDto(updatedLog);
     }
 
@@ -286,6 +341,18 @@ public class RegexServiceImpl implements RegexService {
         return convertToDto(log);
     }
 
+    /**
+     * Rebuild the in-memory approved set for the pattern's bank when it moved into or out of APPROVED
+     */
+    private void refreshApprovedPatterns(RegexPatternStatus previousStatus, RegexLog updatedLog) {
+        if (updatedLog == null) {
+            return;
+        }
+        if (previousStatus == RegexPatternStatus.APPROVED || updatedLog.getStatus() == RegexPatternStatus.APPROVED) {
+            approvedPatternRegistry.refresh(updatedLog.getBankAddress());
+        }
+    }
+
     /**
      * Validates if a status transition is allowed
      * Valid transitions:
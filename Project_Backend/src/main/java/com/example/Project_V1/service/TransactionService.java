@@ -1,7 +1,10 @@
 package com.example.Project_V1.service;
 
+import com.example.Project_V1.dto.BulkIngestResultDto;
 import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
 import com.example.Project_V1.dto.BulkMessageProcessResponseDto;
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.dto.MultiUserBulkMessageRequestDto;
 import com.example.Project_V1.dto.TransactionMessageRequestDto;
 import com.example.Project_V1.dto.TransactionResponseDto;
 
@@ -16,19 +19,34 @@ public interface TransactionService {
      */
     TransactionResponseDto processMessage(TransactionMessageRequestDto requestDto);
     
-    /**
-     * Process each message in its own separate transaction to avoid rollback-only errors
-     * @param requestDto Contains the message and userId
-     * @return TransactionResponseDto with extracted data and saved transaction
-     */
-    TransactionResponseDto processMessageInNewTransaction(TransactionMessageRequestDto requestDto);
-    
     /**
      * Process multiple messages in bulk
      * @param requestDto Contains userId and list of message-bankAddress pairs
      * @return BulkMessageProcessResponseDto with summary and details of all processed messages
      */
     BulkMessageProcessResponseDto processBulkMessages(BulkMessageProcessRequestDto requestDto);
+
+    /**
+     * Process one slice of a larger bulk ingest (jobs, streams, file imports)
+     * @return exactly one result per message, in input order; index is the position within the slice
+     */
+    List<BulkIngestResultDto> processMessageBatch(Long userId, List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages);
+
+    /**
+     * Process messages that each carry their own user, e.g. from an SMS gateway.
+     * All users are validated in one query; messages of unknown users fail individually.
+     */
+    BulkMessageProcessResponseDto processMultiUserBulkMessages(MultiUserBulkMessageRequestDto requestDto);
+
+    /**
+     * Same processing as processBulkMessages, answered with ids and error codes only
+     */
+    CompactBulkResponseDto processBulkMessagesCompact(BulkMessageProcessRequestDto requestDto);
+
+    /**
+     * Same processing as processMultiUserBulkMessages, answered with ids and error codes only
+     */
+    CompactBulkResponseDto processMultiUserBulkMessagesCompact(MultiUserBulkMessageRequestDto requestDto);
     
     /**
      * Get all transactions for a specific user
@@ -1,76 +1,91 @@
 package com.example.Project_V1.service;
 
+import com.example.Project_V1.dto.BulkIngestResultDto;
 import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
 import com.example.Project_V1.dto.BulkMessageProcessResponseDto;
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.dto.MultiUserBulkMessageRequestDto;
 import com.example.Project_V1.dto.TransactionExtractionResultDto;
 import com.example.Project_V1.dto.TransactionMessageRequestDto;
 import com.example.Project_V1.dto.TransactionResponseDto;
-import com.example.Project_V1.entity.RegexLog;
 import com.example.Project_V1.entity.Transaction;
 import com.example.Project_V1.entity.User;
-import com.example.Project_V1.enums.RegexPatternStatus;
-import com.example.Project_V1.repository.RegexLogRepository;
+import com.example.Project_V1.enums.BulkErrorCode;
+import com.example.Project_V1.ingest.BulkIngestExecutor;
+import com.example.Project_V1.ingest.GroupCommitWriter;
+import com.example.Project_V1.ingest.TransactionBatchWriter;
+import com.example.Project_V1.ingest.TransactionDedupKey;
+import com.example.Project_V1.ingest.TransactionDeduplicator;
+import com.example.Project_V1.regex.ApprovedPatternRegistry;
+import com.example.Project_V1.regex.BankPatternSet;
+import com.example.Project_V1.regex.MessageMatcher;
 import com.example.Project_V1.repository.TransactionRepository;
 import com.example.Project_V1.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    // Smallest slice of a bank's messages worth handing to a worker on its own
+    private static final int MIN_PARTITION_SIZE = 32;
+
     private final TransactionRepository transactionRepository;
-    private final RegexLogRepository regexLogRepository;
     private final UserRepository userRepository;
+    private final ApprovedPatternRegistry approvedPatternRegistry;
+    private final MessageMatcher messageMatcher;
+    private final BulkIngestExecutor bulkIngestExecutor;
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final TransactionDeduplicator transactionDeduplicator;
+    private final GroupCommitWriter groupCommitWriter;
 
     public TransactionServiceImpl(TransactionRepository transactionRepository,
-                                  RegexLogRepository regexLogRepository,
-                                  UserRepository userRepository) {
+                                  UserRepository userRepository,
+                                  ApprovedPatternRegistry approvedPatternRegistry,
+                                  MessageMatcher messageMatcher,
+                                  BulkIngestExecutor bulkIngestExecutor,
+                                  TransactionBatchWriter transactionBatchWriter,
+                                  TransactionDeduplicator transactionDeduplicator,
+                                  GroupCommitWriter groupCommitWriter) {
         this.transactionRepository = transactionRepository;
-        this.regexLogRepository = regexLogRepository;
         this.userRepository = userRepository;
+        this.approvedPatternRegistry = approvedPatternRegistry;
+        this.messageMatcher = messageMatcher;
+        this.bulkIngestExecutor = bulkIngestExecutor;
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.transactionDeduplicator = transactionDeduplicator;
+        this.groupCommitWriter = groupCommitWriter;
     }
 
+    /**
+     * Not one transaction around the whole call: the insert commits on its own (or with its group, see
+     * GroupCommitWriter), so no connection is held while matching or waiting for the group.
+     */
     @Override
-    @Transactional
     public TransactionResponseDto processMessage(TransactionMessageRequestDto requestDto) {
         // Validate user exists
         User user = userRepository.findById(requestDto.getUserId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + requestDto.getUserId()));
 
-        // Validate bankAddress is provided
-        if (requestDto.getBankAddress() == null || requestDto.getBankAddress().isBlank()) {
-            throw new IllegalArgumentException("Bank address is required for processing transactions");
-        }
-
-        // Get all approved regex patterns for the specific bank address
-        List<RegexLog> approvedPatterns = regexLogRepository
-                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, requestDto.getBankAddress());
-
-        if (approvedPatterns.isEmpty()) {
-            throw new IllegalStateException("No approved regex patterns found for bank address: " + requestDto.getBankAddress() + 
-                    ". Please add and approve regex patterns for this bank first.");
-        }
-
-        // Try each approved pattern until a match is found
-        TransactionExtractionResultDto extractionResult = null;
-        for (RegexLog regexLog : approvedPatterns) {
-            extractionResult = tryExtractWithPattern(requestDto.getMessage(), regexLog);
-            if (extractionResult.isMatchFound()) {
-                // First match found, use it
-                break;
-            }
-        }
+        Transaction transaction = extractTransaction(user, requestDto.getBankAddress(), requestDto.getMessage());
 
         // If no match found, return response indicating no match
-        if (extractionResult == null || !extractionResult.isMatchFound()) {
+        if (transaction == null) {
             TransactionResponseDto response = new TransactionResponseDto();
             response.setMatchFound(false);
             response.setOriginalMessage(requestDto.getMessage());
@@ -78,19 +93,90 @@ public class TransactionServiceImpl implements TransactionService {
             return response;
         }
 
-        // Create and save transaction entity
-        Transaction transaction = createTransactionFromExtraction(extractionResult, user, requestDto.getBankAddress());
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        // Same message stored before (e.g. from a backup import): answer with the existing transaction
+        Transaction stored = transactionDeduplicator.findStored(user.getId(), List.of(transaction.getDedupKey()))
+                .get(transaction.getDedupKey());
+        if (stored != null) {
+            return duplicateResponse(stored);
+        }
+
+        Transaction savedTransaction;
+        try {
+            savedTransaction = groupCommitWriter.isEnabled()
+                    ? insertWithGroup(transaction)
+                    : transactionRepository.save(transaction);
+        } catch (DataIntegrityViolationException e) {
+            // Maybe stored by a concurrent request between the dedup check and the insert; its key may not be
+            // in the filter yet, so ask the database
+            List<Transaction> concurrent = transactionRepository.findByUserIdAndDedupKeyIn(user.getId(), List.of(transaction.getDedupKey()));
+            if (concurrent.isEmpty()) {
+                throw e;
+            }
+            return duplicateResponse(concurrent.get(0));
+        }
+        transactionDeduplicator.recordStored(List.of(savedTransaction));
 
         return convertToDto(savedTransaction);
     }
 
     /**
-     * Process each message in its own separate transaction to avoid rollback-only errors
+     * Insert through the group commit writer; waits until the row's group is committed.
+     * When the writer has too many rows waiting, the row is inserted directly instead.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public TransactionResponseDto processMessageInNewTransaction(TransactionMessageRequestDto requestDto) {
-        return processMessage(requestDto);
+    private Transaction insertWithGroup(Transaction transaction) {
+        TransactionBatchWriter.WriteResult write;
+        try {
+            write = groupCommitWriter.insert(transaction);
+        } catch (RejectedExecutionException e) {
+            return transactionRepository.save(transaction);
+        }
+        if (!write.isSaved()) {
+            throw new DataIntegrityViolationException("Could not store the transaction: " + write.getError());
+        }
+        return write.getTransaction();
+    }
+
+    private TransactionResponseDto duplicateResponse(Transaction stored) {
+        TransactionResponseDto response = convertToDto(stored);
+        response.setDuplicate(true);
+        return response;
+    }
+
+    /**
+     * Match a message against the bank's approved patterns and build the (unsaved) transaction
+     * @return the transaction to store, or null if no approved pattern matched
+     */
+    private Transaction extractTransaction(User user, String bankAddress, String message) {
+        return matchTransaction(user, bankAddress, resolvePatterns(bankAddress), message);
+    }
+
+    /**
+     * Approved patterns for a bank address (served from memory)
+     * @throws IllegalArgumentException if the bank address is missing
+     * @throws IllegalStateException if the bank has no approved patterns
+     */
+    private BankPatternSet resolvePatterns(String bankAddress) {
+        // Validate bankAddress is provided
+        if (bankAddress == null || bankAddress.isBlank()) {
+            throw new IllegalArgumentException("Bank address is required for processing transactions");
+        }
+
+        BankPatternSet approvedPatterns = approvedPatternRegistry.getPatterns(bankAddress);
+
+        if (approvedPatterns.isEmpty()) {
+            throw new IllegalStateException("No approved regex patterns found for bank address: " + bankAddress + 
+                    ". Please add and approve regex patterns for this bank first.");
+        }
+        return approvedPatterns;
+    }
+
+    private Transaction matchTransaction(User user, String bankAddress, BankPatternSet approvedPatterns, String message) {
+        // Try each approved pattern until a match is found
+        TransactionExtractionResultDto extractionResult = messageMatcher.match(approvedPatterns, message);
+        if (!extractionResult.isMatchFound()) {
+            return null;
+        }
+        return createTransactionFromExtraction(extractionResult, user, bankAddress);
     }
 
     @Override
@@ -100,8 +186,9 @@ public class TransactionServiceImpl implements TransactionService {
         List<BulkMessageProcessResponseDto.FailedMessageDto> failedMessages = new ArrayList<>();
 
         // Validate user exists first
+        User user;
         try {
-            userRepository.findById(requestDto.getUserId())
+            user = userRepository.findById(requestDto.getUserId())
                     .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + requestDto.getUserId()));
         } catch (IllegalArgumentException e) {
             response.setTotalMessages(requestDto.getMessages() != null ? requestDto.getMessages().size() : 0);
@@ -127,38 +214,15 @@ public class TransactionServiceImpl implements TransactionService {
         int totalMessages = requestDto.getMessages() != null ? requestDto.getMessages().size() : 0;
         response.setTotalMessages(totalMessages);
 
-        // Process each message
         if (requestDto.getMessages() != null) {
-            for (BulkMessageProcessRequestDto.MessageBankAddressPair messagePair : requestDto.getMessages()) {
-                try {
-                    // Create individual request DTO for each message
-                    TransactionMessageRequestDto singleMessageDto = new TransactionMessageRequestDto();
-                    singleMessageDto.setMessage(messagePair.getMessage());
-                    singleMessageDto.setBankAddress(messagePair.getBankAddress());
-                    singleMessageDto.setUserId(requestDto.getUserId());
-
-                    // Process the message using separate transaction for each message
-                    TransactionResponseDto transactionResponse = processMessageInNewTransaction(singleMessageDto);
-
-                    if (transactionResponse.isMatchFound()) {
-                        successfulTransactions.add(transactionResponse);
-                    } else {
-                        // No match found for this message
-                        BulkMessageProcessResponseDto.FailedMessageDto failedMsg = new BulkMessageProcessResponseDto.FailedMessageDto();
-                        failedMsg.setMessage(messagePair.getMessage());
-                        failedMsg.setBankAddress(messagePair.getBankAddress());
-                        failedMsg.setError("No approved regex pattern matched the message");
-                        failedMsg.setMatchFound(false);
-                        failedMessages.add(failedMsg);
-                    }
-                } catch (Exception e) {
-                    // Any error during processing of this message
-                    BulkMessageProcessResponseDto.FailedMessageDto failedMsg = new BulkMessageProcessResponseDto.FailedMessageDto();
-                    failedMsg.setMessage(messagePair.getMessage());
-                    failedMsg.setBankAddress(messagePair.getBankAddress());
-                    failedMsg.setError(e.getMessage());
-                    failedMsg.setMatchFound(false);
-                    failedMessages.add(failedMsg);
+            List<BulkIngestResultDto> results = processBatch(
+                    Collections.nCopies(requestDto.getMessages().size(), user), requestDto.getMessages());
+            for (int i = 0; i < results.size(); i++) {
+                BulkIngestResultDto result = results.get(i);
+                if (result.isSuccess()) {
+                    successfulTransactions.add(result.getTransaction());
+                } else {
+                    failedMessages.add(failedMessage(requestDto.getMessages().get(i), result.getError()));
                 }
             }
         }
@@ -171,49 +235,339 @@ public class TransactionServiceImpl implements TransactionService {
         return response;
     }
 
+    @Override
+    public List<BulkIngestResultDto> processMessageBatch(Long userId, List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+        return processBatch(Collections.nCopies(messages.size(), user), messages);
+    }
+
+    @Override
+    public BulkMessageProcessResponseDto processMultiUserBulkMessages(MultiUserBulkMessageRequestDto requestDto) {
+        List<MultiUserBulkMessageRequestDto.UserMessage> messages =
+                requestDto.getMessages() != null ? requestDto.getMessages() : List.of();
+        List<BulkEntryOutcome> rows = processMultiUserRows(messages);
+
+        List<TransactionResponseDto> successfulTransactions = new ArrayList<>();
+        List<BulkMessageProcessResponseDto.FailedMessageDto> failedMessages = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            MultiUserBulkMessageRequestDto.UserMessage userMessage = messages.get(i);
+            String error = rows.get(i).error;
+            if (error == null) {
+                try {
+                    successfulTransactions.add(convertToDto(rows.get(i).transaction));
+                    continue;
+                } catch (Exception e) {
+                    error = e.getMessage();
+                }
+            }
+            BulkMessageProcessResponseDto.FailedMessageDto failedMsg = failedMessage(
+                    new BulkMessageProcessRequestDto.MessageBankAddressPair(userMessage.getMessage(), userMessage.getBankAddress()), error);
+            failedMsg.setUserId(userMessage.getUserId());
+            failedMessages.add(failedMsg);
+        }
+
+        return new BulkMessageProcessResponseDto(messages.size(), successfulTransactions.size(), failedMessages.size(),
+                successfulTransactions, failedMessages);
+    }
+
+    @Override
+    public CompactBulkResponseDto processBulkMessagesCompact(BulkMessageProcessRequestDto requestDto) {
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages =
+                requestDto.getMessages() != null ? requestDto.getMessages() : List.of();
+        Optional<User> user = userRepository.findById(requestDto.getUserId());
+        if (user.isEmpty()) {
+            return toCompactResponse(Collections.nCopies(messages.size(), BulkEntryOutcome.failed(
+                    BulkErrorCode.USER_NOT_FOUND, "User not found with id: " + requestDto.getUserId())));
+        }
+        return toCompactResponse(processRows(Collections.nCopies(messages.size(), user.get()), messages));
+    }
+
+    @Override
+    public CompactBulkResponseDto processMultiUserBulkMessagesCompact(MultiUserBulkMessageRequestDto requestDto) {
+        return toCompactResponse(processMultiUserRows(
+                requestDto.getMessages() != null ? requestDto.getMessages() : List.of()));
+    }
+
     /**
-     * Try to extract transaction data using a specific regex pattern
+     * Validate every user with a single query and run the messages of valid users through one shared batch.
+     * Returns one outcome per message, in input order; messages of missing or unknown users fail up front.
      */
-    private TransactionExtractionResultDto tryExtractWithPattern(String message, RegexLog regexLog) {
-        TransactionExtractionResultDto result = new TransactionExtractionResultDto();
-        result.setOriginalMessage(message);
-        result.setRegexPatternId(regexLog.getId());
+    private List<BulkEntryOutcome> processMultiUserRows(List<MultiUserBulkMessageRequestDto.UserMessage> messages) {
+        Set<Long> userIds = new HashSet<>();
+        for (MultiUserBulkMessageRequestDto.UserMessage userMessage : messages) {
+            if (userMessage.getUserId() != null) {
+                userIds.add(userMessage.getUserId());
+            }
+        }
+        Map<Long, User> usersById = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (User user : userRepository.findAllById(userIds)) {
+                usersById.put(user.getId(), user);
+            }
+        }
 
-        try {
-            Pattern pattern = Pattern.compile(regexLog.getPattern(), Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(message);
-
-            if (matcher.find()) {
-                result.setMatchFound(true);
-                result.setAccountNumber(getGroup(matcher, "accountNumber"));
-                result.setTransactionType(getGroup(matcher, "transactionType"));
-                result.setAmount(getGroup(matcher, "amount"));
-                result.setDate(getGroup(matcher, "date"));
-                result.setVia(getGroup(matcher, "via"));
-                result.setTo(getGroup(matcher, "to"));
-                result.setAvailableBalance(getGroup(matcher, "availableBalance"));
-                result.setReferenceNumber(getGroup(matcher, "referenceNumber"));
+        BulkEntryOutcome[] userFailures = new BulkEntryOutcome[messages.size()];
+        List<User> batchUsers = new ArrayList<>(messages.size());
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> batchMessages = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            MultiUserBulkMessageRequestDto.UserMessage userMessage = messages.get(i);
+            User user = userMessage.getUserId() != null ? usersById.get(userMessage.getUserId()) : null;
+            if (userMessage.getUserId() == null) {
+                userFailures[i] = BulkEntryOutcome.failed(BulkErrorCode.USER_ID_REQUIRED, "User ID is required");
+            } else if (user == null) {
+                userFailures[i] = BulkEntryOutcome.failed(BulkErrorCode.USER_NOT_FOUND,
+                        "User not found with id: " + userMessage.getUserId());
             } else {
-                result.setMatchFound(false);
+                batchUsers.add(user);
+                batchMessages.add(new BulkMessageProcessRequestDto.MessageBankAddressPair(
+                        userMessage.getMessage(), userMessage.getBankAddress()));
             }
-        } catch (Exception e) {
-            // Pattern compilation or matching failed
-            result.setMatchFound(false);
         }
 
-        return result;
+        Iterator<BulkEntryOutcome> batchRows = processRows(batchUsers, batchMessages).iterator();
+        List<BulkEntryOutcome> rows = new ArrayList<>(messages.size());
+        for (BulkEntryOutcome userFailure : userFailures) {
+            rows.add(userFailure != null ? userFailure : batchRows.next());
+        }
+        return rows;
     }
 
     /**
-     * Safe named-group extraction from regex matcher
+     * Ids of the stored rows plus (index, code) of the failed ones; no DTO conversion per transaction
      */
-    private String getGroup(Matcher matcher, String name) {
-        try {
-            String value = matcher.group(name);
-            return (value != null && !value.isBlank()) ? value.trim() : null;
-        } catch (IllegalArgumentException e) {
-            // Group name doesn't exist in pattern
-            return null;
+    private CompactBulkResponseDto toCompactResponse(List<BulkEntryOutcome> rows) {
+        int failed = 0;
+        for (BulkEntryOutcome row : rows) {
+            if (row.error != null) {
+                failed++;
+            }
+        }
+        long[] transactionIds = new long[rows.size() - failed];
+        int[] failedIndexes = new int[failed];
+        BulkErrorCode[] errorCodes = new BulkErrorCode[failed];
+        int saved = 0;
+        failed = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            BulkEntryOutcome row = rows.get(i);
+            if (row.error == null) {
+                transactionIds[saved++] = row.transaction.getId();
+            } else {
+                failedIndexes[failed] = i;
+                errorCodes[failed++] = row.errorCode;
+            }
+        }
+        return new CompactBulkResponseDto(rows.size(), transactionIds.length, failedIndexes.length,
+                transactionIds, failedIndexes, errorCodes);
+    }
+
+    /**
+     * Process a batch and build one BulkIngestResultDto per message, in input order; index is the position within this batch.
+     */
+    private List<BulkIngestResultDto> processBatch(List<User> users, List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages) {
+        List<BulkEntryOutcome> rows = processRows(users, messages);
+        List<BulkIngestResultDto> results = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            BulkMessageProcessRequestDto.MessageBankAddressPair messagePair = messages.get(i);
+            BulkEntryOutcome row = rows.get(i);
+            if (row.error != null) {
+                results.add(failedResult(i, messagePair, row.error));
+                continue;
+            }
+            try {
+                results.add(new BulkIngestResultDto(i, true, messagePair.getMessage(), messagePair.getBankAddress(),
+                        null, convertToDto(row.transaction)));
+            } catch (Exception e) {
+                results.add(failedResult(i, messagePair, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Match every message for its user (users.get(i) owns messages.get(i)), then store the matched ones in
+     * chunked commits. Returns exactly one outcome per message, in input order: the saved transaction or the error.
+     *
+     * Messages are grouped by bank address so each bank's pattern set is resolved once per batch. The
+     * groups are matched on the bounded bulk worker pool; a group much larger than its share of the batch
+     * is split so a batch dominated by one bank still uses every worker. Matched messages the user already
+     * has are dropped as duplicates before anything is written.
+     */
+    private List<BulkEntryOutcome> processRows(List<User> users, List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages) {
+        BulkEntryOutcome[] outcomes = new BulkEntryOutcome[messages.size()];
+        List<BankPartition> partitions = partitionByBank(messages, outcomes);
+        List<List<BulkEntryOutcome>> matched = bulkIngestExecutor.mapInOrder(partitions,
+                partition -> matchPartition(users, partition, messages));
+        for (int p = 0; p < partitions.size(); p++) {
+            List<Integer> indexes = partitions.get(p).indexes;
+            for (int i = 0; i < indexes.size(); i++) {
+                outcomes[indexes.get(i)] = matched.get(p).get(i);
+            }
+        }
+        markDuplicates(outcomes);
+
+        List<Transaction> pending = new ArrayList<>();
+        for (BulkEntryOutcome outcome : outcomes) {
+            if (outcome.transaction != null) {
+                pending.add(outcome.transaction);
+            }
+        }
+        Iterator<TransactionBatchWriter.WriteResult> writes = transactionBatchWriter.writeAll(pending).iterator();
+
+        List<BulkEntryOutcome> rows = new ArrayList<>(outcomes.length);
+        List<Transaction> saved = new ArrayList<>(pending.size());
+        for (BulkEntryOutcome outcome : outcomes) {
+            if (outcome.error != null) {
+                rows.add(outcome);
+                continue;
+            }
+            TransactionBatchWriter.WriteResult write = writes.next();
+            if (write.isSaved()) {
+                rows.add(outcome);
+                saved.add(outcome.transaction);
+            } else {
+                rows.add(BulkEntryOutcome.failed(write.isDuplicate() ? BulkErrorCode.DUPLICATE
+                        : write.isInvalid() ? BulkErrorCode.INVALID_DATA
+                        : BulkErrorCode.WRITE_FAILED, write.getError()));
+            }
+        }
+        transactionDeduplicator.recordStored(saved);
+        return rows;
+    }
+
+    /**
+     * Fail matched messages the user already has: repeated earlier in this batch, or stored before.
+     * Stored keys are looked up through the dedup filter, so a batch of new messages costs no query.
+     */
+    private void markDuplicates(BulkEntryOutcome[] outcomes) {
+        Map<Long, Map<String, Integer>> firstIndexByUser = new LinkedHashMap<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            Transaction transaction = outcomes[i].transaction;
+            if (transaction == null) {
+                continue;
+            }
+            Integer first = firstIndexByUser.computeIfAbsent(transaction.getUser().getId(), id -> new HashMap<>())
+                    .putIfAbsent(transaction.getDedupKey(), i);
+            if (first != null) {
+                outcomes[i] = BulkEntryOutcome.failed(BulkErrorCode.DUPLICATE, "Duplicate of an earlier message in this request");
+            }
+        }
+        for (Map.Entry<Long, Map<String, Integer>> user : firstIndexByUser.entrySet()) {
+            Map<String, Transaction> stored = transactionDeduplicator.findStored(user.getKey(), user.getValue().keySet());
+            for (Map.Entry<String, Transaction> duplicate : stored.entrySet()) {
+                outcomes[user.getValue().get(duplicate.getKey())] = BulkEntryOutcome.failed(BulkErrorCode.DUPLICATE,
+                        "Already stored as transaction " + duplicate.getValue().getId());
+            }
+        }
+    }
+
+    /**
+     * Group message indexes by bank address and resolve each bank's patterns once. Messages of a bank that
+     * cannot be matched at all (no address, no approved patterns) get their failed outcome right away.
+     */
+    private List<BankPartition> partitionByBank(List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages,
+                                                BulkEntryOutcome[] outcomes) {
+        Map<String, List<Integer>> indexesByBank = new LinkedHashMap<>();
+        for (int i = 0; i < messages.size(); i++) {
+            indexesByBank.computeIfAbsent(messages.get(i).getBankAddress(), bank -> new ArrayList<>()).add(i);
+        }
+
+        int partitionSize = Math.max(MIN_PARTITION_SIZE,
+                (messages.size() + bulkIngestExecutor.getParallelism() - 1) / bulkIngestExecutor.getParallelism());
+        List<BankPartition> partitions = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> bank : indexesByBank.entrySet()) {
+            BankPatternSet patterns;
+            try {
+                patterns = resolvePatterns(bank.getKey());
+            } catch (Exception e) {
+                BulkErrorCode errorCode = e instanceof IllegalArgumentException ? BulkErrorCode.BANK_ADDRESS_REQUIRED
+                        : e instanceof IllegalStateException ? BulkErrorCode.NO_APPROVED_PATTERNS
+                        : BulkErrorCode.PROCESSING_ERROR;
+                BulkEntryOutcome failed = BulkEntryOutcome.failed(errorCode, e.getMessage());
+                bank.getValue().forEach(index -> outcomes[index] = failed);
+                continue;
+            }
+            List<Integer> indexes = bank.getValue();
+            for (int start = 0; start < indexes.size(); start += partitionSize) {
+                partitions.add(new BankPartition(bank.getKey(), patterns,
+                        indexes.subList(start, Math.min(start + partitionSize, indexes.size()))));
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Match one partition; failures are captured per message so one bad message never affects another
+     */
+    private List<BulkEntryOutcome> matchPartition(List<User> users, BankPartition partition,
+                                                  List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages) {
+        List<BulkEntryOutcome> outcomes = new ArrayList<>(partition.indexes.size());
+        for (int index : partition.indexes) {
+            try {
+                Transaction transaction = matchTransaction(users.get(index), partition.bankAddress, partition.patterns,
+                        messages.get(index).getMessage());
+                // No match found for this message
+                outcomes.add(transaction != null
+                        ? BulkEntryOutcome.matched(transaction)
+                        : BulkEntryOutcome.failed(BulkErrorCode.NO_MATCH, "No approved regex pattern matched the message"));
+            } catch (Exception e) {
+                // Any error during processing of this message
+                outcomes.add(BulkEntryOutcome.failed(BulkErrorCode.PROCESSING_ERROR, e.getMessage()));
+            }
+        }
+        return outcomes;
+    }
+
+    private BulkIngestResultDto failedResult(long index, BulkMessageProcessRequestDto.MessageBankAddressPair messagePair, String error) {
+        return new BulkIngestResultDto(index, false, messagePair.getMessage(), messagePair.getBankAddress(), error, null);
+    }
+
+    private BulkMessageProcessResponseDto.FailedMessageDto failedMessage(
+            BulkMessageProcessRequestDto.MessageBankAddressPair messagePair, String error) {
+        BulkMessageProcessResponseDto.FailedMessageDto failedMsg = new BulkMessageProcessResponseDto.FailedMessageDto();
+        failedMsg.setMessage(messagePair.getMessage());
+        failedMsg.setBankAddress(messagePair.getBankAddress());
+        failedMsg.setError(error);
+        failedMsg.setMatchFound(false);
+        return failedMsg;
+    }
+
+    /**
+     * Messages of one bank (by index into the batch) and the pattern set resolved for them
+     */
+    private static final class BankPartition {
+        private final String bankAddress;
+        private final BankPatternSet patterns;
+        private final List<Integer> indexes;
+
+        private BankPartition(String bankAddress, BankPatternSet patterns, List<Integer> indexes) {
+            this.bankAddress = bankAddress;
+            this.patterns = patterns;
+            this.indexes = indexes;
+        }
+    }
+
+    /**
+     * Result of one bulk message: its transaction (pending until written, then saved) or the error.
+     * Exactly one of transaction / error is set.
+     */
+    private static final class BulkEntryOutcome {
+        private final Transaction transaction;
+        private final String error;
+        private final BulkErrorCode errorCode;
+
+        private BulkEntryOutcome(Transaction transaction, String error, BulkErrorCode errorCode) {
+            this.transaction = transaction;
+            this.error = error;
+            this.errorCode = errorCode;
+        }
+
+        private static BulkEntryOutcome matched(Transaction transaction) {
+            return new BulkEntryOutcome(transaction, null, null);
+        }
+
+        private static BulkEntryOutcome failed(BulkErrorCode errorCode, String error) {
+            return new BulkEntryOutcome(null, error, errorCode);
         }
     }
 
@@ -247,6 +601,8 @@ public class TransactionServiceImpl implements TransactionService {
         
         // Auto-categorize based on transaction type and other fields
         transaction.setCategory(autoCategorize(transaction));
+
+        transaction.setDedupKey(TransactionDedupKey.of(transaction));
         
         return transaction;
     }
@@ -153,6 +153,9 @@ class RegexLogTest {
                 "credited",
                 "Income",
                 "Merchant",
+                20,
+                null,
+                150L,
                 now,
                 now
         );
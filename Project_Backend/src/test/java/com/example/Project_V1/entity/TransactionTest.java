@@ -130,6 +130,7 @@ class TransactionTest {
                 true,
                 1L,
                 "HDFC-BANK",
+                "r:dedup",
                 now,
                 now
         );
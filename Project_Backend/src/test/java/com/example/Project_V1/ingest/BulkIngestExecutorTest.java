@@ -0,0 +1,63 @@
+package com.example.Project_V1.ingest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkIngestExecutorTest {
+
+    private final BulkIngestExecutor executor = new BulkIngestExecutor(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void mapInOrder_ResultsFollowInputOrderAndUseWorkers() {
+        List<Integer> items = IntStream.range(0, 200).boxed().toList();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<Integer> results = executor.mapInOrder(items, item -> {
+            threads.add(Thread.currentThread().getName());
+            if (item % 7 == 0) {
+                Thread.onSpinWait();
+            }
+            return item * 2;
+        });
+
+        assertEquals(IntStream.range(0, 200).map(i -> i * 2).boxed().toList(), results);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("bulk-ingest-")));
+    }
+
+    @Test
+    void mapInOrder_SingleWorkerRunsOnCallerThread() {
+        BulkIngestExecutor sequential = new BulkIngestExecutor(1);
+        String caller = Thread.currentThread().getName();
+
+        List<String> results = sequential.mapInOrder(List.of("a", "b"), item -> Thread.currentThread().getName());
+
+        assertEquals(List.of(caller, caller), results);
+    }
+
+    @Test
+    void mapInOrder_EscapingExceptionIsRethrown() {
+        assertThrows(IllegalArgumentException.class, () -> executor.mapInOrder(List.of(1, 2, 3), item -> {
+            if (item == 2) {
+                throw new IllegalArgumentException("bad item");
+            }
+            return item;
+        }));
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkIngestExecutor(0));
+    }
+}
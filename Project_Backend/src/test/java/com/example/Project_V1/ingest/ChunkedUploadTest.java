@@ -0,0 +1,101 @@
+package com.example.Project_V1.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedUploadTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_RetriedChunkOnlyAddsBytesPastCommittedOffset() throws Exception {
+        ChunkedUpload upload = upload();
+
+        assertEquals(6, upload.append(0, bytes("hello ")));
+        // Retry of a chunk that partly landed already
+        assertEquals(11, upload.append(3, bytes("lo world")));
+        // Full replay of a committed chunk changes nothing
+        assertEquals(11, upload.append(0, bytes("hello ")));
+        upload.finish(11L);
+
+        try (InputStream stream = upload.openStream()) {
+            assertEquals("hello world", new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void append_RejectsGapsAndClosedUploads() throws Exception {
+        ChunkedUpload upload = upload();
+        upload.append(0, bytes("abc"));
+
+        IllegalStateException gap = assertThrows(IllegalStateException.class, () -> upload.append(5, bytes("x")));
+        assertTrue(gap.getMessage().contains("committed offset 3"), gap.getMessage());
+        assertThrows(IllegalStateException.class, () -> upload.finish(10L));
+
+        upload.finish(null);
+        assertThrows(IllegalStateException.class, () -> upload.append(3, bytes("d")));
+    }
+
+    @Test
+    void openStream_ReadsChunksAsTheyAreCommitted() throws Exception {
+        ChunkedUpload upload = upload();
+        InputStream stream = upload.openStream();
+        CompletableFuture<String> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        upload.append(0, bytes("first "));
+        Thread.sleep(50);
+        assertFalse(reader.isDone());
+        upload.append(6, bytes("second"));
+        upload.finish(null);
+
+        assertEquals("first second", reader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void abort_FailsWaitingReaderAndCloseDeletesFile() throws Exception {
+        Path file = Files.createTempFile(directory, "upload-", ".ndjson");
+        ChunkedUpload upload = new ChunkedUpload("u1", 1L, file);
+        InputStream stream = upload.openStream();
+        CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return stream.read();
+            } catch (IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+
+        upload.abort("client went away");
+
+        Exception e = assertThrows(Exception.class, () -> reader.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause().getMessage().contains("client went away"));
+        stream.close();
+        assertFalse(Files.exists(file));
+        assertThrows(IllegalStateException.class, () -> upload.append(0, bytes("late")));
+    }
+
+    private ChunkedUpload upload() throws IOException {
+        return new ChunkedUpload("u1", 1L, Files.createTempFile(directory, "upload-", ".ndjson"));
+    }
+
+    private static InputStream bytes(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
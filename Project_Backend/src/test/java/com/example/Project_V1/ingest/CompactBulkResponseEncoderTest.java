@@ -0,0 +1,33 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.enums.BulkErrorCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBulkResponseEncoderTest {
+
+    @Test
+    void encode_WritesHeaderThenColumns() {
+        CompactBulkResponseDto response = new CompactBulkResponseDto(4, 2, 2,
+                new long[]{100L, 7_000_000_000L}, new int[]{1, 3},
+                new BulkErrorCode[]{BulkErrorCode.NO_MATCH, BulkErrorCode.WRITE_FAILED});
+
+        ByteBuffer encoded = ByteBuffer.wrap(CompactBulkResponseEncoder.encode(response));
+
+        assertEquals(16 + 2 * 8 + 2 * 4 + 2, encoded.remaining());
+        assertEquals(CompactBulkResponseEncoder.FORMAT_VERSION, encoded.getInt());
+        assertEquals(4, encoded.getInt());
+        assertEquals(2, encoded.getInt());
+        assertEquals(2, encoded.getInt());
+        assertEquals(100L, encoded.getLong());
+        assertEquals(7_000_000_000L, encoded.getLong());
+        assertEquals(1, encoded.getInt());
+        assertEquals(3, encoded.getInt());
+        assertEquals(BulkErrorCode.NO_MATCH.ordinal(), encoded.get());
+        assertEquals(BulkErrorCode.WRITE_FAILED.ordinal(), encoded.get());
+    }
+}
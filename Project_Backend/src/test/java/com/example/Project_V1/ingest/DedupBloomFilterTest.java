@@ -0,0 +1,43 @@
+package com.example.Project_V1.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DedupBloomFilterTest {
+
+    @Test
+    void mightContain_NeverMissesAKeyThatWasPut() {
+        DedupBloomFilter filter = new DedupBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("m:" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("m:" + i));
+        }
+    }
+
+    @Test
+    void mightContain_FalsePositivesStayNearTheTargetRate() {
+        DedupBloomFilter filter = new DedupBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("m:" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("r:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void constructor_RejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new DedupBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new DedupBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DedupBloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitWriterTest {
+
+    @Mock
+    private TransactionBatchWriter transactionBatchWriter;
+
+    private final List<Integer> groupSizes = new ArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private GroupCommitWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void insert_ConcurrentRowsShareOneWrite() throws Exception {
+        savingWithIds();
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 500, 3, 2, 10000, 30000);
+        writer.start();
+
+        List<Future<TransactionBatchWriter.WriteResult>> results = insertConcurrently(3);
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<TransactionBatchWriter.WriteResult> result : results) {
+            TransactionBatchWriter.WriteResult write = result.get(5, TimeUnit.SECONDS);
+            assertTrue(write.isSaved());
+            ids.add(write.getTransaction().getId());
+        }
+        assertEquals(List.of(3), groupSizes);
+        assertEquals(3, ids.stream().distinct().count());
+    }
+
+    @Test
+    void insert_GroupsAreCappedAtMaxRows() throws Exception {
+        savingWithIds();
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 50, 2, 2, 10000, 30000);
+        writer.start();
+
+        for (Future<TransactionBatchWriter.WriteResult> result : insertConcurrently(4)) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isSaved());
+        }
+
+        synchronized (groupSizes) {
+            assertTrue(groupSizes.stream().allMatch(size -> size <= 2), groupSizes.toString());
+            assertEquals(4, groupSizes.stream().mapToInt(Integer::intValue).sum());
+        }
+    }
+
+    @Test
+    void insert_WriteFailureReachesEveryCallerOfTheGroup() {
+        when(transactionBatchWriter.writeAll(anyList())).thenThrow(new IllegalStateException("pool exhausted"));
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 0, 10, 2, 10000, 30000);
+        writer.start();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> writer.insert(new Transaction()));
+        assertEquals("pool exhausted", e.getMessage());
+    }
+
+    @Test
+    void insert_NextGroupIsWrittenWhileAnEarlierOneIsStillWriting() throws Exception {
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        when(transactionBatchWriter.writeAll(anyList())).thenAnswer(invocation -> {
+            if (writes.incrementAndGet() == 1) {
+                firstWriteStarted.countDown();
+                assertTrue(releaseFirstWrite.await(5, TimeUnit.SECONDS));
+            }
+            return savedAll(invocation.getArgument(0));
+        });
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 0, 10, 2, 10000, 30000);
+        writer.start();
+
+        Future<TransactionBatchWriter.WriteResult> slow = insertConcurrently(1).get(0);
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+        Future<TransactionBatchWriter.WriteResult> fast = insertConcurrently(1).get(0);
+
+        assertTrue(fast.get(5, TimeUnit.SECONDS).isSaved());
+        assertFalse(slow.isDone());
+        releaseFirstWrite.countDown();
+        assertTrue(slow.get(5, TimeUnit.SECONDS).isSaved());
+    }
+
+    @Test
+    void insert_RejectedWhenTooManyRowsArePending() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        when(transactionBatchWriter.writeAll(anyList())).thenAnswer(invocation -> {
+            writeStarted.countDown();
+            assertTrue(releaseWrite.await(5, TimeUnit.SECONDS));
+            return savedAll(invocation.getArgument(0));
+        });
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 0, 10, 2, 1, 30000);
+        writer.start();
+
+        Future<TransactionBatchWriter.WriteResult> pending = insertConcurrently(1).get(0);
+        assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+        assertThrows(RejectedExecutionException.class, () -> writer.insert(new Transaction()));
+        releaseWrite.countDown();
+        assertTrue(pending.get(5, TimeUnit.SECONDS).isSaved());
+    }
+
+    @Test
+    void insert_WaitIsBounded() {
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        when(transactionBatchWriter.writeAll(anyList())).thenAnswer(invocation -> {
+            releaseWrite.await(5, TimeUnit.SECONDS);
+            return savedAll(invocation.getArgument(0));
+        });
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 0, 10, 2, 10000, 50);
+        writer.start();
+
+        try {
+            assertThrows(QueryTimeoutException.class, () -> writer.insert(new Transaction()));
+        } finally {
+            releaseWrite.countDown();
+        }
+    }
+
+    @Test
+    void insert_ErrorDuringWriteFailsTheCallersInsteadOfHangingThem() {
+        when(transactionBatchWriter.writeAll(anyList())).thenThrow(new AssertionError("driver bug"));
+        writer = new GroupCommitWriter(transactionBatchWriter, true, 0, 10, 2, 10000, 5000);
+        writer.start();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> writer.insert(new Transaction()));
+        assertInstanceOf(AssertionError.class, e.getCause());
+    }
+
+    @Test
+    void insert_RejectedWhenNotRunning() {
+        writer = new GroupCommitWriter(transactionBatchWriter, false, 5, 10, 2, 10000, 30000);
+        writer.start();
+
+        assertFalse(writer.isEnabled());
+        assertThrows(IllegalStateException.class, () -> writer.insert(new Transaction()));
+        verifyNoInteractions(transactionBatchWriter);
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new GroupCommitWriter(transactionBatchWriter, true, -1, 10, 2, 10000, 30000));
+        assertThrows(IllegalArgumentException.class, () -> new GroupCommitWriter(transactionBatchWriter, true, 5, 0, 2, 10000, 30000));
+    }
+
+    private void savingWithIds() {
+        when(transactionBatchWriter.writeAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> transactions = invocation.getArgument(0);
+            synchronized (groupSizes) {
+                groupSizes.add(transactions.size());
+            }
+            return savedAll(transactions);
+        });
+    }
+
+    private List<TransactionBatchWriter.WriteResult> savedAll(List<Transaction> transactions) {
+        List<TransactionBatchWriter.WriteResult> results = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            transaction.setId(nextId.getAndIncrement());
+            results.add(TransactionBatchWriter.WriteResult.saved(transaction));
+        }
+        return results;
+    }
+
+    private List<Future<TransactionBatchWriter.WriteResult>> insertConcurrently(int count) {
+        List<Future<TransactionBatchWriter.WriteResult>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setOriginalMessage("message " + i);
+            results.add(callers.submit(() -> writer.insert(transaction)));
+        }
+        return results;
+    }
+}
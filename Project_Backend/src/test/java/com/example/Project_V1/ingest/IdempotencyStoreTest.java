@@ -0,0 +1,103 @@
+package com.example.Project_V1.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    @Test
+    void execute_ReplayReturnsFirstResultWithoutRunningAgain() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofHours(1), 10);
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = store.execute("1:abc", "request", () -> "result " + runs.incrementAndGet());
+        String replay = store.execute("1:abc", "request", () -> "result " + runs.incrementAndGet());
+
+        assertEquals("result 1", first);
+        assertEquals("result 1", replay);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicateWaitsForTheFirstExecution() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofHours(1), 10);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> store.execute("1:abc", "request", () -> {
+                started.countDown();
+                await(release);
+                return runs.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> duplicate = executor.submit(() -> store.execute("1:abc", "request", runs::incrementAndGet));
+
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_FailureReleasesTheKey() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofHours(1), 10);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("1:abc", "request", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("retried", store.execute("1:abc", "request", () -> "retried"));
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequestIsRejected() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofHours(1), 10);
+        store.execute("1:abc", "request", () -> "result");
+
+        assertThrows(IllegalArgumentException.class, () -> store.execute("1:abc", "other request", () -> "other"));
+    }
+
+    @Test
+    void execute_ExpiredAndEvictedKeysRunAgain() throws InterruptedException {
+        IdempotencyStore expiring = new IdempotencyStore(Duration.ofMillis(20), 10);
+        expiring.execute("1:abc", "request", () -> "first");
+        Thread.sleep(40);
+        assertEquals("second", expiring.execute("1:abc", "request", () -> "second"));
+
+        IdempotencyStore bounded = new IdempotencyStore(Duration.ofHours(1), 1);
+        bounded.execute("1:a", "request", () -> "first");
+        bounded.execute("1:b", "request", () -> "other");
+        assertEquals("second", bounded.execute("1:a", "request", () -> "second"));
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(Duration.ofHours(1), 0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.Project_V1.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_EntriesAreReadBackInOrder() throws IOException {
+        try (IngestLog log = IngestLog.open(directory, 1024)) {
+            long first = log.append(bytes("one"));
+            long second = log.append(bytes("two"));
+
+            List<IngestLog.Entry> entries = log.read(first, 10);
+
+            assertEquals(2, entries.size());
+            assertEquals(second, entries.get(0).getNextOffset());
+            assertEquals("one", text(entries.get(0)));
+            assertEquals("two", text(entries.get(1)));
+            assertEquals(log.getEndOffset(), entries.get(1).getNextOffset());
+            assertEquals(1, log.read(first, 1).size());
+        }
+    }
+
+    @Test
+    void append_RotatesSegmentsAndReadsAcrossThem() throws IOException {
+        try (IngestLog log = IngestLog.open(directory, 40)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(bytes("message-" + i)); // 8 byte header + 9 bytes: two per segment
+            }
+
+            assertEquals(3, log.getSegmentCount());
+            List<String> read = new ArrayList<>();
+            log.read(0, 10).forEach(entry -> read.add(text(entry)));
+            assertEquals(List.of("message-0", "message-1", "message-2", "message-3", "message-4"), read);
+        }
+    }
+
+    @Test
+    void commit_DeletesConsumedSegmentsAndSurvivesReopen() throws IOException {
+        long third;
+        try (IngestLog log = IngestLog.open(directory, 40)) {
+            log.append(bytes("message-0"));
+            log.append(bytes("message-1"));
+            third = log.append(bytes("message-2"));
+            log.append(bytes("message-3"));
+
+            log.commit(third);
+
+            assertEquals(1, log.getSegmentCount());
+        }
+        try (IngestLog reopened = IngestLog.open(directory, 40)) {
+            assertEquals(third, reopened.getCheckpoint());
+            List<IngestLog.Entry> remaining = reopened.read(reopened.getCheckpoint(), 10);
+            assertEquals(2, remaining.size());
+            assertEquals("message-2", text(remaining.get(0)));
+        }
+    }
+
+    @Test
+    void open_CutsOffATornEntryAndKeepsAppending() throws IOException {
+        long end;
+        try (IngestLog log = IngestLog.open(directory, 1024)) {
+            log.append(bytes("complete"));
+            end = log.getEndOffset();
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 50, 1, 2, 3, 4, 'p', 'a', 'r'}));
+        }
+
+        try (IngestLog log = IngestLog.open(directory, 1024)) {
+            assertEquals(end, log.getEndOffset());
+            log.append(bytes("after restart"));
+            List<IngestLog.Entry> entries = log.read(0, 10);
+            assertEquals(2, entries.size());
+            assertEquals("after restart", text(entries.get(1)));
+        }
+    }
+
+    @Test
+    void append_ConcurrentAppendersGetDistinctDurableOffsets() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (IngestLog log = IngestLog.open(directory, 4096)) {
+            List<Future<Long>> offsets = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String message = "message-" + i;
+                offsets.add(executor.submit(() -> log.append(bytes(message))));
+            }
+            Set<Long> distinct = new HashSet<>();
+            for (Future<Long> offset : offsets) {
+                distinct.add(offset.get());
+            }
+
+            assertEquals(200, distinct.size());
+            int read = 0;
+            long offset = 0;
+            List<IngestLog.Entry> batch;
+            while (!(batch = log.read(offset, 50)).isEmpty()) {
+                read += batch.size();
+                offset = batch.get(batch.size() - 1).getNextOffset();
+            }
+            assertEquals(200, read);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void append_RejectsEntriesLargerThanASegment() throws IOException {
+        try (IngestLog log = IngestLog.open(directory, 16)) {
+            assertThrows(IllegalArgumentException.class, () -> log.append(new byte[9]));
+        }
+    }
+
+    @Test
+    void awaitEntries_ReturnsWhenSomethingIsAppended() throws Exception {
+        try (IngestLog log = IngestLog.open(directory, 1024)) {
+            assertFalse(log.awaitEntries(0, 10));
+
+            Thread appender = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                    log.append(bytes("late"));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            appender.start();
+
+            assertTrue(log.awaitEntries(0, 5000));
+            appender.join();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(IngestLog.Entry entry) {
+        return new String(entry.getPayload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedMessageFileTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_IndexesJsonArrayExport() throws Exception {
+        Path file = write("""
+                [
+                  {
+                    "message": "INR 2,500.00 debited {via} UPI to \\"Z\\" [ref]",
+                    "bankAddress": "HDFC-CA-01"
+                  },
+                  {"message": "INR 5,000.00 credited", "bankAddress": "ICICI-SA-01", "meta": {"tags": ["a", "}"]}},
+                  {"message": "Rs. 1,200.00 debited", "bankAddress": "SBI-CA-02"}
+                ]
+                """);
+
+        try (MappedMessageFile mapped = MappedMessageFile.open(file, jsonMapper)) {
+            assertEquals(3, mapped.getRecordCount());
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> all = mapped.parse(0, 3);
+            assertEquals("INR 2,500.00 debited {via} UPI to \"Z\" [ref]", all.get(0).getMessage());
+            assertEquals("ICICI-SA-01", all.get(1).getBankAddress());
+            assertEquals("SBI-CA-02", mapped.parse(2, 3).get(0).getBankAddress());
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void open_IndexesOneObjectPerLine() throws Exception {
+        Path file = write("{\"message\":\"a\",\"bankAddress\":\"X\"}\n{\"message\":\"b\",\"bankAddress\":\"Y\"}\n");
+
+        try (MappedMessageFile mapped = MappedMessageFile.open(file, jsonMapper)) {
+            assertEquals(2, mapped.getRecordCount());
+            assertEquals("b", mapped.parse(1, 2).get(0).getMessage());
+        }
+    }
+
+    @Test
+    void open_RejectsAndDeletesMalformedFiles() throws Exception {
+        Path truncated = write("[{\"message\":\"a\",\"bankAddress\":\"X\"}, {\"message\":\"b");
+        assertThrows(IllegalArgumentException.class, () -> MappedMessageFile.open(truncated, jsonMapper));
+        assertFalse(Files.exists(truncated));
+
+        Path notObjects = write("[1, 2, 3]");
+        assertThrows(IllegalArgumentException.class, () -> MappedMessageFile.open(notObjects, jsonMapper));
+    }
+
+    @Test
+    void parse_ReportsInvalidRecord() throws Exception {
+        Path file = write("[{\"message\":\"a\",\"bankAddress\":\"X\"}, {\"message\": oops}]");
+
+        try (MappedMessageFile mapped = MappedMessageFile.open(file, jsonMapper)) {
+            assertEquals(1, mapped.parse(0, 1).size());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> mapped.parse(0, 2));
+            assertTrue(e.getMessage().startsWith("Record 1"), e.getMessage());
+        }
+    }
+
+    private Path write(String content) throws Exception {
+        return Files.writeString(Files.createTempFile(directory, "import-", ".json"), content);
+    }
+}
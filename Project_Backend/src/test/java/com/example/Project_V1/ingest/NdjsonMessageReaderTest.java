@@ -0,0 +1,59 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonMessageReaderTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void nextSlice_ReadsObjectsAndSkipsUnknownProperties() {
+        String ndjson = """
+                {"message":"Rs.500 debited","bankAddress":"HDFC-BANK"}
+                {"bankAddress":"SBI","extra":{"nested":[1,2]},"message":"Rs.20 credited"}
+
+                {"message":"no bank"}
+                """;
+
+        try (NdjsonMessageReader reader = reader(ndjson)) {
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> first = reader.nextSlice(2);
+            assertEquals(2, first.size());
+            assertEquals("Rs.500 debited", first.get(0).getMessage());
+            assertEquals("SBI", first.get(1).getBankAddress());
+            assertEquals("Rs.20 credited", first.get(1).getMessage());
+
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> rest = reader.nextSlice(2);
+            assertEquals(1, rest.size());
+            assertNull(rest.get(0).getBankAddress());
+            assertTrue(reader.nextSlice(2).isEmpty());
+        }
+    }
+
+    @Test
+    void next_MalformedInputReportsLine() {
+        try (NdjsonMessageReader reader = reader("{\"message\":\"ok\",\"bankAddress\":\"B\"}\n{\"message\": oops}\n")) {
+            assertNotNull(reader.next());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        }
+    }
+
+    @Test
+    void next_RejectsNonObjectRecords() {
+        try (NdjsonMessageReader reader = reader("[1,2]\n")) {
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+    }
+
+    private NdjsonMessageReader reader(String ndjson) {
+        return new NdjsonMessageReader(jsonMapper, new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+}
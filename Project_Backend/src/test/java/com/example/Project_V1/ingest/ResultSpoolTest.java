@@ -0,0 +1,56 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.dto.BulkIngestResultDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void read_ReturnsPagesInAppendOrder() {
+        try (ResultSpool spool = new ResultSpool(directory, jsonMapper)) {
+            for (int i = 0; i < 25; i++) {
+                spool.append(new BulkIngestResultDto(i, i % 2 == 0, "message " + i + "\nsecond line", "HDFC", null, null));
+            }
+
+            assertEquals(25, spool.size());
+            List<BulkIngestResultDto> page = spool.read(10, 10, BulkIngestResultDto.class);
+            assertEquals(10, page.size());
+            assertEquals(10, page.get(0).getIndex());
+            assertEquals("message 19\nsecond line", page.get(9).getMessage());
+
+            List<BulkIngestResultDto> last = spool.read(20, 10, BulkIngestResultDto.class);
+            assertEquals(5, last.size());
+            assertTrue(last.get(4).isSuccess());
+            assertTrue(spool.read(25, 10, BulkIngestResultDto.class).isEmpty());
+        }
+    }
+
+    @Test
+    void close_DeletesSpoolFiles() throws Exception {
+        ResultSpool spool = new ResultSpool(directory, jsonMapper);
+        spool.append(new BulkIngestResultDto(0, true, "m", "b", null, null));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+
+        spool.close();
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, () -> spool.append(new BulkIngestResultDto()));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchWriterTest {
+
+    @Mock
+    private StatelessTransactionInserter transactionInserter;
+
+    @Mock
+    private StatelessTransactionInserter.ChunkSession session;
+
+    private RecordingTransactionManager transactionManager;
+    private BulkIngestExecutor executor;
+    private TransactionBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = new RecordingTransactionManager();
+        executor = new BulkIngestExecutor(1);
+        writer = new TransactionBatchWriter(transactionInserter, transactionManager, executor, 3);
+        lenient().when(transactionInserter.inChunk(any())).thenAnswer(invocation ->
+                invocation.<Function<StatelessTransactionInserter.ChunkSession, Object>>getArgument(0).apply(session));
+        lenient().when(session.createSavepoint()).thenAnswer(invocation -> new Object());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void writeAll_OneBatchAndCommitPerChunk() {
+        List<TransactionBatchWriter.WriteResult> results = writer.writeAll(transactions(7));
+
+        assertEquals(7, results.size());
+        assertTrue(results.stream().allMatch(TransactionBatchWriter.WriteResult::isSaved));
+        assertEquals(3, transactionManager.getCommits());
+        verify(session, never()).rollbackToSavepoint(any());
+        verify(session, times(3)).insertAll(anyList());
+        verify(session, never()).insert(any());
+    }
+
+    @Test
+    void writeAll_FailedRowRollsBackOnlyItself() {
+        List<Transaction> transactions = transactions(5);
+        Transaction bad = transactions.get(1);
+        doAnswer(invocation -> {
+            if (((List<?>) invocation.getArgument(0)).contains(bad)) {
+                throw new DataIntegrityViolationException("batch failed");
+            }
+            return null;
+        }).when(session).insertAll(anyList());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == bad) {
+                throw new DataIntegrityViolationException("duplicate row");
+            }
+            return null;
+        }).when(session).insert(any());
+
+        List<TransactionBatchWriter.WriteResult> results = writer.writeAll(transactions);
+
+        assertTrue(results.get(0).isSaved());
+        assertFalse(results.get(1).isSaved());
+        assertEquals("duplicate row", results.get(1).getError());
+        assertFalse(results.get(1).isDuplicate());
+        assertTrue(results.get(2).isSaved());
+        assertTrue(results.get(4).isSaved());
+        // One rollback for the batched chunk, one for the bad row on the per-row retry
+        verify(session, times(2)).rollbackToSavepoint(any());
+        assertEquals(2, transactionManager.getCommits());
+        assertEquals(0, transactionManager.getRollbacks());
+        verify(session, times(3)).insert(any());
+    }
+
+    @Test
+    void writeAll_DedupIndexViolationIsReportedAsDuplicate() {
+        List<Transaction> transactions = transactions(2);
+        Transaction duplicate = transactions.get(0);
+        ConstraintViolationException violation = new ConstraintViolationException("Duplicate entry",
+                new SQLException("Duplicate entry"), ConstraintViolationException.ConstraintKind.UNIQUE,
+                "transactions." + Transaction.DEDUP_CONSTRAINT.toUpperCase());
+        doThrow(violation).when(session).insertAll(anyList());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == duplicate) {
+                throw violation;
+            }
+            return null;
+        }).when(session).insert(any());
+
+        List<TransactionBatchWriter.WriteResult> results = writer.writeAll(transactions);
+
+        assertTrue(results.get(0).isDuplicate());
+        assertFalse(results.get(0).isSaved());
+        assertTrue(results.get(1).isSaved());
+        assertFalse(results.get(1).isDuplicate());
+    }
+
+    @Test
+    void writeAll_ValueTheColumnCannotHoldIsReportedAsInvalid() {
+        List<Transaction> transactions = transactions(2);
+        Transaction tooLong = transactions.get(0);
+        DataException valueTooLong = new DataException("Value too long for column recipient_sender",
+                new SQLException("Value too long", "22001"));
+        doThrow(valueTooLong).when(session).insertAll(anyList());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == tooLong) {
+                throw valueTooLong;
+            }
+            return null;
+        }).when(session).insert(any());
+
+        List<TransactionBatchWriter.WriteResult> results = writer.writeAll(transactions);
+
+        assertFalse(results.get(0).isSaved());
+        assertTrue(results.get(0).isInvalid());
+        assertFalse(results.get(0).isDuplicate());
+        assertTrue(results.get(1).isSaved());
+        assertFalse(results.get(1).isInvalid());
+    }
+
+    @Test
+    void writeAll_BatchFailureClearsAssignedIdsBeforeRetry() {
+        List<Transaction> transactions = transactions(3);
+        doAnswer(invocation -> {
+            List<Transaction> batch = invocation.getArgument(0);
+            batch.forEach(transaction -> transaction.setId(99L));
+            throw new DataIntegrityViolationException("batch failed");
+        }).when(session).insertAll(anyList());
+        doAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            assertNull(transaction.getId());
+            return null;
+        }).when(session).insert(any());
+
+        List<TransactionBatchWriter.WriteResult> results = writer.writeAll(transactions);
+
+        assertTrue(results.stream().allMatch(TransactionBatchWriter.WriteResult::isSaved));
+        verify(session).rollbackToSavepoint(any());
+        verify(session, times(3)).insert(any());
+    }
+
+    @Test
+    void writeAll_FailedCommitFailsWholeChunk() {
+        RecordingTransactionManager failingCommits = new RecordingTransactionManager() {
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                throw new TransactionSystemException("connection lost");
+            }
+        };
+        writer = new TransactionBatchWriter(transactionInserter, failingCommits, executor, 3);
+
+        List<TransactionBatchWriter.WriteResult> results = writer.writeAll(transactions(4));
+
+        assertEquals(4, results.size());
+        assertTrue(results.stream().noneMatch(TransactionBatchWriter.WriteResult::isSaved));
+        assertTrue(results.get(0).getError().contains("connection lost"));
+        // Nothing about the rows themselves was wrong, so they are worth writing again
+        assertTrue(results.stream().noneMatch(TransactionBatchWriter.WriteResult::isInvalid));
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveChunkSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionBatchWriter(transactionInserter, transactionManager, executor, 0));
+    }
+
+    private List<Transaction> transactions(int count) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setOriginalMessage("message " + i);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionDedupKeyInitializerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY, user_id BIGINT NOT NULL,"
+                + " bank_address VARCHAR(255), transaction_type VARCHAR(255), reference_number VARCHAR(255),"
+                + " original_message CLOB, dedup_key VARCHAR(66),"
+                + " CONSTRAINT " + Transaction.DEDUP_CONSTRAINT + " UNIQUE (user_id, dedup_key))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void afterSingletonsInstantiated_KeysOldRowsAcrossPages() {
+        for (long id = 1; id <= 5; id++) {
+            insertOldRow(id, 1L, "HDFC-BANK", "Rs " + id + " debited");
+        }
+        insertOldRow(6L, 1L, "HDFC-BANK", null);
+        jdbcTemplate.update("UPDATE transactions SET reference_number = 'upi123', transaction_type = 'debited' WHERE id = 6");
+
+        new TransactionDedupKeyInitializer(jdbcTemplate, entityManagerFactory, 2).afterSingletonsInstantiated();
+
+        for (long id = 1; id <= 5; id++) {
+            assertEquals(expectedKey("HDFC-BANK", null, null, "Rs " + id + " debited"), dedupKey(id));
+        }
+        assertEquals(expectedKey("HDFC-BANK", "debited", "upi123", null), dedupKey(6L));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_RepeatedOldMessageKeepsNoKey() {
+        insertOldRow(1L, 1L, "HDFC-BANK", "Rs 500 debited");
+        insertOldRow(2L, 1L, "HDFC-BANK", "Rs 500 debited");
+        insertOldRow(3L, 2L, "HDFC-BANK", "Rs 500 debited");
+        insertOldRow(4L, 1L, "ICICI-BANK", "Rs 700 credited");
+        String storedKey = expectedKey("ICICI-BANK", null, null, "Rs 700 credited");
+        // Stored after dedup existed, so it already holds the key the old row 4 would get
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, bank_address, original_message, dedup_key)"
+                + " VALUES (5, 1, 'ICICI-BANK', 'Rs 700 credited', ?)", storedKey);
+
+        new TransactionDedupKeyInitializer(jdbcTemplate, entityManagerFactory, 10).afterSingletonsInstantiated();
+
+        String key = expectedKey("HDFC-BANK", null, null, "Rs 500 debited");
+        assertEquals(key, dedupKey(1L));
+        assertNull(dedupKey(2L));
+        assertEquals(key, dedupKey(3L));
+        assertNull(dedupKey(4L));
+        assertEquals(storedKey, dedupKey(5L));
+    }
+
+    @Test
+    void constructor_RejectsNonPositivePageSize() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TransactionDedupKeyInitializer(jdbcTemplate, entityManagerFactory, 0));
+    }
+
+    private void insertOldRow(long id, long userId, String bankAddress, String message) {
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, bank_address, original_message) VALUES (?, ?, ?, ?)",
+                id, userId, bankAddress, message);
+    }
+
+    private String dedupKey(long id) {
+        return jdbcTemplate.queryForObject("SELECT dedup_key FROM transactions WHERE id = ?", String.class, id);
+    }
+
+    private String expectedKey(String bankAddress, String type, String referenceNumber, String message) {
+        Transaction transaction = new Transaction();
+        transaction.setBankAddress(bankAddress);
+        transaction.setTransactionType(type);
+        transaction.setReferenceNumber(referenceNumber);
+        transaction.setOriginalMessage(message);
+        return TransactionDedupKey.of(transaction);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionDedupKeyTest {
+
+    @Test
+    void of_SameReferenceIsOneKeyWhateverTheText() {
+        String phone = TransactionDedupKey.of(transaction("HDFC-BANK", "debited", "UPI123", "Rs.50 debited, ref UPI123"));
+        String backup = TransactionDedupKey.of(transaction("HDFC-BANK", "debited", " upi123 ", "Rs.50.00 debited. Ref UPI123"));
+
+        assertEquals(phone, backup);
+        assertTrue(phone.startsWith("r:"));
+        assertTrue(phone.length() <= 66);
+    }
+
+    @Test
+    void of_SelfTransferLegsAreDifferentKeys() {
+        String debit = TransactionDedupKey.of(transaction("HDFC-BANK", "debited", "UPI123", "a"));
+        String credit = TransactionDedupKey.of(transaction("ICICI-BANK", "credited", "UPI123", "b"));
+
+        assertNotEquals(debit, credit);
+    }
+
+    @Test
+    void of_WithoutReferenceHashesTheMessage() {
+        String first = TransactionDedupKey.of(transaction("HDFC-BANK", "credited", null, "Rs.500 credited "));
+        String again = TransactionDedupKey.of(transaction("HDFC-BANK", "credited", "", "Rs.500 credited"));
+        String other = TransactionDedupKey.of(transaction("HDFC-BANK", "credited", null, "Rs.501 credited"));
+
+        assertEquals(first, again);
+        assertNotEquals(first, other);
+        assertTrue(first.startsWith("m:"));
+    }
+
+    private Transaction transaction(String bankAddress, String type, String referenceNumber, String message) {
+        Transaction transaction = new Transaction();
+        transaction.setBankAddress(bankAddress);
+        transaction.setTransactionType(type);
+        transaction.setReferenceNumber(referenceNumber);
+        transaction.setOriginalMessage(message);
+        return transaction;
+    }
+}
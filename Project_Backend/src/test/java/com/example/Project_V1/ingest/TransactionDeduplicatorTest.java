@@ -0,0 +1,94 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import com.example.Project_V1.entity.User;
+import com.example.Project_V1.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionDeduplicatorTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransactionDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        deduplicator = new TransactionDeduplicator(transactionRepository, 2, 0.01);
+    }
+
+    @Test
+    void findStored_NewKeysCostNoLookup() {
+        when(transactionRepository.findDedupKeysByUserId(1L)).thenReturn(List.of("m:old"));
+
+        assertTrue(deduplicator.findStored(1L, List.of("m:new1", "m:new2")).isEmpty());
+        assertTrue(deduplicator.findStored(1L, List.of("m:new3")).isEmpty());
+
+        // The filter is built once per user and rules the keys out on its own
+        verify(transactionRepository, times(1)).findDedupKeysByUserId(1L);
+        verify(transactionRepository, never()).findByUserIdAndDedupKeyIn(anyLong(), any());
+    }
+
+    @Test
+    void findStored_LooksUpOnlyKeysTheFilterCannotRuleOut() {
+        Transaction stored = transaction(1L, "m:old");
+        when(transactionRepository.findDedupKeysByUserId(1L)).thenReturn(List.of("m:old"));
+        when(transactionRepository.findByUserIdAndDedupKeyIn(1L, List.of("m:old"))).thenReturn(List.of(stored));
+
+        Map<String, Transaction> found = deduplicator.findStored(1L, List.of("m:new", "m:old"));
+
+        assertEquals(Map.of("m:old", stored), found);
+    }
+
+    @Test
+    void recordStored_NewlyStoredKeysAreCaught() {
+        Transaction saved = transaction(1L, "m:saved");
+        when(transactionRepository.findDedupKeysByUserId(1L)).thenReturn(List.of());
+        when(transactionRepository.findByUserIdAndDedupKeyIn(1L, List.of("m:saved"))).thenReturn(List.of(saved));
+        deduplicator.findStored(1L, List.of("m:saved"));
+
+        deduplicator.recordStored(List.of(saved));
+
+        assertEquals(Map.of("m:saved", saved), deduplicator.findStored(1L, List.of("m:saved")));
+    }
+
+    @Test
+    void findStored_KeepsFiltersForTheMostRecentUsersOnly() {
+        when(transactionRepository.findDedupKeysByUserId(anyLong())).thenReturn(List.of());
+
+        deduplicator.findStored(1L, List.of("m:a"));
+        deduplicator.findStored(2L, List.of("m:a"));
+        deduplicator.findStored(3L, List.of("m:a"));
+        deduplicator.findStored(1L, List.of("m:a"));
+
+        verify(transactionRepository, times(2)).findDedupKeysByUserId(1L);
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TransactionDeduplicator(transactionRepository, 0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new TransactionDeduplicator(transactionRepository, 10, 1.5));
+    }
+
+    private Transaction transaction(Long userId, String dedupKey) {
+        User user = new User();
+        user.setId(userId);
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setDedupKey(dedupKey);
+        return transaction;
+    }
+}
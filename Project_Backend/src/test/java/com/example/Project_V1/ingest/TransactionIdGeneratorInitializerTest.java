@@ -0,0 +1,53 @@
+package com.example.Project_V1.ingest;
+
+import com.example.Project_V1.entity.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIdGeneratorInitializerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void afterSingletonsInstantiated_EmptyTableLeavesGeneratorAlone() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions", Long.class)).thenReturn(null);
+
+        new TransactionIdGeneratorInitializer(jdbcTemplate, entityManagerFactory).afterSingletonsInstantiated();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void afterSingletonsInstantiated_BumpsExistingGeneratorRow() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions", Long.class)).thenReturn(120L);
+        when(jdbcTemplate.update(startsWith("UPDATE"), eq(170L), eq(Transaction.ID_GENERATOR_NAME), eq(170L))).thenReturn(1);
+
+        new TransactionIdGeneratorInitializer(jdbcTemplate, entityManagerFactory).afterSingletonsInstantiated();
+
+        verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(), any());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_SeedsMissingGeneratorRow() {
+        when(jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions", Long.class)).thenReturn(120L);
+        when(jdbcTemplate.update(startsWith("UPDATE"), any(), any(), any())).thenReturn(0);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Integer.class), eq(Transaction.ID_GENERATOR_NAME)))
+                .thenReturn(0);
+
+        new TransactionIdGeneratorInitializer(jdbcTemplate, entityManagerFactory).afterSingletonsInstantiated();
+
+        verify(jdbcTemplate).update(startsWith("INSERT"), eq(Transaction.ID_GENERATOR_NAME), eq(170L));
+    }
+}
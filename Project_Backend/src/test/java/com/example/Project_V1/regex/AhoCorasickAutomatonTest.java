@@ -0,0 +1,49 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickAutomatonTest {
+
+    @Test
+    void scan_FindsOverlappingKeywordsIgnoringCase() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("he", "she", "his", "hers"));
+
+        BitSet found = automaton.scan("uSHERs");
+
+        assertTrue(found.get(0));
+        assertTrue(found.get(1));
+        assertFalse(found.get(2));
+        assertTrue(found.get(3));
+    }
+
+    @Test
+    void scan_SuffixKeywordsReachedThroughFailureLinks() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("avl bal", "bal"));
+
+        BitSet found = automaton.scan("Avl Bal: INR 15,420.50");
+
+        assertTrue(found.get(0));
+        assertTrue(found.get(1));
+    }
+
+    @Test
+    void scan_NonAsciiResetsMatching() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of("abc"));
+
+        assertFalse(automaton.scan("abéc").get(0));
+        assertTrue(automaton.scan("₹abc").get(0));
+    }
+
+    @Test
+    void scan_NoKeywords() {
+        AhoCorasickAutomaton automaton = new AhoCorasickAutomaton(List.of());
+
+        assertTrue(automaton.scan("anything").isEmpty());
+        assertEquals(0, automaton.getKeywordCount());
+    }
+}
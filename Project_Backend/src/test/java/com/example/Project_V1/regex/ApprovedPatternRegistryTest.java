@@ -0,0 +1,191 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.entity.RegexLog;
+import com.example.Project_V1.enums.RegexPatternStatus;
+import com.example.Project_V1.repository.RegexLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApprovedPatternRegistryTest {
+
+    @Mock
+    private RegexLogRepository regexLogRepository;
+
+    private ApprovedPatternRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ApprovedPatternRegistry(regexLogRepository, new PatternCache(100));
+    }
+
+    private RegexLog approved(Long id, String pattern, String bankAddress) {
+        RegexLog log = new RegexLog();
+        log.setId(id);
+        log.setPattern(pattern);
+        log.setStatus(RegexPatternStatus.APPROVED);
+        log.setBankAddress(bankAddress);
+        return log;
+    }
+
+    @Test
+    void getPatterns_LoadsOnceAndCaches() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(List.of(approved(1L, "(?<amount>\\d+)", "HDFC-BANK")));
+
+        BankPatternSet first = registry.getPatterns("HDFC-BANK");
+        BankPatternSet second = registry.getPatterns("HDFC-BANK");
+
+        assertSame(first, second);
+        assertEquals(1, first.getPatterns().size());
+        verify(regexLogRepository, times(1))
+                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK");
+    }
+
+    @Test
+    void getPatterns_SkipsInvalidPatterns() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approved(1L, "(?<invalid", "HDFC-BANK"), approved(2L, "\\d+", "HDFC-BANK")));
+
+        BankPatternSet patternSet = registry.getPatterns("HDFC-BANK");
+
+        assertEquals(1, patternSet.getPatterns().size());
+        assertEquals(2L, patternSet.getPatterns().get(0).getId());
+    }
+
+    @Test
+    void refresh_PublishesNewVersion() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(List.of())
+                .thenReturn(List.of(approved(1L, "\\d+", "HDFC-BANK")));
+
+        BankPatternSet before = registry.getPatterns("HDFC-BANK");
+        registry.refresh("HDFC-BANK");
+        BankPatternSet after = registry.getPatterns("HDFC-BANK");
+
+        assertTrue(before.isEmpty());
+        assertFalse(after.isEmpty());
+        assertTrue(after.getVersion() > before.getVersion());
+    }
+
+    @Test
+    void getPatterns_RemembersOnlyTheMostRecentUnknownBanks() {
+        registry.setMaxUnknownBanks(2);
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(eq(RegexPatternStatus.APPROVED), anyString()))
+                .thenReturn(List.of());
+
+        BankPatternSet first = registry.getPatterns("SPAM-1");
+        assertSame(first, registry.getPatterns("SPAM-1"));
+        registry.getPatterns("SPAM-2");
+        registry.getPatterns("SPAM-3");
+        BankPatternSet reloaded = registry.getPatterns("SPAM-1");
+
+        assertTrue(reloaded.isEmpty());
+        assertNotSame(first, reloaded);
+        verify(regexLogRepository, times(2))
+                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "SPAM-1");
+    }
+
+    @Test
+    void getPatterns_LoadOverlappingARefreshDoesNotReplaceIt() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenAnswer(invocation -> {
+                    // The pattern is replaced while this first load is still reading the old one
+                    registry.refresh("HDFC-BANK");
+                    return List.of(approved(1L, "old", "HDFC-BANK"));
+                })
+                .thenReturn(List.of(approved(2L, "new", "HDFC-BANK")));
+
+        BankPatternSet overlapping = registry.getPatterns("HDFC-BANK");
+
+        assertEquals(2L, overlapping.getPatterns().get(0).getId());
+        assertSame(overlapping, registry.getPatterns("HDFC-BANK"));
+        verify(regexLogRepository, times(2))
+                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK");
+    }
+
+    @Test
+    void refresh_BankLeftWithoutPatternsIsTreatedAsUnknown() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(List.of(approved(1L, "\\d+", "HDFC-BANK")))
+                .thenReturn(List.of());
+
+        assertFalse(registry.getPatterns("HDFC-BANK").isEmpty());
+        registry.refresh("HDFC-BANK");
+
+        assertTrue(registry.getPatterns("HDFC-BANK").isEmpty());
+        verify(regexLogRepository, times(3))
+                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK");
+    }
+
+    @Test
+    void setMaxUnknownBanks_RejectsNegativeCount() {
+        assertThrows(IllegalArgumentException.class, () -> registry.setMaxUnknownBanks(-1));
+    }
+
+    @Test
+    void warmUp_GroupsApprovedPatternsByBank() {
+        when(regexLogRepository.findByStatusOrderByCreatedAtDesc(RegexPatternStatus.APPROVED))
+                .thenReturn(Arrays.asList(
+                        approved(1L, "\\d+", "HDFC-BANK"),
+                        approved(2L, "\\w+", "SBI-BANK"),
+                        approved(3L, "[a-z]+", "HDFC-BANK")));
+
+        registry.warmUp();
+
+        assertEquals(2, registry.getPatterns("HDFC-BANK").getPatterns().size());
+        assertEquals(1, registry.getPatterns("SBI-BANK").getPatterns().size());
+        verify(regexLogRepository, never()).findByStatusAndBankAddressOrderByCreatedAtDesc(any(), anyString());
+    }
+
+    @Test
+    void reorderByHitRate_MostFrequentFirstWithStableTiebreak() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(
+                        approved(3L, "newest", "HDFC-BANK"),
+                        approved(2L, "middle", "HDFC-BANK"),
+                        approved(1L, "oldest", "HDFC-BANK")));
+
+        BankPatternSet initial = registry.getPatterns("HDFC-BANK");
+        initial.getPatterns().get(2).recordHit();
+        initial.getPatterns().get(2).recordHit();
+
+        registry.reorderByHitRate();
+        BankPatternSet reordered = registry.getPatterns("HDFC-BANK");
+
+        assertEquals(List.of(1L, 3L, 2L), reordered.getPatterns().stream().map(ApprovedPattern::getId).toList());
+        assertEquals(initial.getVersion(), reordered.getVersion());
+    }
+
+    @Test
+    void refresh_KeepsHitCountsForExistingPatterns() {
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approved(2L, "newer", "HDFC-BANK"), approved(1L, "older", "HDFC-BANK")));
+
+        registry.getPatterns("HDFC-BANK").getPatterns().get(1).recordHit();
+        registry.refresh("HDFC-BANK");
+
+        ApprovedPattern first = registry.getPatterns("HDFC-BANK").getPatterns().get(0);
+        assertEquals(1L, first.getId());
+        assertEquals(1, first.getHits());
+    }
+
+    @Test
+    void getPatterns_CompilesAutomatonOnlyForSelectedBanks() {
+        registry.setAutomatonBanks(" HDFC-BANK , ");
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(eq(RegexPatternStatus.APPROVED), anyString()))
+                .thenAnswer(invocation -> List.of(approved(1L, "credited", invocation.getArgument(1))));
+
+        assertNotNull(registry.getPatterns("HDFC-BANK").getAutomaton());
+        assertNull(registry.getPatterns("ICICI-BANK").getAutomaton());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtractionPlanTest {
+
+    @Test
+    void of_ResolvesOnlyDefinedGroups() {
+        ExtractionPlan plan = ExtractionPlan.of(Pattern.compile("(?<amount>\\d+) (?<to>\\w+)"));
+
+        assertTrue(plan.hasGroup(ExtractionField.AMOUNT));
+        assertTrue(plan.hasGroup(ExtractionField.TO));
+        assertFalse(plan.hasGroup(ExtractionField.ACCOUNT_NUMBER));
+        assertFalse(plan.hasGroup(ExtractionField.REFERENCE_NUMBER));
+    }
+
+    @Test
+    void extract_ReadsDefinedGroupsAndLeavesOthersNull() {
+        Pattern pattern = Pattern.compile("(?<transactionType>credited|debited) Rs\\.(?<amount>[\\d.]+)(?: to (?<to>\\w+))?");
+        Matcher matcher = pattern.matcher("debited Rs.500.00");
+        assertTrue(matcher.find());
+
+        ExtractedFields fields = ExtractionPlan.of(pattern).extract(matcher);
+
+        assertEquals("debited", fields.get(ExtractionField.TRANSACTION_TYPE));
+        assertEquals("500.00", fields.get(ExtractionField.AMOUNT));
+        assertNull(fields.get(ExtractionField.TO));
+        assertNull(fields.get(ExtractionField.ACCOUNT_NUMBER));
+    }
+
+    @Test
+    void extract_TrimsValuesAndNullsBlanks() {
+        Pattern pattern = Pattern.compile("to(?<to>\\s*\\w+\\s*)\\.(?<via>\\s*)");
+        Matcher matcher = pattern.matcher("to  Zomato . ");
+        assertTrue(matcher.find());
+
+        ExtractedFields fields = ExtractionPlan.of(pattern).extract(matcher);
+
+        assertEquals("Zomato", fields.get(ExtractionField.TO));
+        assertNull(fields.get(ExtractionField.VIA));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageFingerprintTest {
+
+    @Test
+    void of_SameTemplateDifferentValuesShareFingerprint() {
+        String first = MessageFingerprint.of("INR 1,250.00 debited from A/c XX1234 on 05-01-25. Avl Bal INR 15,420.50");
+        String second = MessageFingerprint.of("INR 80.00 debited from a/c XX9876 on 17-10-26.  Avl Bal INR 3.10");
+
+        assertEquals(first, second);
+        assertEquals("inr # debited from a/c xx# on #-#-#. avl bal inr #", first);
+    }
+
+    @Test
+    void of_DifferentTemplatesDiffer() {
+        assertNotEquals(MessageFingerprint.of("Rs.500 credited to A/c XX12"),
+                MessageFingerprint.of("Rs.500 debited from A/c XX12"));
+    }
+
+    @Test
+    void of_TrailingPunctuationIsNotPartOfTheNumber() {
+        assertEquals("bal #. ok", MessageFingerprint.of("Bal 20. ok"));
+        assertEquals("#,x", MessageFingerprint.of("1,x"));
+    }
+
+    @Test
+    void digitMasked_PreservesLengthAndEverythingButDigits() {
+        assertEquals("Your OTP is 999999. Do NOT share", MessageFingerprint.digitMasked("Your OTP is 482913. Do NOT share"));
+    }
+
+    @Test
+    void isDigitSensitive() {
+        assertFalse(MessageFingerprint.isDigitSensitive("INR (?<amount>[0-9,]+\\.\\d{2}) on (?<date>\\d{2}-\\d{2,4})"));
+        assertTrue(MessageFingerprint.isDigitSensitive("Rs\\.5 cashback"));
+        assertTrue(MessageFingerprint.isDigitSensitive("[1-5] items"));
+        assertTrue(MessageFingerprint.isDigitSensitive("(\\d)\\1"));
+        assertTrue(MessageFingerprint.isDigitSensitive("(?<x>\\d)\\k<x>"));
+        assertTrue(MessageFingerprint.isDigitSensitive("\\{12}"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.dto.TransactionExtractionResultDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageMatcherTest {
+
+    private final RegexTimeoutGuard timeoutGuard = new RegexTimeoutGuard(50);
+    private final MessageTemplateCache templateCache = new MessageTemplateCache(100);
+    private final MessageMatcher messageMatcher = new MessageMatcher(timeoutGuard, templateCache);
+
+    private ApprovedPattern pattern(Long id, String regex) {
+        return new ApprovedPattern(id, regex, Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+    }
+
+    @Test
+    void match_UsesFirstMatchingPatternAndRecordsHit() {
+        ApprovedPattern credit = pattern(1L, "(?<transactionType>credited) Rs\\.(?<amount>[\\d.]+)");
+        ApprovedPattern debit = pattern(2L, "(?<transactionType>debited) Rs\\.(?<amount>[\\d.]+)");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(credit, debit));
+
+        TransactionExtractionResultDto result = messageMatcher.match(patternSet, "A/c debited Rs.250.00");
+
+        assertTrue(result.isMatchFound());
+        assertEquals(2L, result.getRegexPatternId());
+        assertEquals("250.00", result.getAmount());
+        assertEquals(0, credit.getHits());
+        assertEquals(1, debit.getHits());
+    }
+
+    @Test
+    void match_NoPatternMatches() {
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(pattern(1L, "credited")));
+
+        TransactionExtractionResultDto result = messageMatcher.match(patternSet, "Your OTP is 1234");
+
+        assertFalse(result.isMatchFound());
+        assertEquals("Your OTP is 1234", result.getOriginalMessage());
+    }
+
+    @Test
+    void match_PrefilterSkipsPatternsMissingRequiredLiterals() {
+        ApprovedPattern credit = pattern(1L, "credited to A/c (?<accountNumber>\\w+)");
+        ApprovedPattern debit = pattern(2L, "debited from A/c (?<accountNumber>\\w+)");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(credit, debit));
+
+        LiteralPrefilter.Candidates candidates = patternSet.getPrefilter().scan("INR 50 DEBITED FROM a/c XX12");
+
+        assertFalse(candidates.mayMatch(credit));
+        assertTrue(candidates.mayMatch(debit));
+        assertEquals("XX12", messageMatcher.match(patternSet, "INR 50 DEBITED FROM a/c XX12").getAccountNumber());
+    }
+
+    @Test
+    void match_AutomatonAndFallbackPatternsKeepSnapshotOrder() {
+        ApprovedPattern lookahead = pattern(1L, "(?<transactionType>debited)(?= from)");
+        ApprovedPattern debit = pattern(2L, "(?<transactionType>debited) Rs\\.(?<amount>[\\d.]+)");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(lookahead, debit), true);
+
+        assertFalse(patternSet.getAutomaton().supports(lookahead));
+        assertTrue(patternSet.getAutomaton().supports(debit));
+
+        TransactionExtractionResultDto viaAutomaton = messageMatcher.match(patternSet, "A/c debited Rs.250.00");
+        assertEquals(2L, viaAutomaton.getRegexPatternId());
+        assertEquals("250.00", viaAutomaton.getAmount());
+
+        TransactionExtractionResultDto viaFallback = messageMatcher.match(patternSet, "debited from A/c, debited Rs.9");
+        assertEquals(1L, viaFallback.getRegexPatternId());
+        assertEquals("debited", viaFallback.getTransactionType());
+    }
+
+    @Test
+    void match_CatastrophicPatternTimesOutAsNoMatchAndIsRecorded() {
+        ApprovedPattern catastrophic = pattern(7L, "(a+)+\\1b");
+        ApprovedPattern fallback = pattern(8L, "(?<accountNumber>a{5})");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(catastrophic, fallback));
+
+        TransactionExtractionResultDto result = messageMatcher.match(patternSet, "a".repeat(40) + "c");
+
+        assertTrue(result.isMatchFound());
+        assertEquals(8L, result.getRegexPatternId());
+        assertEquals(1, timeoutGuard.getTimeouts(7L));
+        assertEquals(0, timeoutGuard.getTimeouts(8L));
+    }
+
+    @Test
+    void match_RepeatTemplateIsRoutedToThePatternThatMatchedBefore() {
+        ApprovedPattern credit = pattern(1L, "credited Rs\\.(?<amount>[\\d.]+)");
+        ApprovedPattern debit = pattern(2L, "debited Rs\\.(?<amount>[\\d.]+)");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(credit, debit));
+
+        messageMatcher.match(patternSet, "A/c XX12 debited Rs.250.00");
+        TransactionExtractionResultDto repeat = messageMatcher.match(patternSet, "A/c XX98 debited Rs.7.50");
+
+        assertEquals(2L, repeat.getRegexPatternId());
+        assertEquals("7.50", repeat.getAmount());
+        assertEquals(2, debit.getHits());
+        assertEquals(1, templateCache.getStats().getHits());
+        assertEquals(1, templateCache.getStats().getSize());
+    }
+
+    @Test
+    void match_NewPatternSetVersionDoesNotReuseRoutes() {
+        ApprovedPattern debit = pattern(2L, "debited Rs\\.(?<amount>[\\d.]+)");
+        messageMatcher.match(new BankPatternSet("HDFC-BANK", 1L, List.of(debit)), "debited Rs.250.00");
+
+        ApprovedPattern replacement = pattern(3L, "(?<transactionType>debited) Rs\\.(?<amount>[\\d.]+)");
+        TransactionExtractionResultDto result = messageMatcher.match(
+                new BankPatternSet("HDFC-BANK", 2L, List.of(replacement, debit)), "debited Rs.9.00");
+
+        assertEquals(3L, result.getRegexPatternId());
+        assertEquals(0, templateCache.getStats().getHits());
+    }
+
+    @Test
+    void match_RepeatUnmatchedTemplateSkipsTheScan() {
+        ApprovedPattern debit = pattern(2L, "debited Rs\\.(?<amount>[\\d.]+)");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(debit));
+
+        assertFalse(messageMatcher.match(patternSet, "Your OTP is 482913").isMatchFound());
+        TransactionExtractionResultDto repeat = messageMatcher.match(patternSet, "Your OTP is 100200");
+
+        assertFalse(repeat.isMatchFound());
+        assertEquals("Your OTP is 100200", repeat.getOriginalMessage());
+        assertEquals(1, templateCache.getStats().getNoMatchHits());
+
+        // A new approved set (new version) must re-scan
+        BankPatternSet withOtp = new BankPatternSet("HDFC-BANK", 2L, List.of(debit, pattern(3L, "OTP is (?<referenceNumber>\\d+)")));
+        assertEquals("777777", messageMatcher.match(withOtp, "Your OTP is 777777").getReferenceNumber());
+    }
+
+    @Test
+    void match_DigitSensitiveSetIsNeverCachedAsNoMatch() {
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(pattern(1L, "code 5\\d")));
+
+        assertFalse(messageMatcher.match(patternSet, "code 41").isMatchFound());
+        assertTrue(messageMatcher.match(patternSet, "code 52").isMatchFound());
+        assertEquals(0, templateCache.getStats().getNoMatchHits());
+    }
+
+    @Test
+    void match_TimedOutScanIsNotCachedAsNoMatch() {
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(pattern(7L, "([a]+)+?b")));
+
+        assertFalse(patternSet.isDigitSensitive());
+        messageMatcher.match(patternSet, "a".repeat(40) + "c");
+        messageMatcher.match(patternSet, "a".repeat(40) + "c");
+
+        assertEquals(0, templateCache.getStats().getNoMatchHits());
+        assertEquals(2, timeoutGuard.getTimeouts(7L));
+    }
+
+    @Test
+    void match_TimedOutRoutedPatternIsNotCachedAsNoMatch() {
+        ApprovedPattern catastrophic = pattern(7L, "([a]+)+?b");
+        BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of(catastrophic));
+        String message = "a".repeat(40) + "c";
+        // The route was learned from an earlier message of the same template
+        templateCache.recordMatch(patternSet, MessageFingerprint.of(message), 7L);
+
+        assertFalse(messageMatcher.match(patternSet, message).isMatchFound());
+        assertFalse(messageMatcher.match(patternSet, message).isMatchFound());
+
+        assertEquals(0, templateCache.getStats().getNoMatchHits());
+        assertEquals(2, timeoutGuard.getTimeouts(7L));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateCacheTest {
+
+    private final BankPatternSet patternSet = new BankPatternSet("HDFC-BANK", 1L, List.of());
+
+    @Test
+    void recordMatch_SizeStaysWithinMaxAcrossStripes() {
+        MessageTemplateCache cache = new MessageTemplateCache(50);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.recordMatch(patternSet, "template " + i, (long) i);
+        }
+
+        assertEquals(50, cache.getStats().getSize());
+        assertEquals(950, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void getMatchingPatternId_RecentlyUsedTemplateSurvivesEviction() {
+        MessageTemplateCache cache = new MessageTemplateCache(1);
+
+        cache.recordMatch(patternSet, "debit", 1L);
+        assertEquals(1L, cache.getMatchingPatternId(patternSet, "debit"));
+        cache.recordMatch(patternSet, "credit", 2L);
+
+        assertNull(cache.getMatchingPatternId(patternSet, "debit"));
+        assertEquals(2L, cache.getMatchingPatternId(patternSet, "credit"));
+    }
+
+    @Test
+    void getMatchingPatternId_VersionAndNoMatchArePartOfTheKey() {
+        MessageTemplateCache cache = new MessageTemplateCache(100);
+        cache.recordMatch(patternSet, "debit", 1L);
+        cache.recordNoMatch(patternSet, "otp");
+
+        assertNull(cache.getMatchingPatternId(new BankPatternSet("HDFC-BANK", 2L, List.of()), "debit"));
+        assertNull(cache.getMatchingPatternId(patternSet, "otp"));
+        assertFalse(cache.isKnownNoMatch(patternSet, "debit"));
+        assertTrue(cache.isKnownNoMatch(patternSet, "otp"));
+    }
+
+    @Test
+    void getMatchingPatternId_ConcurrentUseKeepsEveryEntry() throws Exception {
+        MessageTemplateCache cache = new MessageTemplateCache(10_000);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                workers.add(threads.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String fingerprint = "template " + thread + "/" + i;
+                        cache.recordMatch(patternSet, fingerprint, (long) i);
+                        assertEquals((long) i, cache.getMatchingPatternId(patternSet, fingerprint));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(4000, cache.getStats().getSize());
+        assertEquals(4000, cache.getStats().getHits());
+        assertEquals(0, cache.getStats().getEvictions());
+    }
+}
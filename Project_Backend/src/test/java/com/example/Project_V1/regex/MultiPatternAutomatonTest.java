@@ -0,0 +1,147 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiPatternAutomatonTest {
+
+    private ApprovedPattern pattern(Long id, String regex) {
+        return new ApprovedPattern(id, regex, Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+    }
+
+    @Test
+    void run_ExtractsNamedGroupsLikeJavaRegex() {
+        ApprovedPattern debit = pattern(1L,
+                "INR (?<amount>[\\d,]+\\.\\d{2}) debited from A/c (?<accountNumber>\\w+) on (?<date>\\d{2}-\\d{2}-\\d{2})");
+        MultiPatternAutomaton automaton = MultiPatternAutomaton.compile(List.of(debit));
+
+        MatchResult match = automaton.run("Alert: inr 1,250.00 DEBITED from a/c XX1234 on 05-01-25. Avl Bal")
+                .matchFor(debit);
+
+        assertNotNull(match);
+        ExtractedFields fields = debit.getExtractionPlan().extract(match);
+        assertEquals("1,250.00", fields.get(ExtractionField.AMOUNT));
+        assertEquals("XX1234", fields.get(ExtractionField.ACCOUNT_NUMBER));
+        assertEquals("05-01-25", fields.get(ExtractionField.DATE));
+    }
+
+    @Test
+    void run_ReportsEveryPatternIndependently() {
+        ApprovedPattern credit = pattern(1L, "credited");
+        ApprovedPattern amount = pattern(2L, "Rs\\.?\\s*(\\d+)");
+        ApprovedPattern otp = pattern(3L, "OTP");
+        MultiPatternAutomaton automaton = MultiPatternAutomaton.compile(List.of(credit, amount, otp));
+
+        MultiPatternAutomaton.Result result = automaton.run("Rs 500 credited");
+
+        assertNotNull(result.matchFor(credit));
+        assertEquals("500", result.matchFor(amount).group(1));
+        assertNull(result.matchFor(otp));
+    }
+
+    @Test
+    void compile_UnsupportedConstructsAreLeftToJavaRegex() {
+        ApprovedPattern backreference = pattern(1L, "(a)\\1");
+        ApprovedPattern lookahead = pattern(2L, "credited(?= to)");
+        ApprovedPattern possessive = pattern(3L, "\\d++");
+        ApprovedPattern plain = pattern(4L, "credited");
+
+        MultiPatternAutomaton automaton = MultiPatternAutomaton.compile(
+                List.of(backreference, lookahead, possessive, plain));
+
+        assertFalse(automaton.supports(backreference));
+        assertFalse(automaton.supports(lookahead));
+        assertFalse(automaton.supports(possessive));
+        assertTrue(automaton.supports(plain));
+        assertEquals(1, automaton.getPatternCount());
+    }
+
+    @Test
+    void run_WordBoundaryAroundNonAsciiLettersMatchesJavaRegex() {
+        ApprovedPattern merchant = pattern(1L, "(?<to>\\w+)\\b");
+        ApprovedPattern inside = pattern(2L, "caf\\b");
+        MultiPatternAutomaton automaton = MultiPatternAutomaton.compile(List.of(merchant, inside));
+
+        for (String message : List.of("café debited", "paid to Zoë 200", "naïve")) {
+            MultiPatternAutomaton.Result result = automaton.run(message);
+            for (ApprovedPattern approvedPattern : List.of(merchant, inside)) {
+                Matcher expected = approvedPattern.getPattern().matcher(message);
+                MatchResult actual = result.matchFor(approvedPattern);
+                if (expected.find()) {
+                    assertNotNull(actual, approvedPattern.getSource() + " on " + message);
+                    assertEquals(expected.group(), actual.group(), approvedPattern.getSource() + " on " + message);
+                } else {
+                    assertNull(actual, approvedPattern.getSource() + " on " + message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void run_CatastrophicPatternStaysLinear() {
+        ApprovedPattern nested = pattern(1L, "(a+)+b");
+        MultiPatternAutomaton automaton = MultiPatternAutomaton.compile(List.of(nested));
+
+        assertNull(automaton.run("a".repeat(5000)).matchFor(nested));
+    }
+
+    @Test
+    void run_MatchesJavaRegexOnRandomPatterns() {
+        Random random = new Random(7);
+        String[] atoms = {"a", "b", "c", "A", " ", "/", "\\.", "\\d", "\\w", "\\s", "\\W", ".", "[ab]", "[^c]",
+                "[a-c1]", "(?:ab|c)", "(a)", "(b+)", "(?<to>a|bc)", "\\b", "\\B", "^", "$", "(a|)", "(?:a*)"};
+        String[] quantifiers = {"", "", "", "*", "+", "?", "{2}", "{0,2}", "{1,3}", "{2,}", "*?", "+?", "??"};
+        String alphabet = "abcABC /.1\n";
+
+        for (int round = 0; round < 3000; round++) {
+            StringBuilder regex = new StringBuilder();
+            int atomCount = 1 + random.nextInt(6);
+            boolean namedGroupUsed = false;
+            for (int i = 0; i < atomCount; i++) {
+                String atom = atoms[random.nextInt(atoms.length)];
+                if (atom.startsWith("(?<to>")) {
+                    if (namedGroupUsed) {
+                        continue;
+                    }
+                    namedGroupUsed = true;
+                }
+                regex.append(atom);
+                if (!atom.equals("\\b") && !atom.equals("\\B") && !atom.equals("^") && !atom.equals("$")) {
+                    regex.append(quantifiers[random.nextInt(quantifiers.length)]);
+                }
+            }
+            if (random.nextInt(4) == 0) {
+                regex.append("|").append(atoms[random.nextInt(3)]);
+            }
+            ApprovedPattern approvedPattern = pattern((long) round, regex.toString());
+            MultiPatternAutomaton automaton = MultiPatternAutomaton.compile(List.of(approvedPattern));
+            assertTrue(automaton.supports(approvedPattern), "Expected automaton support for " + regex);
+
+            for (int sample = 0; sample < 10; sample++) {
+                StringBuilder text = new StringBuilder();
+                int textLength = random.nextInt(12);
+                for (int i = 0; i < textLength; i++) {
+                    text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                Matcher expected = approvedPattern.getPattern().matcher(text);
+                MatchResult actual = automaton.run(text.toString()).matchFor(approvedPattern);
+                String context = regex + " on '" + text + "'";
+                if (!expected.find()) {
+                    assertNull(actual, "Unexpected match for " + context);
+                    continue;
+                }
+                assertNotNull(actual, "Missing match for " + context);
+                assertEquals(expected.start(), actual.start(), "Start of " + context);
+                assertEquals(expected.end(), actual.end(), "End of " + context);
+                assertEquals(expected.groupCount(), actual.groupCount(), "Group count of " + context);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.Project_V1.regex;
+
+import com.example.Project_V1.dto.PatternCacheStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatternCacheTest {
+
+    @Test
+    void compile_ReturnsSameInstanceOnHit() {
+        PatternCache cache = new PatternCache(10);
+
+        Pattern first = cache.compile("\\d+", Pattern.CASE_INSENSITIVE);
+        Pattern second = cache.compile("\\d+", Pattern.CASE_INSENSITIVE);
+
+        assertSame(first, second);
+        PatternCacheStatsDto stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void compile_FlagsArePartOfKey() {
+        PatternCache cache = new PatternCache(10);
+
+        Pattern insensitive = cache.compile("abc", Pattern.CASE_INSENSITIVE);
+        Pattern sensitive = cache.compile("abc", 0);
+
+        assertNotSame(insensitive, sensitive);
+        assertEquals(2, cache.getStats().getMisses());
+    }
+
+    @Test
+    void compile_EvictsLeastRecentlyUsed() {
+        PatternCache cache = new PatternCache(2);
+
+        Pattern a = cache.compile("a", 0);
+        cache.compile("b", 0);
+        cache.compile("a", 0); // touch a so b is eldest
+        cache.compile("c", 0);
+
+        assertSame(a, cache.compile("a", 0));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void compile_InvalidPatternThrowsAndIsNotCached() {
+        PatternCache cache = new PatternCache(10);
+
+        assertThrows(PatternSyntaxException.class, () -> cache.compile("(?<invalid", 0));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PatternCache(0));
+    }
+}
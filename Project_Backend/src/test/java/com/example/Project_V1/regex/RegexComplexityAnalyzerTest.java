@@ -0,0 +1,68 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexComplexityAnalyzerTest {
+
+    private final RegexComplexityAnalyzer analyzer = new RegexComplexityAnalyzer(2_000_000, 500);
+
+    private RegexComplexityReport analyze(String regex) {
+        return analyzer.analyze(regex, Pattern.compile(regex, Pattern.CASE_INSENSITIVE));
+    }
+
+    @Test
+    void analyze_TypicalSmsPatternIsClean() {
+        RegexComplexityReport report = analyze(
+                "INR (?<amount>[\\d,]+\\.\\d{2}) debited from A/c (?<accountNumber>\\w+) on (?<date>\\d{2}-\\d{2}-\\d{2})");
+
+        assertFalse(report.isTimedOut());
+        assertTrue(report.getWarnings().isEmpty());
+        assertTrue(report.getScore() < 40);
+    }
+
+    @Test
+    void analyze_FlagsNestedQuantifier() {
+        RegexComplexityReport report = analyze("(?<to>(\\w+\\s?)+)\\d");
+
+        assertTrue(report.getWarnings().stream().anyMatch(warning -> warning.startsWith("Nested unbounded quantifier")));
+        assertTrue(report.getScore() >= 40);
+    }
+
+    @Test
+    void analyze_FlagsOverlappingAlternation() {
+        RegexComplexityReport report = analyze("(?:\\w|\\d)+ credited");
+
+        assertTrue(report.getWarnings().stream().anyMatch(warning -> warning.startsWith("Repeated alternation")));
+    }
+
+    @Test
+    void analyze_DisjointAlternationIsNotFlagged() {
+        RegexComplexityReport report = analyze("(?:debited|credited)+ Rs");
+
+        assertTrue(report.getWarnings().isEmpty());
+    }
+
+    @Test
+    void analyze_FlagsMultipleUnboundedDots() {
+        RegexComplexityReport report = analyze("credited.*Rs\\.(?<amount>.*)on.*");
+
+        assertTrue(report.getWarnings().stream().anyMatch(warning -> warning.startsWith("3 unbounded")));
+    }
+
+    @Test
+    void analyze_CatastrophicPatternTimesOut() {
+        RegexComplexityReport report = analyze("(a+)+\\1b");
+
+        assertTrue(report.isTimedOut());
+        assertEquals(100, report.getScore());
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new RegexComplexityAnalyzer(0, 500));
+    }
+}
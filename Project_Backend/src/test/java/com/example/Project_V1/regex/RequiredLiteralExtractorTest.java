@@ -0,0 +1,95 @@
+package com.example.Project_V1.regex;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequiredLiteralExtractorTest {
+
+    @Test
+    void extract_TopLevelLiteralRuns() {
+        List<String> literals = RequiredLiteralExtractor.extract(
+                "INR (?<amount>[\\d,]+\\.\\d{2}) debited from A/c (?<accountNumber>\\w+).*Avl Bal");
+
+        assertTrue(literals.contains(" debited from a/c "));
+        assertTrue(literals.contains("avl bal"));
+        assertTrue(literals.contains("inr "));
+    }
+
+    @Test
+    void extract_OptionalCharacterIsNotRequired() {
+        List<String> literals = RequiredLiteralExtractor.extract("Rs\\.?\\s*credited");
+
+        assertEquals(List.of("credited"), literals);
+    }
+
+    @Test
+    void extract_EscapedPunctuationIsLiteral() {
+        assertEquals(List.of("a/c. bal"), RequiredLiteralExtractor.extract("A/c\\. Bal"));
+    }
+
+    @Test
+    void extract_TopLevelAlternationYieldsNothing() {
+        assertTrue(RequiredLiteralExtractor.extract("credited to|debited from").isEmpty());
+    }
+
+    @Test
+    void extract_CommentsModeAndQuotingYieldNothing() {
+        assertTrue(RequiredLiteralExtractor.extract("(?x) credited  to").isEmpty());
+        assertTrue(RequiredLiteralExtractor.extract("\\Qcredited\\E to you").isEmpty());
+    }
+
+    @Test
+    void extract_GroupsAndClassesAreSkipped() {
+        List<String> literals = RequiredLiteralExtractor.extract("(?:credited|debited) [abc]xyz(foo)?bar");
+
+        assertEquals(List.of("xyz", "bar"), literals);
+    }
+
+    @Test
+    void extract_NonAsciiBreaksRuns() {
+        assertEquals(List.of("abc", "def"), RequiredLiteralExtractor.extract("abcédef"));
+    }
+
+    @Test
+    void extract_RandomPatternsNeverProduceLiteralsAbsentFromAMatch() {
+        Random random = new Random(42);
+        String[] atoms = {"a", "b", "c", "A", "B", " ", "/", "\\.", "\\d", "\\w", "\\s", ".", "[ab]", "[^c]",
+                "(?:ab|c)", "(a)", "(b+)", "\\bab", "a{2}b"};
+        String[] quantifiers = {"", "", "", "*", "+", "?", "{2}", "{0,2}", "{1,3}", "*?", "++"};
+        String alphabet = "abcABC /.1";
+
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder regex = new StringBuilder();
+            int atomCount = 1 + random.nextInt(8);
+            for (int i = 0; i < atomCount; i++) {
+                regex.append(atoms[random.nextInt(atoms.length)]);
+                regex.append(quantifiers[random.nextInt(quantifiers.length)]);
+            }
+            Pattern pattern = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+            List<String> literals = RequiredLiteralExtractor.extract(regex.toString());
+
+            for (int sample = 0; sample < 20; sample++) {
+                StringBuilder text = new StringBuilder();
+                int textLength = random.nextInt(16);
+                for (int i = 0; i < textLength; i++) {
+                    text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                Matcher matcher = pattern.matcher(text);
+                if (matcher.find()) {
+                    String lower = text.toString().toLowerCase(Locale.ROOT);
+                    for (String literal : literals) {
+                        assertTrue(lower.contains(literal),
+                                "Literal '" + literal + "' of " + regex + " missing from matching text '" + text + "'");
+                    }
+                }
+            }
+        }
+    }
+}
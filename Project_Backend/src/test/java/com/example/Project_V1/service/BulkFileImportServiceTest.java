@@ -0,0 +1,111 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.ingest.BulkIngestExecutor;
+import com.example.Project_V1.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkFileImportServiceTest {
+
+    @Mock
+    private BulkIngestJobService bulkIngestJobService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private BulkIngestExecutor executor;
+    private BulkFileImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new BulkIngestExecutor(3);
+        importService = new BulkFileImportService(bulkIngestJobService, executor, userRepository,
+                JsonMapper.builder().build(), 4, spoolDirectory.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importFile_SubmitsEveryMessageInFileOrder() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        BulkIngestJobDto job = new BulkIngestJobDto();
+        when(bulkIngestJobService.submit(eq(1L), any(Iterator.class), eq(30L))).thenReturn(job);
+
+        assertSame(job, importService.importFile(1L, exportFile(30)));
+
+        ArgumentCaptor<Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair>> messages = ArgumentCaptor.forClass(Iterator.class);
+        verify(bulkIngestJobService).submit(eq(1L), messages.capture(), eq(30L));
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> read = new ArrayList<>();
+        messages.getValue().forEachRemaining(read::add);
+        assertEquals(30, read.size());
+        for (int i = 0; i < 30; i++) {
+            assertEquals("message " + i, read.get(i).getMessage());
+        }
+
+        // The job closes its source when it ends, which removes the spooled copy
+        assertEquals(1, spooledFiles());
+        ((Closeable) messages.getValue()).close();
+        assertEquals(0, spooledFiles());
+    }
+
+    @Test
+    void importFile_RejectsBadInputWithoutLeavingSpoolFiles() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> importService.importFile(2L, exportFile(1)));
+        assertThrows(IllegalArgumentException.class, () -> importService.importFile(1L,
+                new MockMultipartFile("file", "export.json", "application/json", "[]".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> importService.importFile(1L,
+                new MockMultipartFile("file", "export.json", "application/json", "[{\"message\"".getBytes(StandardCharsets.UTF_8))));
+        verifyNoInteractions(bulkIngestJobService);
+        assertEquals(0, spooledFiles());
+    }
+
+    private MockMultipartFile exportFile(int count) {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < count; i++) {
+            json.append("  {\"message\": \"message ").append(i).append("\", \"bankAddress\": \"HDFC-CA-01\"}")
+                    .append(i < count - 1 ? ",\n" : "\n");
+        }
+        json.append("]\n");
+        return new MockMultipartFile("file", "export.json", "application/json", json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long spooledFiles() throws Exception {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkIngestResultDto;
+import com.example.Project_V1.dto.BulkIngestResultPageDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.enums.BulkIngestJobStatus;
+import com.example.Project_V1.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkIngestJobServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private BulkIngestJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new BulkIngestJobService(transactionService, userRepository, JsonMapper.builder().build(),
+                1, 4, 60, spoolDirectory.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void submit_ProcessesInSlicesAndPagesResults() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = invocation.getArgument(1);
+            List<BulkIngestResultDto> results = new ArrayList<>();
+            for (int i = 0; i < slice.size(); i++) {
+                boolean success = !slice.get(i).getMessage().startsWith("Promo");
+                results.add(new BulkIngestResultDto(i, success, slice.get(i).getMessage(), slice.get(i).getBankAddress(),
+                        success ? null : "No approved regex pattern matched the message", null));
+            }
+            return results;
+        });
+
+        BulkIngestJobDto submitted = jobService.submit(request(10));
+        BulkIngestJobDto finished = awaitFinished(submitted.getJobId());
+
+        assertEquals(BulkIngestJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(10L, finished.getTotalMessages());
+        assertEquals(10, finished.getProcessed());
+        assertEquals(7, finished.getSucceeded());
+        assertEquals(3, finished.getFailed());
+        assertTrue(finished.getMessagesPerSecond() > 0);
+        // 10 messages in slices of 4
+        verify(transactionService, times(3)).processMessageBatch(eq(1L), anyList());
+
+        BulkIngestResultPageDto page = jobService.getResults(submitted.getJobId(), 1, 4);
+        assertEquals(10, page.getTotalResults());
+        assertEquals(4, page.getResults().size());
+        assertEquals(4, page.getResults().get(0).getIndex());
+        assertEquals("Message 4", page.getResults().get(0).getMessage());
+        assertEquals(9, jobService.getResults(submitted.getJobId(), 2, 4).getResults().get(1).getIndex());
+    }
+
+    @Test
+    void cancel_StopsBeforeTheNextSlice() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        CountDownLatch firstSliceStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSlice = new CountDownLatch(1);
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenAnswer(invocation -> {
+            firstSliceStarted.countDown();
+            releaseFirstSlice.await(5, TimeUnit.SECONDS);
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = invocation.getArgument(1);
+            List<BulkIngestResultDto> results = new ArrayList<>();
+            for (int i = 0; i < slice.size(); i++) {
+                results.add(new BulkIngestResultDto(i, true, slice.get(i).getMessage(), "HDFC", null, null));
+            }
+            return results;
+        });
+
+        BulkIngestJobDto submitted = jobService.submit(request(12));
+        assertTrue(firstSliceStarted.await(5, TimeUnit.SECONDS));
+        jobService.cancel(submitted.getJobId());
+        releaseFirstSlice.countDown();
+        BulkIngestJobDto finished = awaitFinished(submitted.getJobId());
+
+        assertEquals(BulkIngestJobStatus.CANCELLED, finished.getStatus());
+        assertEquals(4, finished.getProcessed());
+        verify(transactionService, times(1)).processMessageBatch(eq(1L), anyList());
+    }
+
+    @Test
+    void submit_FailingSliceFailsTheJob() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenThrow(new IllegalStateException("database down"));
+
+        BulkIngestJobDto finished = awaitFinished(jobService.submit(request(3)).getJobId());
+
+        assertEquals(BulkIngestJobStatus.FAILED, finished.getStatus());
+        assertEquals("database down", finished.getError());
+    }
+
+    @Test
+    void submit_ClosesCloseableSourceWhenTheJobEnds() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenThrow(new IllegalStateException("database down"));
+        ClosingIterator source = new ClosingIterator(request(3).getMessages());
+
+        BulkIngestJobDto finished = awaitFinished(jobService.submit(1L, source, 3L).getJobId());
+
+        assertEquals(BulkIngestJobStatus.FAILED, finished.getStatus());
+        assertTrue(source.closed);
+    }
+
+    @Test
+    void removeExpiredJobs_ForgetsFinishedJobsPastRetention() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenThrow(new IllegalStateException("database down"));
+        BulkIngestJobService noRetention = new BulkIngestJobService(transactionService, userRepository,
+                JsonMapper.builder().build(), 1, 4, 0, spoolDirectory.toString());
+        try {
+            String jobId = noRetention.submit(request(3)).getJobId();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!noRetention.getJob(jobId).getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(5);
+
+            noRetention.removeExpiredJobs();
+
+            assertThrows(IllegalArgumentException.class, () -> noRetention.getJob(jobId));
+        } finally {
+            noRetention.shutdown();
+        }
+    }
+
+    @Test
+    void submit_RejectsUnknownUserAndEmptyRequests() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+        BulkMessageProcessRequestDto unknownUser = request(1);
+        unknownUser.setUserId(99L);
+
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(unknownUser));
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(new BulkMessageProcessRequestDto(1L, List.of())));
+        assertThrows(IllegalArgumentException.class, () -> jobService.getJob("missing"));
+    }
+
+    private BulkMessageProcessRequestDto request(int count) {
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String message = i % 3 == 0 && i > 0 ? "Promo " + i : "Message " + i;
+            messages.add(new BulkMessageProcessRequestDto.MessageBankAddressPair(message, "HDFC-BANK"));
+        }
+        return new BulkMessageProcessRequestDto(1L, messages);
+    }
+
+    private static class ClosingIterator implements Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair>, Closeable {
+        private final Iterator<BulkMessageProcessRequestDto.MessageBankAddressPair> delegate;
+        private volatile boolean closed;
+
+        ClosingIterator(List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages) {
+            this.delegate = messages.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public BulkMessageProcessRequestDto.MessageBankAddressPair next() {
+            return delegate.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private BulkIngestJobDto awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        BulkIngestJobDto job = jobService.getJob(jobId);
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobService.getJob(jobId);
+        }
+        return job;
+    }
+}
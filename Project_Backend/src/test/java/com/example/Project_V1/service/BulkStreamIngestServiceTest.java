@@ -0,0 +1,134 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestResultDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkStreamIngestServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private BulkStreamIngestService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new BulkStreamIngestService(transactionService, userRepository, jsonMapper, 3, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void process_WritesOneResultLinePerMessageInOrder() throws Exception {
+        stubEchoBatches();
+
+        List<BulkIngestResultDto> results = run(ndjson(8), false);
+
+        assertEquals(8, results.size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("message " + i, results.get(i).getMessage());
+        }
+        // 8 messages in slices of 3
+        verify(transactionService, times(3)).processMessageBatch(eq(1L), anyList());
+    }
+
+    @Test
+    void process_AcceptsGzipInput() throws Exception {
+        stubEchoBatches();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(ndjson(5).getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<BulkIngestResultDto> results = run(compressed.toByteArray(), true);
+
+        assertEquals(5, results.size());
+        assertEquals("message 4", results.get(4).getMessage());
+    }
+
+    @Test
+    void process_MalformedLineEndsStreamWithErrorAfterEarlierResults() throws Exception {
+        stubEchoBatches();
+        String input = ndjson(4) + "{\"message\": broken}\n" + ndjson(2);
+
+        List<BulkIngestResultDto> results = run(input, false);
+
+        // The slice holding the broken line fails to parse as a whole, so only the first full slice is reported
+        assertEquals(4, results.size());
+        assertTrue(results.get(2).isSuccess());
+        BulkIngestResultDto error = results.get(3);
+        assertFalse(error.isSuccess());
+        assertEquals(3, error.getIndex());
+        assertTrue(error.getError().contains("Malformed JSON at line 5"), error.getError());
+    }
+
+    @Test
+    void validateUser_RejectsMissingAndUnknownUsers() {
+        when(userRepository.existsById(7L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> streamService.validateUser(null));
+        assertThrows(IllegalArgumentException.class, () -> streamService.validateUser(7L));
+    }
+
+    private void stubEchoBatches() {
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = invocation.getArgument(1);
+            List<BulkIngestResultDto> results = new ArrayList<>();
+            for (int i = 0; i < slice.size(); i++) {
+                results.add(new BulkIngestResultDto(i, true, slice.get(i).getMessage(), slice.get(i).getBankAddress(), null, null));
+            }
+            return results;
+        });
+    }
+
+    private String ndjson(int count) {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            input.append("{\"message\":\"message ").append(i).append("\",\"bankAddress\":\"HDFC-BANK\"}\n");
+        }
+        return input.toString();
+    }
+
+    private List<BulkIngestResultDto> run(String input, boolean gzip) throws Exception {
+        return run(input.getBytes(StandardCharsets.UTF_8), gzip);
+    }
+
+    private List<BulkIngestResultDto> run(byte[] input, boolean gzip) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamService.process(1L, new ByteArrayInputStream(input), gzip, out);
+        List<BulkIngestResultDto> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                results.add(jsonMapper.readValue(line, BulkIngestResultDto.class));
+            }
+        }
+        return results;
+    }
+}
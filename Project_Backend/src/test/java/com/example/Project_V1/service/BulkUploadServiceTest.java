@@ -0,0 +1,196 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.BulkIngestJobDto;
+import com.example.Project_V1.dto.BulkIngestResultDto;
+import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
+import com.example.Project_V1.dto.BulkUploadDto;
+import com.example.Project_V1.enums.BulkIngestJobStatus;
+import com.example.Project_V1.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUploadServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private BulkIngestJobService jobService;
+    private BulkUploadService uploadService;
+    private final List<String> processedMessages = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        jobService = new BulkIngestJobService(transactionService, userRepository, jsonMapper,
+                1, 2, 60, spoolDirectory.resolve("results").toString());
+        uploadService = new BulkUploadService(jobService, userRepository, jsonMapper, spoolDirectory.toString(), 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadService.shutdown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void upload_ProcessesChunksAsTheyArriveAndCleansUp() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        stubEchoBatches();
+
+        BulkUploadDto upload = uploadService.create(1L);
+        assertNotNull(upload.getJobId());
+
+        byte[] firstChunk = lines(0, 3).getBytes(StandardCharsets.UTF_8);
+        assertEquals(firstChunk.length, uploadService.appendChunk(upload.getUploadId(), 0, new ByteArrayInputStream(firstChunk)).getCommittedOffset());
+        // The first slice of two is processed before the upload is finished
+        awaitProcessed(2);
+
+        byte[] secondChunk = lines(3, 5).getBytes(StandardCharsets.UTF_8);
+        long total = uploadService.appendChunk(upload.getUploadId(), firstChunk.length, new ByteArrayInputStream(secondChunk))
+                .getCommittedOffset();
+        assertTrue(uploadService.finish(upload.getUploadId(), total).isFinalized());
+
+        BulkIngestJobDto job = awaitFinished(upload.getJobId());
+        assertEquals(BulkIngestJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessed());
+        assertEquals(List.of("message 0", "message 1", "message 2", "message 3", "message 4"), processedMessages);
+        assertEquals(0, spooledUploads());
+    }
+
+    @Test
+    void abort_CancelsTheJobAndDeletesTheSpool() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        BulkUploadDto upload = uploadService.create(1L);
+        uploadService.abort(upload.getUploadId());
+
+        assertEquals(BulkIngestJobStatus.CANCELLED, awaitFinished(upload.getJobId()).getStatus());
+        assertThrows(IllegalArgumentException.class, () -> uploadService.getUpload(upload.getUploadId()));
+        assertEquals(0, spooledUploads());
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void upload_StalledUploadsDoNotHoldUpOtherJobs() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        stubEchoBatches();
+
+        // One job thread, and two uploads that never send a chunk
+        BulkUploadDto stalled = uploadService.create(1L);
+        BulkUploadDto alsoStalled = uploadService.create(1L);
+        BulkUploadDto active = uploadService.create(1L);
+        byte[] chunk = lines(0, 3).getBytes(StandardCharsets.UTF_8);
+        uploadService.appendChunk(active.getUploadId(), 0, new ByteArrayInputStream(chunk));
+        uploadService.finish(active.getUploadId(), (long) chunk.length);
+
+        BulkIngestJobDto job = awaitFinished(active.getJobId());
+        assertEquals(BulkIngestJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getProcessed());
+        assertFalse(jobService.getJob(stalled.getJobId()).getStatus().isFinished());
+        assertFalse(jobService.getJob(alsoStalled.getJobId()).getStatus().isFinished());
+    }
+
+    @Test
+    void removeIdleUploads_AbortsUploadsWithoutRecentChunks() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        BulkUploadService impatient = new BulkUploadService(jobService, userRepository, JsonMapper.builder().build(),
+                spoolDirectory.toString(), 0);
+
+        BulkUploadDto upload = impatient.create(1L);
+        Thread.sleep(5);
+        impatient.removeIdleUploads();
+
+        assertThrows(IllegalArgumentException.class, () -> impatient.getUpload(upload.getUploadId()));
+        assertTrue(awaitFinished(upload.getJobId()).getStatus().isFinished());
+        assertEquals(0, spooledUploads());
+        verifyNoInteractions(transactionService);
+    }
+
+    @Test
+    void create_RejectsUnknownUser() {
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> uploadService.create(2L));
+        assertThrows(IllegalArgumentException.class, () -> uploadService.create(null));
+    }
+
+    private void stubEchoBatches() {
+        when(transactionService.processMessageBatch(eq(1L), anyList())).thenAnswer(invocation -> {
+            List<BulkMessageProcessRequestDto.MessageBankAddressPair> slice = invocation.getArgument(1);
+            List<BulkIngestResultDto> results = new ArrayList<>();
+            for (int i = 0; i < slice.size(); i++) {
+                processedMessages.add(slice.get(i).getMessage());
+                results.add(new BulkIngestResultDto(i, true, slice.get(i).getMessage(), slice.get(i).getBankAddress(), null, null));
+            }
+            return results;
+        });
+    }
+
+    private String lines(int from, int to) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            ndjson.append("{\"message\":\"message ").append(i).append("\",\"bankAddress\":\"HDFC-BANK\"}\n");
+        }
+        return ndjson.toString();
+    }
+
+    private void awaitProcessed(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (processedMessages.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, processedMessages.size());
+    }
+
+    private BulkIngestJobDto awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        BulkIngestJobDto job = jobService.getJob(jobId);
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = jobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private long spooledUploads() throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        long count;
+        do {
+            try (Stream<Path> files = Files.list(spoolDirectory)) {
+                count = files.filter(file -> file.getFileName().toString().startsWith("bulk-upload-")).count();
+            }
+        } while (count > 0 && System.currentTimeMillis() < deadline && sleep());
+        return count;
+    }
+
+    private boolean sleep() throws InterruptedException {
+        Thread.sleep(10);
+        return true;
+    }
+}
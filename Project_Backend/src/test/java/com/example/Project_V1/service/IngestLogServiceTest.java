@@ -0,0 +1,274 @@
+package com.example.Project_V1.service;
+
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.dto.IngestLogAckDto;
+import com.example.Project_V1.dto.MultiUserBulkMessageRequestDto;
+import com.example.Project_V1.dto.TransactionMessageRequestDto;
+import com.example.Project_V1.enums.BulkErrorCode;
+import com.example.Project_V1.ingest.IngestLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestLogServiceTest {
+
+    @Mock
+    private TransactionService transactionService;
+
+    @TempDir
+    Path directory;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private IngestLogService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void append_AcceptedMessagesAreProcessedInTheBackground() throws Exception {
+        when(transactionService.processMultiUserBulkMessagesCompact(any())).thenAnswer(invocation -> stored(
+                invocation.<MultiUserBulkMessageRequestDto>getArgument(0).getMessages().size()));
+        service = newService(true);
+        service.start();
+
+        IngestLogAckDto ack = service.append(new TransactionMessageRequestDto("Rs.500 credited", 1L, "HDFC-BANK"));
+
+        assertFalse(ack.isProcessed());
+        awaitProcessed(ack.getOffset());
+        ArgumentCaptor<MultiUserBulkMessageRequestDto> request = ArgumentCaptor.forClass(MultiUserBulkMessageRequestDto.class);
+        verify(transactionService, atLeastOnce()).processMultiUserBulkMessagesCompact(request.capture());
+        assertEquals(new MultiUserBulkMessageRequestDto.UserMessage(1L, "Rs.500 credited", "HDFC-BANK"),
+                request.getValue().getMessages().get(0));
+        assertEquals(1, service.getStatus().getStoredMessages());
+    }
+
+    @Test
+    void start_ReplaysEntriesPastTheCheckpoint() throws Exception {
+        List<MultiUserBulkMessageRequestDto.UserMessage> processed = new ArrayList<>();
+        when(transactionService.processMultiUserBulkMessagesCompact(any())).thenAnswer(invocation -> {
+            List<MultiUserBulkMessageRequestDto.UserMessage> messages = invocation.<MultiUserBulkMessageRequestDto>getArgument(0).getMessages();
+            synchronized (processed) {
+                processed.addAll(messages);
+            }
+            return stored(messages.size());
+        });
+        long last;
+        // Left behind by a previous run that crashed after processing the first entry
+        try (IngestLog log = IngestLog.open(directory, 1 << 20)) {
+            log.append(entry(1L, "done before the crash"));
+            long second = log.append(entry(1L, "pending one"));
+            last = log.append(entry(2L, "pending two"));
+            log.commit(second);
+        }
+
+        service = newService(true);
+        service.start();
+
+        awaitProcessed(last);
+        synchronized (processed) {
+            assertEquals(List.of("pending one", "pending two"),
+                    processed.stream().map(MultiUserBulkMessageRequestDto.UserMessage::getMessage).toList());
+        }
+    }
+
+    @Test
+    void drain_DoesNotCheckpointPastAFailedWrite() throws Exception {
+        AtomicBoolean databaseUp = new AtomicBoolean(false);
+        List<String> processed = new ArrayList<>();
+        when(transactionService.processMultiUserBulkMessagesCompact(any())).thenAnswer(invocation -> {
+            List<MultiUserBulkMessageRequestDto.UserMessage> messages = invocation.<MultiUserBulkMessageRequestDto>getArgument(0).getMessages();
+            synchronized (processed) {
+                messages.forEach(message -> processed.add(message.getMessage()));
+            }
+            // "stored" always goes through and "unmatched" never matches; "pending" needs the database
+            List<Long> ids = new ArrayList<>();
+            List<Integer> failedIndexes = new ArrayList<>();
+            List<BulkErrorCode> errorCodes = new ArrayList<>();
+            for (int i = 0; i < messages.size(); i++) {
+                String message = messages.get(i).getMessage();
+                if (message.equals("unmatched")) {
+                    failedIndexes.add(i);
+                    errorCodes.add(BulkErrorCode.NO_MATCH);
+                } else if (message.equals("pending") && !databaseUp.get()) {
+                    failedIndexes.add(i);
+                    errorCodes.add(BulkErrorCode.WRITE_FAILED);
+                } else {
+                    ids.add((long) i + 1);
+                }
+            }
+            return new CompactBulkResponseDto(messages.size(), ids.size(), failedIndexes.size(),
+                    ids.stream().mapToLong(Long::longValue).toArray(),
+                    failedIndexes.stream().mapToInt(Integer::intValue).toArray(),
+                    errorCodes.toArray(new BulkErrorCode[0]));
+        });
+        long stored;
+        long unmatched;
+        long pending;
+        long last;
+        try (IngestLog log = IngestLog.open(directory, 1 << 20)) {
+            stored = log.append(entry(1L, "stored"));
+            unmatched = log.append(entry(1L, "unmatched"));
+            pending = log.append(entry(1L, "pending"));
+            last = log.append(entry(1L, "stored after"));
+        }
+
+        service = newService(true);
+        service.start();
+
+        awaitProcessed(unmatched);
+        // Give the drainer time to retry; the failed write keeps the checkpoint where it is
+        Thread.sleep(1500);
+        assertTrue(service.getEntry(stored).isProcessed());
+        assertFalse(service.getEntry(pending).isProcessed());
+        assertFalse(service.getEntry(last).isProcessed());
+        assertEquals(pending, service.getStatus().getProcessedOffset());
+        assertNotNull(service.getStatus().getLastError());
+
+        databaseUp.set(true);
+        awaitProcessed(last);
+        synchronized (processed) {
+            // Retries start at the failed message, not at the start of the batch
+            assertEquals(List.of("pending", "stored after"), processed.subList(processed.size() - 2, processed.size()));
+            assertEquals(1, processed.stream().filter("unmatched"::equals).count());
+        }
+        assertEquals(3, service.getStatus().getStoredMessages());
+        assertEquals(1, service.getStatus().getFailedMessages());
+        assertNull(service.getStatus().getLastError());
+    }
+
+    @Test
+    void drain_SetsAsideAMessageThatKeepsFailing() throws Exception {
+        // "poison" fails on every run, like a value the database cannot store but does not report as invalid
+        when(transactionService.processMultiUserBulkMessagesCompact(any())).thenAnswer(invocation ->
+                failing(invocation.getArgument(0), "poison", BulkErrorCode.WRITE_FAILED));
+        long poison;
+        long last;
+        try (IngestLog log = IngestLog.open(directory, 1 << 20)) {
+            poison = log.append(entry(1L, "poison"));
+            last = log.append(entry(1L, "stored after"));
+        }
+
+        service = newService(true, 2);
+        service.start();
+
+        // One retry after a second, then the message is given up on
+        awaitProcessed(last);
+        assertTrue(service.getEntry(poison).isProcessed());
+        assertEquals(1, service.getStatus().getStoredMessages());
+        assertEquals(1, service.getStatus().getFailedMessages());
+        assertEquals(1, service.getStatus().getDeadLetteredMessages());
+        List<String> deadLetters = Files.readAllLines(directory.resolve(IngestLogService.DEAD_LETTER_FILE));
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).contains("\"offset\":" + poison));
+        assertTrue(deadLetters.get(0).contains("\"message\":\"poison\""));
+        assertTrue(deadLetters.get(0).contains("WRITE_FAILED"));
+    }
+
+    @Test
+    void drain_InvalidDataIsSetAsideWithoutRetrying() throws Exception {
+        when(transactionService.processMultiUserBulkMessagesCompact(any())).thenAnswer(invocation ->
+                failing(invocation.getArgument(0), "amount too large", BulkErrorCode.INVALID_DATA));
+        service = newService(true, 10);
+        service.start();
+
+        service.append(new TransactionMessageRequestDto("amount too large", 1L, "HDFC-BANK"));
+        long last = service.append(new TransactionMessageRequestDto("stored after", 1L, "HDFC-BANK")).getOffset();
+
+        awaitProcessed(last);
+        verify(transactionService, atMost(2)).processMultiUserBulkMessagesCompact(any());
+        assertEquals(1, service.getStatus().getDeadLetteredMessages());
+        assertNull(service.getStatus().getLastError());
+        assertTrue(Files.readString(directory.resolve(IngestLogService.DEAD_LETTER_FILE)).contains("INVALID_DATA"));
+    }
+
+    @Test
+    void append_RejectsMessagesWithoutUserOrText() throws Exception {
+        service = newService(true);
+        service.start();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.append(new TransactionMessageRequestDto("text", null, "HDFC-BANK")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.append(new TransactionMessageRequestDto(" ", 1L, "HDFC-BANK")));
+    }
+
+    @Test
+    void append_DisabledByDefault() throws Exception {
+        service = newService(false);
+        service.start();
+
+        assertThrows(IllegalStateException.class,
+                () -> service.append(new TransactionMessageRequestDto("text", 1L, "HDFC-BANK")));
+        assertFalse(service.getStatus().isEnabled());
+    }
+
+    private IngestLogService newService(boolean enabled) {
+        return newService(enabled, 10);
+    }
+
+    private IngestLogService newService(boolean enabled, int maxAttempts) {
+        return new IngestLogService(transactionService, jsonMapper, enabled, directory.toString(), 1 << 20, 100, maxAttempts);
+    }
+
+    private byte[] entry(Long userId, String message) {
+        return jsonMapper.writeValueAsBytes(new MultiUserBulkMessageRequestDto.UserMessage(userId, message, "HDFC-BANK"));
+    }
+
+    private void awaitProcessed(long offset) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!service.getEntry(offset).isProcessed()) {
+            assertTrue(System.currentTimeMillis() < deadline, "entry at " + offset + " was not processed");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Every message with the given text fails with errorCode; the rest are stored
+     */
+    private static CompactBulkResponseDto failing(MultiUserBulkMessageRequestDto request, String text, BulkErrorCode errorCode) {
+        List<MultiUserBulkMessageRequestDto.UserMessage> messages = request.getMessages();
+        List<Long> ids = new ArrayList<>();
+        List<Integer> failedIndexes = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i).getMessage().equals(text)) {
+                failedIndexes.add(i);
+            } else {
+                ids.add((long) i + 1);
+            }
+        }
+        BulkErrorCode[] errorCodes = new BulkErrorCode[failedIndexes.size()];
+        Arrays.fill(errorCodes, errorCode);
+        return new CompactBulkResponseDto(messages.size(), ids.size(), failedIndexes.size(),
+                ids.stream().mapToLong(Long::longValue).toArray(),
+                failedIndexes.stream().mapToInt(Integer::intValue).toArray(), errorCodes);
+    }
+
+    private static CompactBulkResponseDto stored(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+        }
+        return new CompactBulkResponseDto(count, count, 0, ids, new int[0], new BulkErrorCode[0]);
+    }
+}
@@ -7,12 +7,20 @@ import com.example.Project_V1.dto.RegexSaveRequestDto;
 import com.example.Project_V1.dto.StatusUpdateRequestDto;
 import com.example.Project_V1.entity.RegexLog;
 import com.example.Project_V1.enums.RegexPatternStatus;
+import com.example.Project_V1.regex.ApprovedPatternRegistry;
+import com.example.Project_V1.regex.MessageTemplateCache;
+import com.example.Project_V1.regex.PatternCache;
+import com.example.Project_V1.regex.RegexComplexityAnalyzer;
+import com.example.Project_V1.regex.RegexComplexityReport;
+import com.example.Project_V1.regex.RegexTimeoutException;
+import com.example.Project_V1.regex.RegexTimeoutGuard;
 import com.example.Project_V1.repository.RegexLogRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -30,6 +38,21 @@ class RegexServiceImplTest {
     @Mock
     private RegexLogRepository regexLogRepository;
 
+    @Mock
+    private ApprovedPatternRegistry approvedPatternRegistry;
+
+    @Spy
+    private PatternCache patternCache = new PatternCache(100);
+
+    @Spy
+    private RegexTimeoutGuard timeoutGuard = new RegexTimeoutGuard(50);
+
+    @Spy
+    private RegexComplexityAnalyzer complexityAnalyzer = new RegexComplexityAnalyzer(2_000_000, 500);
+
+    @Spy
+    private MessageTemplateCache templateCache = new MessageTemplateCache(100);
+
     @InjectMocks
     private RegexServiceImpl regexService;
 
@@ -79,6 +102,16 @@ class RegexServiceImplTest {
         assertFalse(response.isMatchFound());
     }
 
+    @Test
+    void extract_CatastrophicPattern_TimesOutAsNoMatch() {
+        requestDto.setPattern("(a+)+\\1b");
+        requestDto.setText("a".repeat(40) + "c");
+
+        RegexResponseDto response = regexService.extract(requestDto);
+
+        assertFalse(response.isMatchFound());
+    }
+
     @Test
     void extract_EmptyPattern_ThrowsException() {
         requestDto.setPattern("");
@@ -131,6 +164,61 @@ class RegexServiceImplTest {
         verify(regexLogRepository).save(any(RegexLog.class));
     }
 
+    @Test
+    void saveRegexPattern_RecordsComplexityReport() {
+        when(regexLogRepository.existsByPattern(anyString(), anyString())).thenReturn(false);
+        when(regexLogRepository.existsByText(anyString(), anyString())).thenReturn(false);
+        when(regexLogRepository.save(any(RegexLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RegexLogDto result = regexService.saveRegexPattern(saveRequestDto);
+
+        assertNotNull(result.getComplexityScore());
+        assertNotNull(result.getWorstCaseMatchMicros());
+        assertTrue(result.getComplexityWarnings().isEmpty());
+    }
+
+    @Test
+    void saveRegexPattern_CatastrophicPattern_ThrowsException() {
+        saveRequestDto.setPattern("(a+)+\\1b");
+        saveRequestDto.setText("aab");
+        when(regexLogRepository.existsByPattern(anyString(), anyString())).thenReturn(false);
+        when(regexLogRepository.existsByText(anyString(), anyString())).thenReturn(false);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> regexService.saveRegexPattern(saveRequestDto));
+
+        assertTrue(exception.getMessage().startsWith("Regex pattern is too slow"));
+        verify(regexLogRepository, never()).save(any(RegexLog.class));
+    }
+
+    @Test
+    void saveRegexPattern_CatastrophicPattern_RejectedBeforeTheSampleRuns() {
+        saveRequestDto.setPattern("(a+)+\\1b");
+        saveRequestDto.setText("a".repeat(40) + "c");
+        when(regexLogRepository.existsByPattern(anyString(), anyString())).thenReturn(false);
+        when(regexLogRepository.existsByText(anyString(), anyString())).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> regexService.saveRegexPattern(saveRequestDto));
+
+        verify(timeoutGuard, never()).guard(any());
+    }
+
+    @Test
+    void saveRegexPattern_SampleTimesOut_ThrowsException() {
+        saveRequestDto.setPattern("(a+)+\\1b");
+        saveRequestDto.setText("a".repeat(40) + "c");
+        when(regexLogRepository.existsByPattern(anyString(), anyString())).thenReturn(false);
+        when(regexLogRepository.existsByText(anyString(), anyString())).thenReturn(false);
+        // A pattern the probes missed still only gets the usual time budget on the sample
+        doReturn(new RegexComplexityReport(0, List.of(), 1, false)).when(complexityAnalyzer).analyze(anyString(), any());
+
+        RegexTimeoutException exception = assertThrows(RegexTimeoutException.class,
+                () -> regexService.saveRegexPattern(saveRequestDto));
+
+        assertTrue(exception.getMessage().startsWith("Regex pattern is too slow"));
+        verify(regexLogRepository, never()).save(any(RegexLog.class));
+    }
+
     @Test
     void saveRegexPattern_EmptyPattern_ThrowsException() {
         saveRequestDto.setPattern("");
@@ -280,6 +368,7 @@ class RegexServiceImplTest {
 
         assertNotNull(result);
         verify(regexLogRepository).save(any(RegexLog.class));
+        verify(approvedPatternRegistry).refresh("HDFC-BANK");
     }
 
     @Test
@@ -301,6 +390,7 @@ class RegexServiceImplTest {
 
         assertNotNull(result);
         verify(regexLogRepository).save(any(RegexLog.class));
+        verify(approvedPatternRegistry, never()).refresh(anyString());
     }
 
     @Test
@@ -1,21 +1,36 @@
 package com.example.Project_V1.service;
 
+import com.example.Project_V1.dto.BulkIngestResultDto;
 import com.example.Project_V1.dto.BulkMessageProcessRequestDto;
 import com.example.Project_V1.dto.BulkMessageProcessResponseDto;
+import com.example.Project_V1.dto.CompactBulkResponseDto;
+import com.example.Project_V1.dto.MultiUserBulkMessageRequestDto;
 import com.example.Project_V1.dto.TransactionMessageRequestDto;
 import com.example.Project_V1.dto.TransactionResponseDto;
 import com.example.Project_V1.entity.RegexLog;
 import com.example.Project_V1.entity.Transaction;
 import com.example.Project_V1.entity.User;
+import com.example.Project_V1.ingest.BulkIngestExecutor;
+import com.example.Project_V1.ingest.GroupCommitWriter;
+import com.example.Project_V1.ingest.RecordingTransactionManager;
+import com.example.Project_V1.ingest.StatelessTransactionInserter;
+import com.example.Project_V1.ingest.TransactionBatchWriter;
+import com.example.Project_V1.ingest.TransactionDedupKey;
+import com.example.Project_V1.ingest.TransactionDeduplicator;
+import com.example.Project_V1.enums.BulkErrorCode;
 import com.example.Project_V1.enums.RegexPatternStatus;
 import com.example.Project_V1.enums.UserRole;
+import com.example.Project_V1.regex.ApprovedPatternRegistry;
+import com.example.Project_V1.regex.MessageMatcher;
+import com.example.Project_V1.regex.MessageTemplateCache;
+import com.example.Project_V1.regex.PatternCache;
+import com.example.Project_V1.regex.RegexTimeoutGuard;
 import com.example.Project_V1.repository.RegexLogRepository;
 import com.example.Project_V1.repository.TransactionRepository;
 import com.example.Project_V1.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -23,8 +38,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,7 +59,13 @@ class TransactionServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private StatelessTransactionInserter transactionInserter;
+
+    @Mock
+    private StatelessTransactionInserter.ChunkSession chunkSession;
+
+    private ApprovedPatternRegistry approvedPatternRegistry;
     private TransactionServiceImpl transactionService;
 
     private User testUser;
@@ -52,6 +75,18 @@ class TransactionServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        BulkIngestExecutor bulkIngestExecutor = new BulkIngestExecutor(4);
+        approvedPatternRegistry = spy(new ApprovedPatternRegistry(regexLogRepository, new PatternCache(100)));
+        TransactionBatchWriter transactionBatchWriter = new TransactionBatchWriter(transactionInserter,
+                new RecordingTransactionManager(), bulkIngestExecutor, 200);
+        transactionService = new TransactionServiceImpl(transactionRepository, userRepository,
+                approvedPatternRegistry, new MessageMatcher(new RegexTimeoutGuard(100), new MessageTemplateCache(100)),
+                bulkIngestExecutor, transactionBatchWriter,
+                new TransactionDeduplicator(transactionRepository, 100, 0.01),
+                new GroupCommitWriter(transactionBatchWriter, false, 5, 100, 2, 10000, 30000));
+        lenient().when(transactionInserter.inChunk(any())).thenAnswer(invocation ->
+                invocation.<Function<StatelessTransactionInserter.ChunkSession, Object>>getArgument(0).apply(chunkSession));
+
         testUser = new User();
         testUser.setId(1L);
         testUser.setUsername("testuser");
@@ -100,6 +135,56 @@ class TransactionServiceImplTest {
         verify(transactionRepository).save(any(Transaction.class));
     }
 
+    @Test
+    void processMessage_DuplicateReturnsStoredTransaction() {
+        String dedupKey = dedupKey("HDFC-BANK", messageRequestDto.getMessage());
+        testTransaction.setDedupKey(dedupKey);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+        when(transactionRepository.findDedupKeysByUserId(1L)).thenReturn(List.of(dedupKey));
+        when(transactionRepository.findByUserIdAndDedupKeyIn(1L, List.of(dedupKey))).thenReturn(List.of(testTransaction));
+
+        TransactionResponseDto response = transactionService.processMessage(messageRequestDto);
+
+        assertTrue(response.isDuplicate());
+        assertEquals(1L, response.getId());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void processMessage_GroupCommitInsertsThroughTheBatchWriter() {
+        BulkIngestExecutor bulkIngestExecutor = new BulkIngestExecutor(1);
+        TransactionBatchWriter transactionBatchWriter = new TransactionBatchWriter(transactionInserter,
+                new RecordingTransactionManager(), bulkIngestExecutor, 200);
+        GroupCommitWriter groupCommitWriter = new GroupCommitWriter(transactionBatchWriter, true, 0, 100, 2, 10000, 30000);
+        groupCommitWriter.start();
+        TransactionServiceImpl groupCommitService = new TransactionServiceImpl(transactionRepository, userRepository,
+                approvedPatternRegistry, new MessageMatcher(new RegexTimeoutGuard(100), new MessageTemplateCache(100)),
+                bulkIngestExecutor, transactionBatchWriter, new TransactionDeduplicator(transactionRepository, 100, 0.01),
+                groupCommitWriter);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+        doAnswer(invocation -> {
+            invocation.<List<Transaction>>getArgument(0).forEach(transaction -> transaction.setId(42L));
+            return null;
+        }).when(chunkSession).insertAll(anyList());
+
+        try {
+            TransactionResponseDto response = groupCommitService.processMessage(messageRequestDto);
+
+            assertEquals(42L, response.getId());
+            assertFalse(response.isDuplicate());
+            verify(transactionRepository, never()).save(any(Transaction.class));
+        } finally {
+            groupCommitWriter.shutdown();
+            bulkIngestExecutor.shutdown();
+        }
+    }
+
     @Test
     void processMessage_UserNotFound_ThrowsException() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -192,7 +277,6 @@ class TransactionServiceImplTest {
         when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
                 RegexPatternStatus.APPROVED, "HDFC-BANK"))
                 .thenReturn(Arrays.asList(approvedRegexLog));
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
 
         BulkMessageProcessResponseDto response = transactionService.processBulkMessages(bulkRequest);
 
@@ -200,6 +284,214 @@ class TransactionServiceImplTest {
         assertEquals(1, response.getTotalMessages());
         assertEquals(1, response.getSuccessfullyProcessed());
         assertEquals(0, response.getFailed());
+        verify(chunkSession).insertAll(anyList());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void processBulkMessages_ParallelResultsKeepInputOrder() {
+        BulkMessageProcessRequestDto bulkRequest = new BulkMessageProcessRequestDto();
+        bulkRequest.setUserId(1L);
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String message = i % 3 == 0
+                    ? "Promo " + i
+                    : "Your A/C " + (100000 + i) + " is debited with Rs." + i + ".00";
+            messages.add(new BulkMessageProcessRequestDto.MessageBankAddressPair(message, "HDFC-BANK"));
+        }
+        bulkRequest.setMessages(messages);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+
+        BulkMessageProcessResponseDto response = transactionService.processBulkMessages(bulkRequest);
+
+        assertEquals(26, response.getSuccessfullyProcessed());
+        assertEquals(14, response.getFailed());
+        int success = 0;
+        int failed = 0;
+        for (int i = 0; i < 40; i++) {
+            if (i % 3 == 0) {
+                assertEquals("Promo " + i, response.getFailedMessages().get(failed++).getMessage());
+            } else {
+                assertEquals(messages.get(i).getMessage(), response.getSuccessfulTransactions().get(success++).getOriginalMessage());
+            }
+        }
+    }
+
+    @Test
+    void processMessageBatch_OneResultPerMessageInOrder() {
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages = List.of(
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is credited with Rs.500.00", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Promo", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is debited with Rs.20.00", ""));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+
+        List<BulkIngestResultDto> results = transactionService.processMessageBatch(1L, messages);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("500.00", results.get(0).getTransaction().getAmount().toPlainString());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("No approved regex pattern matched the message", results.get(1).getError());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("Bank address is required for processing transactions", results.get(2).getError());
+        assertEquals(List.of(0L, 1L, 2L), results.stream().map(BulkIngestResultDto::getIndex).toList());
+    }
+
+    @Test
+    void processMessageBatch_ResolvesPatternsOncePerBank() {
+        List<BulkMessageProcessRequestDto.MessageBankAddressPair> messages = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            String bank = i % 5 == 0 ? "ICICI-BANK" : "HDFC-BANK";
+            messages.add(new BulkMessageProcessRequestDto.MessageBankAddressPair(
+                    "Your A/C " + (100000 + i) + " is debited with Rs." + i + ".00", bank));
+        }
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "ICICI-BANK"))
+                .thenReturn(List.of());
+
+        List<BulkIngestResultDto> results = transactionService.processMessageBatch(1L, messages);
+
+        verify(approvedPatternRegistry, times(1)).getPatterns("HDFC-BANK");
+        verify(approvedPatternRegistry, times(1)).getPatterns("ICICI-BANK");
+        assertEquals(150, results.size());
+        for (int i = 0; i < 150; i++) {
+            BulkIngestResultDto result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertEquals(messages.get(i).getMessage(), result.getMessage());
+            if (i % 5 == 0) {
+                assertFalse(result.isSuccess());
+                assertTrue(result.getError().startsWith("No approved regex patterns found for bank address: ICICI-BANK"), result.getError());
+            } else {
+                assertEquals(i + ".00", result.getTransaction().getAmount().toPlainString());
+            }
+        }
+    }
+
+    @Test
+    void processMultiUserBulkMessages_ValidatesUsersInOneQuery() {
+        User otherUser = new User();
+        otherUser.setId(2L);
+        otherUser.setUsername("other");
+        MultiUserBulkMessageRequestDto request = new MultiUserBulkMessageRequestDto(List.of(
+                new MultiUserBulkMessageRequestDto.UserMessage(1L, "Your A/C 123456 is credited with Rs.500.00", "HDFC-BANK"),
+                new MultiUserBulkMessageRequestDto.UserMessage(7L, "Your A/C 123456 is credited with Rs.1.00", "HDFC-BANK"),
+                new MultiUserBulkMessageRequestDto.UserMessage(2L, "Your A/C 654321 is debited with Rs.20.00", "HDFC-BANK"),
+                new MultiUserBulkMessageRequestDto.UserMessage(null, "Your A/C 1 is debited with Rs.2.00", "HDFC-BANK"),
+                new MultiUserBulkMessageRequestDto.UserMessage(2L, "Promo", "HDFC-BANK")));
+
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(testUser, otherUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+
+        BulkMessageProcessResponseDto response = transactionService.processMultiUserBulkMessages(request);
+
+        verify(userRepository).findAllById(argThat(ids -> ids instanceof Collection<?> c && c.size() == 3));
+        verify(userRepository, never()).findById(any());
+        assertEquals(5, response.getTotalMessages());
+        assertEquals(2, response.getSuccessfullyProcessed());
+        assertEquals(1L, response.getSuccessfulTransactions().get(0).getUserId());
+        assertEquals(2L, response.getSuccessfulTransactions().get(1).getUserId());
+        assertEquals(3, response.getFailed());
+        assertEquals("User not found with id: 7", response.getFailedMessages().get(0).getError());
+        assertEquals(7L, response.getFailedMessages().get(0).getUserId());
+        assertEquals("User ID is required", response.getFailedMessages().get(1).getError());
+        assertEquals("No approved regex pattern matched the message", response.getFailedMessages().get(2).getError());
+        assertEquals(2L, response.getFailedMessages().get(2).getUserId());
+        // Messages of both users go out in one batch
+        verify(chunkSession).insertAll(argThat(batch -> batch.size() == 2));
+    }
+
+    @Test
+    void processBulkMessagesCompact_ReportsIdsAndErrorCodes() {
+        BulkMessageProcessRequestDto bulkRequest = new BulkMessageProcessRequestDto(1L, List.of(
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is credited with Rs.500.00", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Promo", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is debited with Rs.20.00", ""),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is debited with Rs.30.00", "HDFC-BANK")));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+        doAnswer(invocation -> {
+            long id = 100;
+            for (Transaction transaction : invocation.<List<Transaction>>getArgument(0)) {
+                transaction.setId(id++);
+            }
+            return null;
+        }).when(chunkSession).insertAll(anyList());
+
+        CompactBulkResponseDto response = transactionService.processBulkMessagesCompact(bulkRequest);
+
+        assertEquals(4, response.getTotalMessages());
+        assertEquals(2, response.getSuccessfullyProcessed());
+        assertArrayEquals(new long[]{100L, 101L}, response.getTransactionIds());
+        assertArrayEquals(new int[]{1, 2}, response.getFailedIndexes());
+        assertArrayEquals(new BulkErrorCode[]{BulkErrorCode.NO_MATCH, BulkErrorCode.BANK_ADDRESS_REQUIRED}, response.getErrorCodes());
+    }
+
+    @Test
+    void processBulkMessagesCompact_DropsStoredAndRepeatedMessages() {
+        String stored = "Your A/C 123456 is debited with Rs.30.00";
+        BulkMessageProcessRequestDto bulkRequest = new BulkMessageProcessRequestDto(1L, List.of(
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is credited with Rs.500.00", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("Your A/C 123456 is credited with Rs.500.00", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair(stored, "HDFC-BANK")));
+        Transaction storedTransaction = new Transaction();
+        storedTransaction.setId(7L);
+        storedTransaction.setDedupKey(dedupKey("HDFC-BANK", stored));
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+        when(transactionRepository.findDedupKeysByUserId(1L)).thenReturn(List.of(storedTransaction.getDedupKey()));
+        when(transactionRepository.findByUserIdAndDedupKeyIn(eq(1L), anyCollection())).thenReturn(List.of(storedTransaction));
+        doAnswer(invocation -> {
+            invocation.<List<Transaction>>getArgument(0).forEach(transaction -> transaction.setId(100L));
+            return null;
+        }).when(chunkSession).insertAll(anyList());
+
+        CompactBulkResponseDto response = transactionService.processBulkMessagesCompact(bulkRequest);
+
+        assertArrayEquals(new long[]{100L}, response.getTransactionIds());
+        assertArrayEquals(new int[]{1, 2}, response.getFailedIndexes());
+        assertArrayEquals(new BulkErrorCode[]{BulkErrorCode.DUPLICATE, BulkErrorCode.DUPLICATE}, response.getErrorCodes());
+        verify(chunkSession).insertAll(argThat(transactions -> transactions.size() == 1));
+    }
+
+    @Test
+    void processBulkMessagesCompact_UnknownUserFailsEveryMessage() {
+        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+        CompactBulkResponseDto response = transactionService.processBulkMessagesCompact(new BulkMessageProcessRequestDto(9L, List.of(
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("a", "HDFC-BANK"),
+                new BulkMessageProcessRequestDto.MessageBankAddressPair("b", "HDFC-BANK"))));
+
+        assertEquals(0, response.getTransactionIds().length);
+        assertArrayEquals(new int[]{0, 1}, response.getFailedIndexes());
+        assertArrayEquals(new BulkErrorCode[]{BulkErrorCode.USER_NOT_FOUND, BulkErrorCode.USER_NOT_FOUND}, response.getErrorCodes());
+    }
+
+    @Test
+    void processMessageBatch_UnknownUserThrows() {
+        when(userRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> transactionService.processMessageBatch(9L, List.of()));
     }
 
     @Test
@@ -381,4 +673,26 @@ class TransactionServiceImplTest {
             transactionService.verifyTransaction(999L);
         });
     }
+
+    @Test
+    void processMessage_ApprovedPatternsLoadedOncePerBank() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(regexLogRepository.findByStatusAndBankAddressOrderByCreatedAtDesc(
+                RegexPatternStatus.APPROVED, "HDFC-BANK"))
+                .thenReturn(Arrays.asList(approvedRegexLog));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+
+        transactionService.processMessage(messageRequestDto);
+        transactionService.processMessage(messageRequestDto);
+
+        verify(regexLogRepository, times(1))
+                .findByStatusAndBankAddressOrderByCreatedAtDesc(RegexPatternStatus.APPROVED, "HDFC-BANK");
+    }
+
+    private String dedupKey(String bankAddress, String message) {
+        Transaction transaction = new Transaction();
+        transaction.setBankAddress(bankAddress);
+        transaction.setOriginalMessage(message);
+        return TransactionDedupKey.of(transaction);
+    }
 }